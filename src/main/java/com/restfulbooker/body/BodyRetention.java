@@ -0,0 +1,13 @@
+package com.restfulbooker.body;
+
+/** What {@link ResponseBodies} keeps of a response body larger than the inline limit. */
+public enum BodyRetention {
+    /** The first max-inline bytes. */
+    TRUNCATE,
+    /** A SHA-256 digest and the size. */
+    HASH,
+    /** The whole body, gzipped on the heap within a byte budget; oldest bodies are dropped first. */
+    COMPRESS,
+    /** The whole body, appended to memory-mapped files on disk. */
+    SPILL
+}
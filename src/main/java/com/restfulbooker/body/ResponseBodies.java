@@ -0,0 +1,201 @@
+package com.restfulbooker.body;
+
+import com.restfulbooker.history.ResultLog;
+import com.restfulbooker.model.TestResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounds how much of each response body a {@link TestResult} holds on to.
+ * Bodies up to body.retention.max-inline bytes stay in the result as they
+ * are; larger ones are handled by the configured {@link BodyRetention}.
+ * Compressed and spilled bodies get a reference the dashboard passes to
+ * {@code /api/bodies/{ref}} when a result is expanded.
+ * <p>
+ * Spilled bodies live in a {@link ResultLog} of their own, so they stay
+ * readable across restarts until their segment is retired; they are not
+ * forced to disk, since losing the last few on a crash costs nothing.
+ */
+@Component
+public class ResponseBodies {
+
+    private static final String COMPRESSED_PREFIX = "m";
+    private static final String SPILLED_PREFIX = "f";
+
+    private final BodyRetention mode;
+    private final int maxInline;
+    private final long compressedBudget;
+    private final ResultLog spillLog;
+
+    private final AtomicLong sequence = new AtomicLong();
+    // Insertion order, so the oldest bodies are dropped first once over budget
+    private final Map<String, byte[]> compressed = new LinkedHashMap<>();
+    private long compressedBytes;
+
+    public ResponseBodies(@Value("${body.retention.mode:spill}") BodyRetention mode,
+                          @Value("${body.retention.max-inline:1KB}") DataSize maxInline,
+                          @Value("${body.retention.compressed-budget:32MB}") DataSize compressedBudget,
+                          @Value("${body.retention.dir:${data.dir:${user.home}/.api-testing-dashboard}/bodies}") Path directory,
+                          @Value("${body.retention.segment-size:16MB}") DataSize segmentSize,
+                          @Value("${body.retention.retained-segments:4}") int retainedSegments) {
+        this.maxInline = (int) Math.min(Integer.MAX_VALUE, maxInline.toBytes());
+        this.compressedBudget = compressedBudget.toBytes();
+        ResultLog opened = null;
+        if (mode == BodyRetention.SPILL) {
+            try {
+                opened = new ResultLog(directory, (int) segmentSize.toBytes(), retainedSegments);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Body spill store disabled, truncating bodies instead: " + e.getMessage());
+                mode = BodyRetention.TRUNCATE;
+            }
+        }
+        this.mode = mode;
+        this.spillLog = opened;
+    }
+
+    /** Replaces the result's response body with what the retention policy keeps of it. */
+    public void retain(TestResult result) {
+        String body = result.getResponseBody();
+        if (body == null) {
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        result.setBodySize(bytes.length);
+        if (bytes.length <= maxInline) {
+            return;
+        }
+
+        switch (mode) {
+            case TRUNCATE -> keepPrefix(result, bytes);
+            case HASH -> {
+                result.setResponseBody(null);
+                result.setBodyDigest(sha256(bytes));
+            }
+            case COMPRESS -> keepReference(result, compress(bytes));
+            case SPILL -> {
+                String ref = spill(bytes);
+                if (ref != null) {
+                    keepReference(result, ref);
+                } else {
+                    keepPrefix(result, bytes);
+                }
+            }
+        }
+    }
+
+    /** The full body behind a reference, or null if it is unknown or no longer kept. */
+    public String load(String ref) {
+        if (ref == null || ref.length() < 2) {
+            return null;
+        }
+        String prefix = ref.substring(0, 1);
+        try {
+            if (prefix.equals(COMPRESSED_PREFIX)) {
+                byte[] gzipped;
+                synchronized (compressed) {
+                    gzipped = compressed.get(ref);
+                }
+                return gzipped != null ? decompress(gzipped) : null;
+            }
+            if (prefix.equals(SPILLED_PREFIX) && spillLog != null) {
+                ByteBuffer record = spillLog.read(Long.parseUnsignedLong(ref.substring(1), 16));
+                return record != null ? StandardCharsets.UTF_8.decode(record).toString() : null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return null;
+    }
+
+    public BodyRetention getMode() {
+        return mode;
+    }
+
+    private String compress(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] gzipped = out.toByteArray();
+        String ref = COMPRESSED_PREFIX + sequence.incrementAndGet();
+        synchronized (compressed) {
+            compressed.put(ref, gzipped);
+            compressedBytes += gzipped.length;
+            // The newest body is always kept, even on its own over budget
+            Iterator<byte[]> oldest = compressed.values().iterator();
+            while (compressedBytes > compressedBudget && compressed.size() > 1) {
+                compressedBytes -= oldest.next().length;
+                oldest.remove();
+            }
+        }
+        return ref;
+    }
+
+    private static String decompress(byte[] gzipped) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String spill(byte[] bytes) {
+        try {
+            return SPILLED_PREFIX + Long.toHexString(spillLog.append(ByteBuffer.wrap(bytes)));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Failed to spill a " + bytes.length + " byte body: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void keepPrefix(TestResult result, byte[] bytes) {
+        // Cut at a character boundary so the kept prefix is valid UTF-8
+        int end = maxInline;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        result.setResponseBody(new String(bytes, 0, end, StandardCharsets.UTF_8));
+        result.setBodyTruncated(true);
+    }
+
+    private static void keepReference(TestResult result, String ref) {
+        result.setResponseBody(null);
+        result.setBodyRef(ref);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return "sha256:" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (spillLog != null) {
+            spillLog.close();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.restfulbooker.controller;
+
+import com.restfulbooker.model.AuthMetrics;
+import com.restfulbooker.service.AuthTokenManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = "*")
+public class AuthController {
+
+    @Autowired
+    private AuthTokenManager authTokens;
+
+    @GetMapping("/metrics")
+    public AuthMetrics getMetrics() {
+        return authTokens.getMetrics();
+    }
+}
@@ -0,0 +1,26 @@
+package com.restfulbooker.controller;
+
+import com.restfulbooker.body.ResponseBodies;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/bodies")
+@CrossOrigin(origins = "*")
+public class BodyController {
+
+    @Autowired
+    private ResponseBodies responseBodies;
+
+    @GetMapping(value = "/{ref}", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String getBody(@PathVariable String ref) {
+        String body = responseBodies.load(ref);
+        if (body == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Response body not found or no longer kept: " + ref);
+        }
+        return body;
+    }
+}
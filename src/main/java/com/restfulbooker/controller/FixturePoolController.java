@@ -0,0 +1,22 @@
+package com.restfulbooker.controller;
+
+import com.restfulbooker.model.FixturePoolStats;
+import com.restfulbooker.service.FixturePool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/fixtures")
+@CrossOrigin(origins = "*")
+public class FixturePoolController {
+
+    @Autowired
+    private FixturePool fixturePool;
+
+    @GetMapping("/pool")
+    public List<FixturePoolStats> getPool() {
+        return fixturePool.getStats();
+    }
+}
@@ -0,0 +1,31 @@
+package com.restfulbooker.controller;
+
+import com.restfulbooker.history.ResultHistory;
+import com.restfulbooker.model.HistoryEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/history")
+@CrossOrigin(origins = "*")
+public class HistoryController {
+
+    private static final int MAX_LIMIT = 10000;
+
+    @Autowired
+    private ResultHistory history;
+
+    @GetMapping
+    public List<HistoryEntry> getHistory(@RequestParam(required = false) String testId,
+                                         @RequestParam(required = false) String runId,
+                                         @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected 1 <= limit <= " + MAX_LIMIT);
+        }
+        return history.query(testId, runId, limit);
+    }
+}
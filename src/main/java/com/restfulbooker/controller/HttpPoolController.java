@@ -0,0 +1,42 @@
+package com.restfulbooker.controller;
+
+import com.restfulbooker.http.CircuitBreakers;
+import com.restfulbooker.http.ConcurrencyLimiters;
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.model.CircuitBreakerStats;
+import com.restfulbooker.model.ConnectionPoolStats;
+import com.restfulbooker.model.LimiterStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/http")
+@CrossOrigin(origins = "*")
+public class HttpPoolController {
+
+    @Autowired
+    private HttpClientPools httpClientPools;
+
+    @Autowired
+    private ConcurrencyLimiters concurrencyLimiters;
+
+    @Autowired
+    private CircuitBreakers circuitBreakers;
+
+    @GetMapping("/pools")
+    public List<ConnectionPoolStats> getPools() {
+        return httpClientPools.getStats();
+    }
+
+    @GetMapping("/limits")
+    public List<LimiterStats> getLimits() {
+        return concurrencyLimiters.getStats();
+    }
+
+    @GetMapping("/breakers")
+    public List<CircuitBreakerStats> getBreakers() {
+        return circuitBreakers.getStats();
+    }
+}
@@ -0,0 +1,73 @@
+package com.restfulbooker.controller;
+
+import com.restfulbooker.model.LoadReport;
+import com.restfulbooker.service.LoadTestService;
+import com.restfulbooker.service.TestCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@RestController
+@RequestMapping("/api/load")
+@CrossOrigin(origins = "*")
+public class LoadTestController {
+
+    private static final int MAX_RPS = 1000;
+    private static final int MAX_DURATION_SECONDS = 600;
+    private static final int MAX_CONCURRENCY = 512;
+
+    @Autowired
+    private LoadTestService loadTestService;
+
+    @Autowired
+    private TestCatalog catalog;
+
+    /**
+     * Streams a "snapshot" event every second and a final "report" event.
+     * Closing the connection stops the run.
+     */
+    @GetMapping("/{test}")
+    public SseEmitter runLoad(@PathVariable String test,
+                              @RequestParam(defaultValue = "10") int rps,
+                              @RequestParam(defaultValue = "10") int duration,
+                              @RequestParam(defaultValue = "32") int concurrency) {
+        if (catalog.getTest(test) == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown test: " + test);
+        }
+        if (rps < 1 || rps > MAX_RPS || duration < 1 || duration > MAX_DURATION_SECONDS
+                || concurrency < 1 || concurrency > MAX_CONCURRENCY) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected 1 <= rps <= " + MAX_RPS
+                    + ", 1 <= duration <= " + MAX_DURATION_SECONDS + ", 1 <= concurrency <= " + MAX_CONCURRENCY);
+        }
+
+        SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(duration + 60));
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(e -> open.set(false));
+
+        Thread.ofVirtual().name("load-" + test).start(() -> {
+            LoadReport report = loadTestService.run(test, rps, duration, concurrency,
+                    snapshot -> open.get() && send(emitter, "snapshot", snapshot));
+            if (send(emitter, "report", report)) {
+                emitter.complete();
+            }
+        });
+        return emitter;
+    }
+
+    private static boolean send(SseEmitter emitter, String event, LoadReport report) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(report));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            return false;
+        }
+    }
+}
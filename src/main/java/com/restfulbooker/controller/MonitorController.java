@@ -0,0 +1,22 @@
+package com.restfulbooker.controller;
+
+import com.restfulbooker.model.MonitorStatus;
+import com.restfulbooker.monitor.MonitorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/monitors")
+@CrossOrigin(origins = "*")
+public class MonitorController {
+
+    @Autowired
+    private MonitorService monitorService;
+
+    @GetMapping
+    public List<MonitorStatus> getMonitors() {
+        return monitorService.getStatus();
+    }
+}
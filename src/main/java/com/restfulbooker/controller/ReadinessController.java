@@ -0,0 +1,25 @@
+package com.restfulbooker.controller;
+
+import com.restfulbooker.model.SiteReadiness;
+import com.restfulbooker.service.WarmupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/readiness")
+@CrossOrigin(origins = "*")
+public class ReadinessController {
+
+    @Autowired
+    private WarmupService warmupService;
+
+    @GetMapping
+    public ResponseEntity<List<SiteReadiness>> getReadiness() {
+        HttpStatus status = warmupService.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(warmupService.getReadiness());
+    }
+}
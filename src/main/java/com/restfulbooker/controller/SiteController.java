@@ -0,0 +1,58 @@
+package com.restfulbooker.controller;
+
+import com.restfulbooker.model.SiteInfo;
+import com.restfulbooker.service.SiteRegistry;
+import com.restfulbooker.spec.SpecEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sites")
+@CrossOrigin(origins = "*")
+public class SiteController {
+
+    @Autowired
+    private SiteRegistry siteRegistry;
+
+    @Value("${sites.registration.enabled:false}")
+    private boolean registrationEnabled;
+
+    @GetMapping
+    public List<SiteInfo> getSites() {
+        return siteRegistry.getSites();
+    }
+
+    @GetMapping("/{site}")
+    public SiteInfo getSite(@PathVariable String site) {
+        SiteInfo info = siteRegistry.getSite(site);
+        if (info == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown site: " + site);
+        }
+        return info;
+    }
+
+    /**
+     * Registers a site from a spec in the same YAML format as {@code specs/*.yml}.
+     * Off unless sites.registration.enabled is set, since anyone who can reach
+     * the dashboard could otherwise point it at a host of their choosing.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public SiteInfo register(@RequestBody String spec) {
+        if (!registrationEnabled) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Site registration is disabled; set sites.registration.enabled=true");
+        }
+        try {
+            return siteRegistry.register(SpecEngine.parse(new ByteArrayInputStream(spec.getBytes(StandardCharsets.UTF_8))));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.restfulbooker.controller;
+
+import com.restfulbooker.model.WindowStats;
+import com.restfulbooker.stats.LatencyStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*")
+public class StatsController {
+
+    @Autowired
+    private LatencyStats latencyStats;
+
+    @GetMapping
+    public List<WindowStats> getStats(@RequestParam(defaultValue = "5m") String window) {
+        List<WindowStats> stats = latencyStats.queryAll(window);
+        if (stats == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown window: " + window + " (expected 1m, 5m or 1h)");
+        }
+        return stats;
+    }
+
+    @GetMapping("/{testId}")
+    public List<WindowStats> getTestStats(@PathVariable String testId) {
+        List<WindowStats> stats = latencyStats.queryTest(testId);
+        if (stats == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown test: " + testId);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,78 @@
+package com.restfulbooker.controller;
+
+import com.restfulbooker.model.SuiteProgress;
+import com.restfulbooker.model.SuiteReport;
+import com.restfulbooker.service.SuiteRunEvents;
+import com.restfulbooker.service.SuiteRunnerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/suites")
+@CrossOrigin(origins = "*")
+public class SuiteController {
+
+    private static final long STREAM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    @Autowired
+    private SuiteRunnerService suiteRunner;
+
+    @Autowired
+    private SuiteRunEvents events;
+
+    @GetMapping("/{site}/run")
+    public SuiteReport runSuite(@PathVariable String site) {
+        SuiteReport report = suiteRunner.runSuite(site);
+        if (report == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown site: " + site);
+        }
+        return report;
+    }
+
+    @PostMapping("/{site}/runs")
+    public SuiteProgress startSuite(@PathVariable String site) {
+        SuiteProgress progress = suiteRunner.startSuite(site);
+        if (progress == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown site: " + site);
+        }
+        return progress;
+    }
+
+    /**
+     * Streams "result" and "progress" events as tests finish and a final
+     * "report" event. Late subscribers first get everything they missed.
+     */
+    @GetMapping("/runs/{runId}/events")
+    public SseEmitter streamRun(@PathVariable String runId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        Runnable cancel = events.subscribe(runId, new SuiteRunEvents.EventSink() {
+            @Override
+            public boolean send(String event, Object data) {
+                try {
+                    emitter.send(SseEmitter.event().name(event).data(data));
+                    return true;
+                } catch (IOException | IllegalStateException e) {
+                    return false;
+                }
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        if (cancel == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown run: " + runId);
+        }
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(cancel);
+        emitter.onError(e -> cancel.run());
+        return emitter;
+    }
+}
@@ -1,9 +1,11 @@
 package com.restfulbooker.controller;
 
-import com.restfulbooker.service.ApiTestService;
 import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.TestExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/tests")
@@ -11,55 +13,14 @@ import org.springframework.web.bind.annotation.*;
 public class TestController {
 
     @Autowired
-    private ApiTestService testService;
+    private TestExecutor testExecutor;
 
-    @GetMapping("/health")
-    public TestResult runHealthCheck() {
-        return testService.testHealthCheck();
+    @GetMapping("/{testId}")
+    public TestResult runTest(@PathVariable String testId) {
+        TestResult result = testExecutor.run(testId);
+        if (result == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown test: " + testId);
+        }
+        return result;
     }
-
-    @GetMapping("/create-booking")
-    public TestResult runCreateBooking() {
-        return testService.testCreateBooking();
-    }
-
-    @GetMapping("/get-booking")
-    public TestResult runGetBooking() {
-        return testService.testGetBooking();
-    }
-
-    @GetMapping("/get-all-bookings")
-    public TestResult runGetAllBookings() {
-        return testService.testGetAllBookings();
-    }
-
-    @GetMapping("/get-bookings-by-name")
-    public TestResult runGetBookingsByName() {
-        return testService.testGetBookingsByName();
-    }
-
-    @GetMapping("/update-booking")
-    public TestResult runUpdateBooking() {
-        return testService.testUpdateBooking();
-    }
-
-    @GetMapping("/partial-update")
-    public TestResult runPartialUpdate() {
-        return testService.testPartialUpdate();
-    }
-
-    @GetMapping("/delete-booking")
-    public TestResult runDeleteBooking() {
-        return testService.testDeleteBooking();
-    }
-
-    @GetMapping("/invalid-data")
-    public TestResult runInvalidData() {
-        return testService.testInvalidData();
-    }
-
-    @GetMapping("/non-existent")
-    public TestResult runNonExistent() {
-        return testService.testNonExistent();
-    }
-}
\ No newline at end of file
+}
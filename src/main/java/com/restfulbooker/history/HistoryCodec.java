@@ -0,0 +1,145 @@
+package com.restfulbooker.history;
+
+import com.restfulbooker.model.HistoryEntry;
+import com.restfulbooker.model.PhaseTimings;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary form of a {@link HistoryEntry}: a flags byte, then numbers as
+ * zigzag varints and strings as a varint length plus UTF-8. Statuses the
+ * dashboard knows are stored as one byte; timing phases, run id and body
+ * reference are only written when present. A typical entry takes 40-80 bytes.
+ */
+final class HistoryCodec {
+
+    private static final int HAS_RUN_ID = 1;
+    private static final int HAS_PHASES = 2;
+    private static final int HAS_BODY_REF = 4;
+
+    private static final String[] STATUSES = {"PASSED", "FAILED", "ERROR", "SKIPPED"};
+    private static final int OTHER_STATUS = 127;
+
+    private HistoryCodec() {
+    }
+
+    static ByteBuffer encode(HistoryEntry entry) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(96);
+        PhaseTimings phases = entry.getPhases();
+        int flags = (entry.getRunId() != null ? HAS_RUN_ID : 0)
+                | (phases != null ? HAS_PHASES : 0)
+                | (entry.getBodyRef() != null ? HAS_BODY_REF : 0);
+        out.write(flags);
+        writeLong(out, entry.getTimestamp());
+        writeString(out, entry.getTestId() != null ? entry.getTestId() : "");
+        int status = statusCode(entry.getStatus());
+        out.write(status);
+        if (status == OTHER_STATUS) {
+            writeString(out, entry.getStatus() != null ? entry.getStatus() : "");
+        }
+        writeLong(out, entry.getStatusCode());
+        writeLong(out, entry.getDuration());
+        if (entry.getRunId() != null) {
+            writeString(out, entry.getRunId());
+        }
+        if (phases != null) {
+            writeLong(out, phases.getDns());
+            writeLong(out, phases.getConnect());
+            writeLong(out, phases.getTlsHandshake());
+            writeLong(out, phases.getRequestWrite());
+            writeLong(out, phases.getTimeToFirstByte());
+            writeLong(out, phases.getBodyRead());
+            writeLong(out, phases.getFixtureSetup());
+            writeLong(out, phases.getClientOverhead());
+            writeLong(out, phases.getTotal());
+        }
+        if (entry.getBodyRef() != null) {
+            writeString(out, entry.getBodyRef());
+        }
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    static HistoryEntry decode(ByteBuffer in) {
+        HistoryEntry entry = new HistoryEntry();
+        int flags = in.get();
+        entry.setTimestamp(readLong(in));
+        entry.setTestId(readString(in));
+        int status = in.get();
+        entry.setStatus(status == OTHER_STATUS ? readString(in) : STATUSES[status]);
+        entry.setStatusCode((int) readLong(in));
+        entry.setDuration(readLong(in));
+        if ((flags & HAS_RUN_ID) != 0) {
+            entry.setRunId(readString(in));
+        }
+        if ((flags & HAS_PHASES) != 0) {
+            PhaseTimings phases = new PhaseTimings();
+            phases.setDns(readLong(in));
+            phases.setConnect(readLong(in));
+            phases.setTlsHandshake(readLong(in));
+            phases.setRequestWrite(readLong(in));
+            phases.setTimeToFirstByte(readLong(in));
+            phases.setBodyRead(readLong(in));
+            phases.setFixtureSetup(readLong(in));
+            phases.setClientOverhead(readLong(in));
+            phases.setTotal(readLong(in));
+            entry.setPhases(phases);
+        }
+        if ((flags & HAS_BODY_REF) != 0) {
+            entry.setBodyRef(readString(in));
+        }
+        return entry;
+    }
+
+    /** Reads only the test id, so filtered scans can skip decoding entries that don't match. */
+    static String testId(ByteBuffer in) {
+        ByteBuffer view = in.duplicate();
+        view.get();
+        readLong(view);
+        return readString(view);
+    }
+
+    private static int statusCode(String status) {
+        for (int i = 0; i < STATUSES.length; i++) {
+            if (STATUSES[i].equals(status)) {
+                return i;
+            }
+        }
+        return OTHER_STATUS;
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+
+    private static long readLong(ByteBuffer in) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readLong(in);
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
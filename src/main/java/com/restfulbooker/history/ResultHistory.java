@@ -0,0 +1,122 @@
+package com.restfulbooker.history;
+
+import com.restfulbooker.model.HistoryEntry;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.TestResultListener;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps every test result in a {@link ResultLog} on local disk. Appends only
+ * copy a few dozen bytes into a mapped segment; a background task forces
+ * them to disk every history.flush-interval. If the log can't be opened the
+ * dashboard keeps working without history.
+ */
+@Component
+public class ResultHistory implements TestResultListener {
+
+    private final ResultLog log;
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "history-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ResultHistory(@Value("${history.dir:${data.dir:${user.home}/.api-testing-dashboard}/history}") Path directory,
+                         @Value("${history.segment-size:16MB}") DataSize segmentSize,
+                         @Value("${history.retained-segments:4}") int retainedSegments,
+                         @Value("${history.flush-interval:1s}") Duration flushInterval) {
+        ResultLog opened = null;
+        try {
+            opened = new ResultLog(directory, (int) segmentSize.toBytes(), retainedSegments);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Result history disabled: " + e.getMessage());
+        }
+        this.log = opened;
+        if (log != null) {
+            long period = Math.max(1, flushInterval.toMillis());
+            flusher.scheduleWithFixedDelay(log::flush, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void onResult(TestResult result, TestContext context) {
+        if (log == null) {
+            return;
+        }
+        HistoryEntry entry = new HistoryEntry();
+        entry.setTimestamp(System.currentTimeMillis());
+        entry.setRunId(context.getRunId());
+        entry.setTestId(result.getTestId());
+        entry.setStatus(result.getStatus());
+        entry.setStatusCode(result.getStatusCode());
+        entry.setDuration(result.getDuration());
+        entry.setPhases(result.getPhases());
+        entry.setBodyRef(result.getBodyRef());
+        try {
+            log.append(HistoryCodec.encode(entry));
+        } catch (IOException e) {
+            System.err.println("Failed to record result of " + result.getTestId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Newest entries first, optionally filtered by test id and run id. Scans
+     * segments from the newest one back and stops once {@code limit} entries
+     * are found.
+     */
+    public List<HistoryEntry> query(String testId, String runId, int limit) {
+        List<HistoryEntry> entries = new ArrayList<>();
+        if (log == null) {
+            return entries;
+        }
+        for (ResultLog.Segment segment : log.segmentsNewestFirst()) {
+            List<HistoryEntry> matches = new ArrayList<>();
+            segment.scan(record -> {
+                if (testId == null || testId.equals(HistoryCodec.testId(record))) {
+                    HistoryEntry entry = HistoryCodec.decode(record);
+                    if (runId == null || runId.equals(entry.getRunId())) {
+                        matches.add(entry);
+                    }
+                }
+            });
+            for (int i = matches.size() - 1; i >= 0 && entries.size() < limit; i--) {
+                entries.add(matches.get(i));
+            }
+            if (entries.size() >= limit) {
+                break;
+            }
+        }
+        return entries;
+    }
+
+    /** Visits every entry, oldest first. */
+    public void scan(Consumer<HistoryEntry> visitor) {
+        if (log != null) {
+            log.scan(record -> visitor.accept(HistoryCodec.decode(record)));
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        flusher.shutdownNow();
+        if (log != null) {
+            log.close();
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.restfulbooker.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log split into fixed-size, memory-mapped segment files.
+ * <p>
+ * Each segment starts with a magic number and version, followed by records
+ * of {@code [int length][int crc32c][payload]}. A record's length is written
+ * last, so a zero length marks the end of the data and a crash mid-append
+ * leaves at most one record with a bad checksum. On startup the newest
+ * segment is scanned, everything after its last valid record is zeroed, and
+ * appends continue from there.
+ * <p>
+ * Appends are serialized; scans run concurrently with them and see every
+ * record committed before the scan reached it. A lock file keeps a second
+ * process from appending to the same directory.
+ */
+public class ResultLog implements Closeable {
+
+    private static final int MAGIC = 0x52544C47;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_OVERHEAD = 8;
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int retainedSegments;
+
+    private final FileChannel lockChannel;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private Segment active;
+
+    public ResultLog(Path directory, int segmentSize, int retainedSegments) throws IOException {
+        if (segmentSize < HEADER_SIZE + RECORD_OVERHEAD + 1) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.retainedSegments = Math.max(1, retainedSegments);
+
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (!tryLock(lockChannel)) {
+            lockChannel.close();
+            throw new IOException("History directory is in use by another process: " + directory);
+        }
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        for (Path file : files) {
+            segments.add(Segment.open(file, segmentOrdinal(file)));
+        }
+        if (segments.isEmpty()) {
+            segments.add(Segment.create(segmentPath(0), 0, segmentSize));
+        }
+        active = segments.get(segments.size() - 1);
+        active.recover();
+    }
+
+    /**
+     * Appends one record; the payload is read from its position to its limit.
+     * Returns the record's position, which {@link #read(long)} accepts.
+     */
+    public long append(ByteBuffer payload) throws IOException {
+        int recordSize = RECORD_OVERHEAD + payload.remaining();
+        if (recordSize > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Record of " + payload.remaining() + " bytes does not fit in a segment");
+        }
+        appendLock.lock();
+        try {
+            if (active.remaining() < recordSize) {
+                roll();
+            }
+            return active.ordinal << 32 | active.append(payload);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /** Visits every record, oldest first. */
+    public void scan(Consumer<ByteBuffer> visitor) {
+        for (Segment segment : segments) {
+            segment.scan(visitor);
+        }
+    }
+
+    /**
+     * The payload of the record appended at {@code position}, or null if its
+     * segment has been deleted or no valid record starts there.
+     */
+    public ByteBuffer read(long position) {
+        long ordinal = position >>> 32;
+        for (Segment segment : segments) {
+            if (segment.ordinal == ordinal) {
+                return segment.read((int) position);
+            }
+        }
+        return null;
+    }
+
+    /** Segments from newest to oldest, for readers that want recent records first. */
+    public List<Segment> segmentsNewestFirst() {
+        List<Segment> newestFirst = new ArrayList<>(segments);
+        Collections.reverse(newestFirst);
+        return newestFirst;
+    }
+
+    /** Forces appended records of the active segment to disk. */
+    public void flush() {
+        appendLock.lock();
+        try {
+            active.buffer.force();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        lockChannel.close();
+    }
+
+    private void roll() throws IOException {
+        active.buffer.force();
+        long ordinal = active.ordinal + 1;
+        active = Segment.create(segmentPath(ordinal), ordinal, segmentSize);
+        segments.add(active);
+        while (segments.size() > retainedSegments) {
+            Segment oldest = segments.remove(0);
+            Files.deleteIfExists(oldest.file);
+        }
+    }
+
+    private static boolean tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock() != null;
+        } catch (OverlappingFileLockException e) {
+            // Already locked by this process
+            return false;
+        }
+    }
+
+    private Path segmentPath(long ordinal) {
+        return directory.resolve(String.format("%020d%s", ordinal, SUFFIX));
+    }
+
+    private static long segmentOrdinal(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    public static class Segment {
+        private final Path file;
+        private final long ordinal;
+        private final MappedByteBuffer buffer;
+        // End of the committed records; volatile so scans see fully written records only
+        private volatile int committed;
+
+        private Segment(Path file, long ordinal, MappedByteBuffer buffer, int committed) {
+            this.file = file;
+            this.ordinal = ordinal;
+            this.buffer = buffer;
+            this.committed = committed;
+        }
+
+        static Segment create(Path file, long ordinal, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                return new Segment(file, ordinal, buffer, HEADER_SIZE);
+            }
+        }
+
+        static Segment open(Path file, long ordinal) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                Segment segment = new Segment(file, ordinal, buffer, HEADER_SIZE);
+                segment.committed = segment.findEnd();
+                return segment;
+            }
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        int remaining() {
+            return buffer.capacity() - committed;
+        }
+
+        int append(ByteBuffer payload) {
+            int position = committed;
+            int length = payload.remaining();
+            buffer.put(position + RECORD_OVERHEAD, payload, payload.position(), length);
+            buffer.putInt(position + 4, checksum(buffer, position + RECORD_OVERHEAD, length));
+            buffer.putInt(position, length);
+            committed = position + RECORD_OVERHEAD + length;
+            return position;
+        }
+
+        ByteBuffer read(int position) {
+            int end = committed;
+            if (position < HEADER_SIZE || position > end - RECORD_OVERHEAD) {
+                return null;
+            }
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > end - position - RECORD_OVERHEAD
+                    || buffer.getInt(position + 4) != checksum(buffer, position + RECORD_OVERHEAD, length)) {
+                return null;
+            }
+            return buffer.slice(position + RECORD_OVERHEAD, length).asReadOnlyBuffer();
+        }
+
+        /** Visits the payload of every committed record, oldest first, as a read-only slice. */
+        public void scan(Consumer<ByteBuffer> visitor) {
+            int end = committed;
+            int position = HEADER_SIZE;
+            while (position + RECORD_OVERHEAD <= end) {
+                int length = buffer.getInt(position);
+                visitor.accept(buffer.slice(position + RECORD_OVERHEAD, length).asReadOnlyBuffer());
+                position += RECORD_OVERHEAD + length;
+            }
+        }
+
+        // Walks the records from the start and stops at the first one that is missing or torn
+        private int findEnd() {
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return Math.min(HEADER_SIZE, buffer.capacity());
+            }
+            int position = HEADER_SIZE;
+            while (position + RECORD_OVERHEAD <= buffer.capacity()) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || length > buffer.capacity() - position - RECORD_OVERHEAD
+                        || buffer.getInt(position + 4) != checksum(buffer, position + RECORD_OVERHEAD, length)) {
+                    break;
+                }
+                position += RECORD_OVERHEAD + length;
+            }
+            return position;
+        }
+
+        // Zeroes whatever a crash left behind the last valid record so it can't be mistaken for data later
+        void recover() {
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                System.err.println("Resetting history segment with an unknown header: " + file);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                committed = HEADER_SIZE;
+            }
+            int discarded = 0;
+            for (int position = committed; position < buffer.capacity(); position++) {
+                if (buffer.get(position) != 0) {
+                    buffer.put(position, (byte) 0);
+                    discarded++;
+                }
+            }
+            if (discarded > 0) {
+                System.err.println("Discarded " + discarded + " bytes of a torn record in " + file);
+            }
+        }
+
+        private static int checksum(ByteBuffer buffer, int offset, int length) {
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(offset, length));
+            return (int) crc.getValue();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.restfulbooker.http;
+
+import com.restfulbooker.model.LimitSample;
+import com.restfulbooker.model.LimiterStats;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps the requests in flight to one target host at a limit that follows
+ * the host's behaviour: every response feeds its round trip time, and
+ * whether it was shed, into a {@link LimitAlgorithm}. Callers beyond the
+ * limit wait for a permit, so when the target slows down the extra load
+ * queues here, visibly, instead of on the target where it would inflate
+ * every latency we measure. Async callers queue a future instead of a
+ * thread; queued futures are granted first as permits come back.
+ * <p>
+ * Once a second the limit, the busiest in-flight count, the goodput
+ * (responses per second that weren't shed) and the average round trip are
+ * recorded, keeping the last {@link #HISTORY} seconds. The highest goodput
+ * of a second in which at most 5% of responses were dropped, and the limit
+ * it ran at, are the host's highest safe throughput found so far; AIMD
+ * finds its limit by stepping just past it, so a few drops at the edge are
+ * part of a healthy second.
+ */
+public class AdaptiveLimiter {
+
+    static final int HISTORY = 600;
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double SAFE_DROP_RATIO = 0.05;
+
+    private final String host;
+    private final String algorithmName;
+    private final LimitAlgorithm algorithm;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long maxLatencyNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double estimate;
+    private volatile int limit;
+    private volatile int inFlight;
+    private volatile int waiting;
+    private final ArrayDeque<CompletableFuture<Void>> queued = new ArrayDeque<>();
+    private long drops;
+
+    // The current one-second window
+    private long windowStart = System.nanoTime();
+    private int windowResponses;
+    private int windowDrops;
+    private long windowRttNanos;
+    private int windowMaxInFlight;
+
+    private final ArrayDeque<LimitSample> history = new ArrayDeque<>();
+    private double peakThroughput;
+    private int peakLimit;
+
+    AdaptiveLimiter(String host, String algorithm, int initialLimit, int minLimit, int maxLimit, long maxLatencyNanos) {
+        this.host = host;
+        this.algorithmName = algorithm;
+        this.algorithm = LimitAlgorithm.create(algorithm);
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.maxLatencyNanos = maxLatencyNanos;
+        this.estimate = Math.max(this.minLimit, Math.min(this.maxLimit, initialLimit));
+        this.limit = (int) estimate;
+    }
+
+    /** Waits until fewer than limit requests are in flight to the host, then takes a permit. */
+    public void acquire() {
+        lock.lock();
+        try {
+            waiting++;
+            try {
+                while (inFlight >= limit) {
+                    released.await();
+                }
+            } finally {
+                waiting--;
+            }
+            take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a request permit to " + host, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Completes with a permit once fewer than limit requests are in flight,
+     * without blocking the caller. A future cancelled before it completes
+     * gives up its place in the queue.
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        lock.lock();
+        try {
+            if (inFlight < limit && queued.isEmpty()) {
+                take();
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> permit = new CompletableFuture<>();
+            queued.addLast(permit);
+            return permit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Returns a permit and adjusts the limit by how the request went. */
+    public void release(long rttNanos, boolean failed) {
+        boolean dropped = failed || rttNanos > maxLatencyNanos;
+        List<CompletableFuture<Void>> granted;
+        lock.lock();
+        try {
+            estimate = Math.max(minLimit, Math.min(maxLimit, algorithm.update(estimate, rttNanos, inFlight, dropped)));
+            limit = (int) estimate;
+            inFlight--;
+            if (dropped) {
+                drops++;
+                windowDrops++;
+            }
+            windowResponses++;
+            windowRttNanos += rttNanos;
+            roll(System.nanoTime());
+            granted = grant();
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        complete(granted);
+    }
+
+    private void take() {
+        inFlight++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+    }
+
+    /** Hands free permits to queued async callers; call with the lock held. */
+    private List<CompletableFuture<Void>> grant() {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        while (inFlight < limit && !queued.isEmpty()) {
+            CompletableFuture<Void> permit = queued.removeFirst();
+            if (!permit.isDone()) {
+                take();
+                granted.add(permit);
+            }
+        }
+        return granted;
+    }
+
+    /** Completes granted futures outside the lock, returning the permit of any cancelled meanwhile. */
+    private void complete(List<CompletableFuture<Void>> granted) {
+        for (CompletableFuture<Void> permit : granted) {
+            if (!permit.complete(null)) {
+                abandon();
+            }
+        }
+    }
+
+    /** Returns a permit without a sample, for a request cancelled before it finished. */
+    void abandon() {
+        List<CompletableFuture<Void>> granted;
+        lock.lock();
+        try {
+            inFlight--;
+            granted = grant();
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        complete(granted);
+    }
+
+    private void roll(long now) {
+        long elapsed = now - windowStart;
+        if (elapsed < SECOND) {
+            return;
+        }
+        double throughput = (windowResponses - windowDrops) * (double) SECOND / elapsed;
+        if (windowDrops <= windowResponses * SAFE_DROP_RATIO && throughput > peakThroughput) {
+            peakThroughput = throughput;
+            peakLimit = limit;
+        }
+        LimitSample sample = new LimitSample();
+        sample.setTimestamp(System.currentTimeMillis());
+        sample.setLimit(limit);
+        sample.setMaxInFlight(windowMaxInFlight);
+        sample.setThroughput(throughput);
+        sample.setDrops(windowDrops);
+        sample.setAverageRtt(windowResponses == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(windowRttNanos / windowResponses));
+        if (history.size() == HISTORY) {
+            history.removeFirst();
+        }
+        history.addLast(sample);
+        windowStart = now;
+        windowResponses = 0;
+        windowDrops = 0;
+        windowRttNanos = 0;
+        windowMaxInFlight = inFlight;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public LimiterStats getStats() {
+        lock.lock();
+        try {
+            LimiterStats stats = new LimiterStats();
+            stats.setHost(host);
+            stats.setAlgorithm(algorithmName);
+            stats.setLimit(limit);
+            stats.setMinLimit(minLimit);
+            stats.setMaxLimit(maxLimit);
+            stats.setInFlight(inFlight);
+            stats.setWaiting(waiting + (int) queued.stream().filter(permit -> !permit.isDone()).count());
+            stats.setDrops(drops);
+            stats.setPeakThroughput(peakThroughput);
+            stats.setPeakLimit(peakLimit);
+            stats.setHistory(new ArrayList<>(history));
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.restfulbooker.http;
+
+import com.restfulbooker.http.HttpEngine.Response;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Cancellation for async sends. Cancelling a future that an engine derived
+ * from another one doesn't reach the one underneath, so a hedge that lost
+ * would keep its connection and permits until it finished; these helpers
+ * pass the cancellation down.
+ */
+final class AsyncSends {
+
+    private AsyncSends() {
+    }
+
+    /** Runs a blocking send on one of the executor's threads; cancelling the future interrupts it. */
+    static CompletableFuture<Response> onThread(ExecutorService executor, Supplier<Response> send) {
+        CompletableFuture<Response> response = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                response.complete(send.get());
+            } catch (Throwable e) {
+                response.completeExceptionally(e);
+            }
+        });
+        cancelWith(response, task);
+        return response;
+    }
+
+    /** Cancels {@code underneath} when {@code future} is cancelled, and returns {@code future}. */
+    static <T> CompletableFuture<T> cancelWith(CompletableFuture<T> future, Future<?> underneath) {
+        future.whenComplete((value, failure) -> {
+            if (future.isCancelled()) {
+                underneath.cancel(true);
+            }
+        });
+        return future;
+    }
+}
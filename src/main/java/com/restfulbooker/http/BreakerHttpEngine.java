@@ -0,0 +1,98 @@
+package com.restfulbooker.http;
+
+import com.restfulbooker.model.ConnectionPoolStats;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Sends through another engine only while the target host's
+ * {@link CircuitBreaker} allows it, and reports each request back to it.
+ * Failed requests and 502-504 responses count as failures; a turned-away
+ * request throws {@link CircuitOpenException} before anything is sent.
+ */
+class BreakerHttpEngine implements HttpEngine {
+
+    private final HttpEngine delegate;
+    private final HostLookup<CircuitBreaker> breakers;
+
+    BreakerHttpEngine(HttpEngine delegate, CircuitBreakers breakers) {
+        this.delegate = delegate;
+        this.breakers = new HostLookup<>(breakers::forHost);
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public Response send(Request request) {
+        CircuitBreaker breaker = breakers.get(request.url());
+        CircuitBreaker.Permit permit = breaker.acquire();
+        long start = System.nanoTime();
+        String failure = "no response";
+        try {
+            Response response = delegate.send(request);
+            failure = failure(response);
+            return response;
+        } catch (RuntimeException e) {
+            failure = failure(e);
+            throw e;
+        } finally {
+            // An interrupted send was abandoned by its caller, which says nothing about the host
+            if (Thread.currentThread().isInterrupted()) {
+                breaker.abandon(permit);
+            } else {
+                breaker.release(permit, System.nanoTime() - start, failure);
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<Response> sendAsync(Request request) {
+        CircuitBreaker breaker = breakers.get(request.url());
+        CircuitBreaker.Permit permit = breaker.acquire();
+        long start = System.nanoTime();
+        CompletableFuture<Response> response;
+        try {
+            response = delegate.sendAsync(request);
+        } catch (RuntimeException e) {
+            breaker.release(permit, System.nanoTime() - start, failure(e));
+            throw e;
+        }
+        return AsyncSends.cancelWith(response.whenComplete((completed, e) -> {
+            if (response.isCancelled()) {
+                breaker.abandon(permit);
+            } else {
+                breaker.release(permit, System.nanoTime() - start, e != null ? failure(e) : failure(completed));
+            }
+        }), response);
+    }
+
+    @Override
+    public ConnectionPoolStats getStats() {
+        return delegate.getStats();
+    }
+
+    @Override
+    public void evictIdleConnections(Duration idleTimeout) {
+        delegate.evictIdleConnections(idleTimeout);
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    private static String failure(Response response) {
+        int status = response.statusCode();
+        return status >= 502 && status <= 504 ? "HTTP " + status : null;
+    }
+
+    private static String failure(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause.getClass().getSimpleName() + (cause.getMessage() != null ? ": " + cause.getMessage() : "");
+    }
+}
@@ -0,0 +1,198 @@
+package com.restfulbooker.http;
+
+import com.restfulbooker.model.CircuitBreakerStats;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops sending to a target host that is down. While closed, the outcome of
+ * the last {@code window} requests is kept; once at least
+ * {@code minimumCalls} are known and the share that failed (no response, or
+ * 502-504) or took longer than {@code slowCall} reaches its threshold, the
+ * breaker opens. An open breaker turns every request away with a
+ * {@link CircuitOpenException} until {@code openDuration} has passed, then
+ * lets {@code probes} requests through: if they all succeed in time it
+ * closes again, and the first that doesn't opens it for another
+ * {@code openDuration}.
+ * <p>
+ * Each permit remembers the spell it was let through in, counting every
+ * change of state, so a response counts only towards the spell it was sent
+ * in: one sent while closed that arrives during probing is not a probe.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** A request let through by {@link #acquire}, to hand back to {@link #release} or {@link #abandon}. */
+    public record Permit(long spell) {
+    }
+
+    private final String host;
+    private final int window;
+    private final int minimumCalls;
+    private final double failureRate;
+    private final double slowCallRate;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int probes;
+
+    // Outcomes of the last window calls while closed
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int calls;
+    private int next;
+    private int failures;
+    private int slowCalls;
+
+    private volatile State state = State.CLOSED;
+    // Counts state changes, so permits from an earlier spell of the same state can be told apart
+    private long spell;
+    private long openedAt;
+    private long openedAtMillis;
+    private int probesSent;
+    private int probesPassed;
+    private long opens;
+    private long notPermitted;
+    private String reason;
+    private String lastFailure;
+
+    CircuitBreaker(String host, int window, int minimumCalls, double failureRate, double slowCallRate,
+                   long slowCallNanos, long openNanos, int probes) {
+        this.host = host;
+        this.window = Math.max(1, window);
+        this.minimumCalls = Math.max(1, Math.min(this.window, minimumCalls));
+        this.failureRate = failureRate;
+        this.slowCallRate = slowCallRate;
+        this.slowCallNanos = slowCallNanos;
+        this.openNanos = openNanos;
+        this.probes = Math.max(1, probes);
+        this.failed = new boolean[this.window];
+        this.slow = new boolean[this.window];
+    }
+
+    /** Lets a request through, or throws if the breaker is open or its probes are all out. */
+    public synchronized Permit acquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                throw notPermitted();
+            }
+            state = State.HALF_OPEN;
+            spell++;
+            probesSent = 0;
+            probesPassed = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesSent >= probes) {
+                throw notPermitted();
+            }
+            probesSent++;
+        }
+        return new Permit(spell);
+    }
+
+    /** Records how a request let through by {@link #acquire} went; {@code failure} is null if it succeeded. */
+    public synchronized void release(Permit permit, long rttNanos, String failure) {
+        boolean isSlow = rttNanos >= slowCallNanos;
+        if (failure != null) {
+            lastFailure = failure;
+        }
+        if (permit.spell() != spell) {
+            // Sent before the breaker last changed state
+            return;
+        }
+        switch (state) {
+            case OPEN -> {
+                // Permits are never handed out while open
+            }
+            case HALF_OPEN -> {
+                if (failure != null || isSlow) {
+                    open("probe " + (failure != null ? "failed: " + failure : "took " + TimeUnit.NANOSECONDS.toMillis(rttNanos) + "ms"));
+                } else if (++probesPassed >= probes) {
+                    close();
+                }
+            }
+            case CLOSED -> {
+                if (calls == window) {
+                    failures -= failed[next] ? 1 : 0;
+                    slowCalls -= slow[next] ? 1 : 0;
+                } else {
+                    calls++;
+                }
+                failed[next] = failure != null;
+                slow[next] = isSlow;
+                failures += failure != null ? 1 : 0;
+                slowCalls += isSlow ? 1 : 0;
+                next = (next + 1) % window;
+                if (calls >= minimumCalls) {
+                    if (failures * 100.0 >= failureRate * calls) {
+                        open(failures + " of the last " + calls + " requests failed, last: " + lastFailure);
+                    } else if (slowCalls * 100.0 >= slowCallRate * calls) {
+                        open(slowCalls + " of the last " + calls + " requests took over "
+                                + TimeUnit.NANOSECONDS.toMillis(slowCallNanos) + "ms");
+                    }
+                }
+            }
+        }
+    }
+
+    /** Returns a permit whose request was cancelled before it finished; it counts neither way. */
+    public synchronized void abandon(Permit permit) {
+        if (permit.spell() == spell && state == State.HALF_OPEN) {
+            probesSent--;
+        }
+    }
+
+    private void open(String why) {
+        state = State.OPEN;
+        spell++;
+        openedAt = System.nanoTime();
+        openedAtMillis = System.currentTimeMillis();
+        opens++;
+        reason = why;
+        System.err.println("Circuit breaker for " + host + " opened: " + why);
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        spell++;
+        calls = 0;
+        next = 0;
+        failures = 0;
+        slowCalls = 0;
+        System.out.println("Circuit breaker for " + host + " closed after " + probes + " successful probes");
+    }
+
+    private CircuitOpenException notPermitted() {
+        notPermitted++;
+        long retryIn = Math.max(0, openNanos - (System.nanoTime() - openedAt));
+        String probe = state == State.OPEN ? "next probe in " + TimeUnit.NANOSECONDS.toSeconds(retryIn) + "s" : "probing";
+        return new CircuitOpenException(host, "Circuit open for " + host + " (" + reason + "); " + probe);
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public synchronized long getNotPermitted() {
+        return notPermitted;
+    }
+
+    public synchronized CircuitBreakerStats getStats() {
+        CircuitBreakerStats stats = new CircuitBreakerStats();
+        stats.setHost(host);
+        stats.setState(state.name());
+        stats.setCalls(calls);
+        stats.setFailureRate(calls == 0 ? 0 : failures * 100.0 / calls);
+        stats.setSlowCallRate(calls == 0 ? 0 : slowCalls * 100.0 / calls);
+        stats.setOpens(opens);
+        stats.setNotPermitted(notPermitted);
+        stats.setOpenedAt(openedAtMillis);
+        stats.setReason(reason);
+        stats.setLastFailure(lastFailure);
+        return stats;
+    }
+}
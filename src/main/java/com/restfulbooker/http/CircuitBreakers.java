@@ -0,0 +1,90 @@
+package com.restfulbooker.http;
+
+import com.restfulbooker.model.CircuitBreakerStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link CircuitBreaker} per target host (host:port), shared by every
+ * site and engine sending to it, configured by the http.breaker.*
+ * properties; http.breaker.enabled=false sends without them.
+ */
+@Component
+public class CircuitBreakers {
+
+    private final boolean enabled;
+    private final int window;
+    private final int minimumCalls;
+    private final double failureRate;
+    private final double slowCallRate;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int probes;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CircuitBreakers(@Value("${http.breaker.enabled:true}") boolean enabled,
+                           @Value("${http.breaker.window:20}") int window,
+                           @Value("${http.breaker.minimum-calls:5}") int minimumCalls,
+                           @Value("${http.breaker.failure-rate:50}") double failureRate,
+                           @Value("${http.breaker.slow-call-rate:80}") double slowCallRate,
+                           @Value("${http.breaker.slow-call-duration:10s}") Duration slowCall,
+                           @Value("${http.breaker.open-duration:30s}") Duration openDuration,
+                           @Value("${http.breaker.probes:2}") int probes,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.window = window;
+        this.minimumCalls = minimumCalls;
+        this.failureRate = failureRate;
+        this.slowCallRate = slowCallRate;
+        this.slowCallNanos = slowCall.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.probes = probes;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** No breakers; requests go straight to the engine. */
+    public static CircuitBreakers off() {
+        return new CircuitBreakers(false, 1, 1, 100, 100, Duration.ZERO, Duration.ZERO, 1, null);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The breaker of {@code host} (host:port as in the request URL), created on first use. */
+    public CircuitBreaker forHost(String host) {
+        CircuitBreaker breaker = breakers.get(host);
+        return breaker != null ? breaker : breakers.computeIfAbsent(host, this::create);
+    }
+
+    public List<CircuitBreakerStats> getStats() {
+        List<CircuitBreakerStats> stats = new ArrayList<>();
+        breakers.values().forEach(breaker -> stats.add(breaker.getStats()));
+        stats.sort(Comparator.comparing(CircuitBreakerStats::getHost));
+        return stats;
+    }
+
+    private CircuitBreaker create(String host) {
+        CircuitBreaker breaker = new CircuitBreaker(host, window, minimumCalls, failureRate, slowCallRate, slowCallNanos, openNanos, probes);
+        if (meterRegistry != null) {
+            Gauge.builder("http.breaker.state", breaker, b -> b.getState().ordinal())
+                    .tag("host", host).description("Circuit breaker state: 0 closed, 1 open, 2 half-open").register(meterRegistry);
+            FunctionCounter.builder("http.breaker.not.permitted", breaker, CircuitBreaker::getNotPermitted)
+                    .tag("host", host).description("Requests turned away by an open circuit breaker").register(meterRegistry);
+        }
+        return breaker;
+    }
+}
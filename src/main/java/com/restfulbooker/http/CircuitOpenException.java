@@ -0,0 +1,19 @@
+package com.restfulbooker.http;
+
+/**
+ * Thrown instead of sending a request while the target host's
+ * {@link CircuitBreaker} is open. Nothing went over the network.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private final String host;
+
+    public CircuitOpenException(String host, String message) {
+        super(message);
+        this.host = host;
+    }
+
+    public String getHost() {
+        return host;
+    }
+}
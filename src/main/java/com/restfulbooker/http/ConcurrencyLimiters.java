@@ -0,0 +1,85 @@
+package com.restfulbooker.http;
+
+import com.restfulbooker.model.LimiterStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link AdaptiveLimiter} per target host (host:port), shared by every
+ * site and engine sending to it. http.limiter picks the algorithm: aimd,
+ * gradient, or off to send without limits. Limits start at
+ * http.limiter.initial-limit and stay between min-limit and max-limit;
+ * responses slower than http.limiter.max-latency count as drops.
+ */
+@Component
+public class ConcurrencyLimiters {
+
+    private final String algorithm;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long maxLatencyNanos;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ConcurrencyLimiters(@Value("${http.limiter:aimd}") String algorithm,
+                               @Value("${http.limiter.initial-limit:8}") int initialLimit,
+                               @Value("${http.limiter.min-limit:1}") int minLimit,
+                               @Value("${http.limiter.max-limit:64}") int maxLimit,
+                               @Value("${http.limiter.max-latency:5s}") Duration maxLatency,
+                               MeterRegistry meterRegistry) {
+        this.algorithm = algorithm.trim();
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxLatencyNanos = maxLatency.toNanos();
+        this.meterRegistry = meterRegistry;
+        if (isEnabled()) {
+            LimitAlgorithm.create(this.algorithm);
+        }
+    }
+
+    /** No limits; requests go straight to the engine. */
+    public static ConcurrencyLimiters off() {
+        return new ConcurrencyLimiters("off", 1, 1, 1, Duration.ZERO, null);
+    }
+
+    public boolean isEnabled() {
+        return !algorithm.equals("off");
+    }
+
+    /** The limiter of {@code host} (host:port as in the request URL), created on first use. */
+    public AdaptiveLimiter forHost(String host) {
+        AdaptiveLimiter limiter = limiters.get(host);
+        return limiter != null ? limiter : limiters.computeIfAbsent(host, this::create);
+    }
+
+    public List<LimiterStats> getStats() {
+        List<LimiterStats> stats = new ArrayList<>();
+        limiters.values().forEach(limiter -> stats.add(limiter.getStats()));
+        stats.sort(Comparator.comparing(LimiterStats::getHost));
+        return stats;
+    }
+
+    private AdaptiveLimiter create(String host) {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(host, algorithm, initialLimit, minLimit, maxLimit, maxLatencyNanos);
+        if (meterRegistry != null) {
+            Gauge.builder("http.limiter.limit", limiter, AdaptiveLimiter::getLimit)
+                    .tag("host", host).description("Requests the adaptive limiter lets in flight to the host").register(meterRegistry);
+            Gauge.builder("http.limiter.in.flight", limiter, AdaptiveLimiter::getInFlight)
+                    .tag("host", host).description("Requests in flight to the host").register(meterRegistry);
+        }
+        return limiter;
+    }
+}
@@ -0,0 +1,34 @@
+package com.restfulbooker.http;
+
+import java.util.function.Function;
+
+/**
+ * Finds the per-host object (limiter, circuit breaker) for a request URL.
+ * A site's requests nearly always go to one host, so the last one is
+ * remembered and matched by URL prefix before the host is parsed out.
+ */
+final class HostLookup<T> {
+
+    private record Last<T>(String prefix, T value) {
+    }
+
+    private final Function<String, T> forHost;
+    private volatile Last<T> last = new Last<>("", null);
+
+    HostLookup(Function<String, T> forHost) {
+        this.forHost = forHost;
+    }
+
+    T get(String url) {
+        Last<T> cached = last;
+        if (cached.value() != null && url.startsWith(cached.prefix())) {
+            return cached.value();
+        }
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int end = url.indexOf('/', start);
+        T value = forHost.apply(end < 0 ? url.substring(start) : url.substring(start, end));
+        last = new Last<>(end < 0 ? url : url.substring(0, end + 1), value);
+        return value;
+    }
+}
@@ -0,0 +1,148 @@
+package com.restfulbooker.http;
+
+import com.restfulbooker.model.ConnectionPoolStats;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps one connection pool per target site, so every test against a site
+ * reuses the same keep-alive connections and a slow site can't take up the
+ * sockets of another. Idle and expired connections are evicted in the
+ * background before the server gets a chance to close them under us.
+ * <p>
+ * Each site's requests go through an {@link HttpEngine}: http.engine picks
+ * the engine for every site (restassured or jdk), and http.engine.sites
+ * overrides it per site as site:engine pairs, e.g. {@code petstore:jdk}.
+ * Unless http.limiter is off, every engine sends within the adaptive
+ * concurrency limit of the target host ({@link ConcurrencyLimiters}), and
+ * unless http.breaker.enabled is false, only while the host's circuit
+ * breaker is closed ({@link CircuitBreakers}).
+ */
+@Component
+public class HttpClientPools {
+
+    private final int maxPerRoute;
+    private final int maxTotal;
+    private final Duration keepAlive;
+    private final Duration idleTimeout;
+
+    private final String defaultEngine;
+    private final ConcurrencyLimiters limiters;
+    private final CircuitBreakers breakers;
+    private final Map<String, String> siteEngines = new HashMap<>();
+    private final Map<String, HttpEngine> engines = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "http-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public HttpClientPools(int maxPerRoute, int maxTotal, Duration keepAlive, Duration idleTimeout) {
+        this(maxPerRoute, maxTotal, keepAlive, idleTimeout, "restassured", new String[0]);
+    }
+
+    public HttpClientPools(int maxPerRoute, int maxTotal, Duration keepAlive, Duration idleTimeout,
+                           String defaultEngine, String[] siteEngines) {
+        this(maxPerRoute, maxTotal, keepAlive, idleTimeout, defaultEngine, siteEngines, ConcurrencyLimiters.off());
+    }
+
+    public HttpClientPools(int maxPerRoute, int maxTotal, Duration keepAlive, Duration idleTimeout,
+                           String defaultEngine, String[] siteEngines, ConcurrencyLimiters limiters) {
+        this(maxPerRoute, maxTotal, keepAlive, idleTimeout, defaultEngine, siteEngines, limiters, CircuitBreakers.off());
+    }
+
+    @Autowired
+    public HttpClientPools(@Value("${http.pool.max-per-route:64}") int maxPerRoute,
+                           @Value("${http.pool.max-total:128}") int maxTotal,
+                           @Value("${http.pool.keep-alive:30s}") Duration keepAlive,
+                           @Value("${http.pool.idle-timeout:20s}") Duration idleTimeout,
+                           @Value("${http.engine:restassured}") String defaultEngine,
+                           @Value("${http.engine.sites:}") String[] siteEngines,
+                           ConcurrencyLimiters limiters,
+                           CircuitBreakers breakers) {
+        this.limiters = limiters;
+        this.breakers = breakers;
+        this.maxPerRoute = maxPerRoute;
+        this.maxTotal = maxTotal;
+        this.keepAlive = keepAlive;
+        this.idleTimeout = idleTimeout;
+        this.defaultEngine = checkEngine(defaultEngine.trim(), "http.engine");
+        for (String pair : siteEngines) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            int colon = pair.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("http.engine.sites entries must be site:engine, got '" + pair.trim() + "'");
+            }
+            String site = pair.substring(0, colon).trim();
+            this.siteEngines.put(site, checkEngine(pair.substring(colon + 1).trim(), "http.engine.sites for " + site));
+        }
+        long period = Math.max(1000, idleTimeout.toMillis() / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** The engine that sends the given site's requests. */
+    public HttpEngine engine(String site) {
+        return engines.computeIfAbsent(site, this::createEngine);
+    }
+
+    private HttpEngine createEngine(String site) {
+        HttpEngine engine = switch (siteEngines.getOrDefault(site, defaultEngine)) {
+            case "jdk" -> new JdkHttpEngine(site, maxPerRoute, Duration.ofSeconds(10));
+            default -> new RestAssuredEngine(new InstrumentedHttpClientFactory(site, maxPerRoute, maxTotal, keepAlive));
+        };
+        // Inside the limiter, so the breaker times the round trip and not the wait for a permit
+        if (breakers.isEnabled()) {
+            engine = new BreakerHttpEngine(engine, breakers);
+        }
+        return limiters.isEnabled() ? new LimitedHttpEngine(engine, limiters) : engine;
+    }
+
+    private static String checkEngine(String engine, String property) {
+        if (!engine.equals("restassured") && !engine.equals("jdk")) {
+            throw new IllegalArgumentException("Unknown HTTP engine '" + engine + "' in " + property + "; expected restassured or jdk");
+        }
+        return engine;
+    }
+
+    private void evictIdleConnections() {
+        try {
+            engines.values().forEach(engine -> engine.evictIdleConnections(idleTimeout));
+        } catch (Exception e) {
+            System.err.println("Failed to evict idle connections: " + e.getMessage());
+        }
+    }
+
+    public List<ConnectionPoolStats> getStats() {
+        List<ConnectionPoolStats> stats = new ArrayList<>();
+        engines.values().forEach(engine -> stats.add(engine.getStats()));
+        stats.sort((a, b) -> a.getSite().compareTo(b.getSite()));
+        return stats;
+    }
+
+    /** Stats of one site's engine; null until the site has sent a request. */
+    public ConnectionPoolStats getStats(String site) {
+        HttpEngine engine = engines.get(site);
+        return engine != null ? engine.getStats() : null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        evictor.shutdownNow();
+        engines.values().forEach(HttpEngine::shutdown);
+    }
+}
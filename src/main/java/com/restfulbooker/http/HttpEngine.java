@@ -0,0 +1,53 @@
+package com.restfulbooker.http;
+
+import com.restfulbooker.model.ConnectionPoolStats;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends the requests of one target site. Each site gets its own engine from
+ * {@link HttpClientPools}, chosen by http.engine (and http.engine.sites for
+ * per-site overrides): {@link RestAssuredEngine} or {@link JdkHttpEngine}.
+ * <p>
+ * Responses are fully read before they are returned, so the body read
+ * counts towards the request. Engines report their network phases into the
+ * {@link PhaseRecorder} of the thread that calls {@link #send}. Failures to
+ * connect or read are thrown as unchecked exceptions.
+ */
+public interface HttpEngine {
+
+    /** The name http.engine selects this engine by. */
+    String name();
+
+    Response send(Request request);
+
+    /** Sends without blocking the caller; phases are not recorded. */
+    CompletableFuture<Response> sendAsync(Request request);
+
+    ConnectionPoolStats getStats();
+
+    void evictIdleConnections(Duration idleTimeout);
+
+    void shutdown();
+
+    record Request(String method, String url, String contentType, Map<String, String> headers, byte[] body) {
+
+        public static Request get(String url) {
+            return new Request("GET", url, null, Map.of(), null);
+        }
+
+        public static Request post(String url, String contentType, byte[] body) {
+            return new Request("POST", url, contentType, Map.of(), body);
+        }
+    }
+
+    record Response(int statusCode, byte[] body) {
+
+        public String asString() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+}
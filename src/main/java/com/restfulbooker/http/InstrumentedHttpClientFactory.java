@@ -0,0 +1,278 @@
+package com.restfulbooker.http;
+
+import com.restfulbooker.model.ConnectionPoolStats;
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpInetSocketAddress;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds RestAssured's Apache HttpClient with every network phase timed into
+ * the {@link PhaseRecorder} of the calling thread. RestAssured executes and
+ * reads each request on the caller's thread, so a thread-local is enough to
+ * attribute the timings to the right test.
+ * <p>
+ * One factory exists per target site. RestAssured asks for a new client on
+ * every request and configures it per call, so the clients stay throwaway but
+ * all of them share this factory's connection pool and SSL context; sockets
+ * and TLS sessions survive from one test to the next.
+ * <p>
+ * HttpClient waits for a free pooled connection while holding a monitor,
+ * which pins a virtual thread to its carrier; with enough waiters every
+ * carrier is pinned and the requests holding connections can never finish.
+ * Requests therefore queue on a semaphore in front of RestAssured instead,
+ * so the pool itself never has to make anyone wait.
+ */
+@SuppressWarnings("deprecation") // RestAssured 5 still requires the AbstractHttpClient API
+public class InstrumentedHttpClientFactory implements HttpClientConfig.HttpClientFactory {
+
+    private final String site;
+    private final long keepAliveMillis;
+    private final PoolingClientConnectionManager pool;
+    private final RestAssuredConfig config;
+    private final Semaphore permits;
+
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong tlsHandshakes = new AtomicLong();
+    private final AtomicLong tlsHandshakeNanos = new AtomicLong();
+
+    public InstrumentedHttpClientFactory(String site, int maxPerRoute, int maxTotal, Duration keepAlive) {
+        this.site = site;
+        this.keepAliveMillis = keepAlive.toMillis();
+
+        SchemeRegistry schemes = new SchemeRegistry();
+        schemes.register(new Scheme("http", 80, new TimedSocketFactory()));
+        schemes.register(new Scheme("https", 443, new TimedTlsSocketFactory()));
+        pool = new PoolingClientConnectionManager(schemes, new TimedDnsResolver());
+        pool.setDefaultMaxPerRoute(maxPerRoute);
+        pool.setMaxTotal(maxTotal);
+        permits = new Semaphore(Math.min(maxPerRoute, maxTotal), true);
+
+        config = RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig().httpClientFactory(this));
+    }
+
+    /** A request that waits for a pooled connection before RestAssured starts executing it. */
+    public RequestSpecification request() {
+        return RestAssured.given().config(config).filter(this::withConnectionPermit);
+    }
+
+    private Response withConnectionPermit(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                                          FilterContext context) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a connection to " + request.getURI(), e);
+        }
+        try {
+            return context.next(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public HttpClient createHttpClient() {
+        DefaultHttpClient client = new DefaultHttpClient(pool) {
+            @Override
+            protected HttpRequestExecutor createRequestExecutor() {
+                return new TimedRequestExecutor();
+            }
+        };
+        // Servers that don't send a Keep-Alive header would otherwise be trusted to keep the socket forever
+        client.setKeepAliveStrategy((response, context) -> {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return keepAlive > 0 ? Math.min(keepAlive, keepAliveMillis) : keepAliveMillis;
+        });
+        // RestAssured reads the body lazily, after the test has already stopped its clock.
+        // Buffering it here makes the body read part of the request and lets us time it.
+        // Reading the body to the end is also what hands the connection back to the pool.
+        client.addResponseInterceptor((response, context) -> {
+            PhaseRecorder recorder = PhaseRecorder.current();
+            if (response.getEntity() != null) {
+                long startTime = System.nanoTime();
+                response.setEntity(new BufferedHttpEntity(response.getEntity()));
+                if (recorder != null) {
+                    recorder.addBodyRead(System.nanoTime() - startTime);
+                }
+            }
+        });
+        return client;
+    }
+
+    public void evictIdleConnections(Duration idleTimeout) {
+        pool.closeExpiredConnections();
+        pool.closeIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public ConnectionPoolStats getStats() {
+        PoolStats totals = pool.getTotalStats();
+        ConnectionPoolStats stats = new ConnectionPoolStats();
+        stats.setSite(site);
+        stats.setLeased(totals.getLeased());
+        stats.setIdle(totals.getAvailable());
+        stats.setPending(totals.getPending() + permits.getQueueLength());
+        stats.setMaxTotal(totals.getMax());
+        stats.setMaxPerRoute(pool.getDefaultMaxPerRoute());
+        stats.setConnectionsOpened(connectionsOpened.get());
+        long handshakes = tlsHandshakes.get();
+        stats.setTlsHandshakes(handshakes);
+        stats.setAverageHandshakeTime(handshakes == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(tlsHandshakeNanos.get() / handshakes));
+        return stats;
+    }
+
+    private static class TimedDnsResolver implements DnsResolver {
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            long startTime = System.nanoTime();
+            try {
+                return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+            } finally {
+                PhaseRecorder recorder = PhaseRecorder.current();
+                if (recorder != null) {
+                    recorder.addDns(System.nanoTime() - startTime);
+                }
+            }
+        }
+    }
+
+    private class TimedSocketFactory implements SchemeSocketFactory {
+        private final SchemeSocketFactory plain = PlainSocketFactory.getSocketFactory();
+
+        @Override
+        public Socket createSocket(HttpParams params) throws IOException {
+            return plain.createSocket(params);
+        }
+
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException, ConnectTimeoutException {
+            long startTime = System.nanoTime();
+            connectionsOpened.incrementAndGet();
+            try {
+                return plain.connectSocket(socket, remoteAddress, localAddress, params);
+            } finally {
+                PhaseRecorder recorder = PhaseRecorder.current();
+                if (recorder != null) {
+                    recorder.addConnect(System.nanoTime() - startTime);
+                }
+            }
+        }
+
+        @Override
+        public boolean isSecure(Socket socket) {
+            return false;
+        }
+    }
+
+    /**
+     * Opens a plain TCP socket and layers TLS on top as a separate step, so
+     * connect and handshake time can be told apart. The SSL context lives as
+     * long as the pool, so its session cache lets new connections resume
+     * earlier TLS sessions instead of doing a full handshake.
+     */
+    private class TimedTlsSocketFactory extends TimedSocketFactory implements SchemeLayeredSocketFactory {
+        private final SchemeLayeredSocketFactory tls = SSLSocketFactory.getSocketFactory();
+
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params) throws IOException, ConnectTimeoutException {
+            Socket connected = super.connectSocket(socket, remoteAddress, localAddress, params);
+            String host = remoteAddress instanceof HttpInetSocketAddress address
+                    ? address.getHttpHost().getHostName() : remoteAddress.getHostName();
+            return createLayeredSocket(connected, host, remoteAddress.getPort(), params);
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params) throws IOException {
+            long startTime = System.nanoTime();
+            try {
+                return tls.createLayeredSocket(socket, target, port, params);
+            } finally {
+                long elapsed = System.nanoTime() - startTime;
+                tlsHandshakes.incrementAndGet();
+                tlsHandshakeNanos.addAndGet(elapsed);
+                PhaseRecorder recorder = PhaseRecorder.current();
+                if (recorder != null) {
+                    recorder.addTlsHandshake(elapsed);
+                }
+            }
+        }
+
+        @Override
+        public boolean isSecure(Socket socket) {
+            return true;
+        }
+    }
+
+    private static class TimedRequestExecutor extends HttpRequestExecutor {
+        @Override
+        protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection connection, HttpContext context)
+                throws IOException, HttpException {
+            long startTime = System.nanoTime();
+            try {
+                return super.doSendRequest(request, connection, context);
+            } finally {
+                PhaseRecorder recorder = PhaseRecorder.current();
+                if (recorder != null) {
+                    recorder.addRequestWrite(System.nanoTime() - startTime);
+                }
+            }
+        }
+
+        @Override
+        protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection connection, HttpContext context)
+                throws HttpException, IOException {
+            long startTime = System.nanoTime();
+            try {
+                return super.doReceiveResponse(request, connection, context);
+            } finally {
+                PhaseRecorder recorder = PhaseRecorder.current();
+                if (recorder != null) {
+                    recorder.addTimeToFirstByte(System.nanoTime() - startTime);
+                }
+            }
+        }
+    }
+}
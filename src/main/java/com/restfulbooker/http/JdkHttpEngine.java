@@ -0,0 +1,157 @@
+package com.restfulbooker.http;
+
+import com.restfulbooker.model.ConnectionPoolStats;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends requests with the JDK's {@link HttpClient}. Over TLS it negotiates
+ * HTTP/2 where the server supports it, so concurrent tests share one
+ * multiplexed connection instead of one connection each; plain-HTTP targets
+ * and servers without HTTP/2 get HTTP/1.1 with keep-alive.
+ * {@link #sendAsync} is non-blocking end to end.
+ * <p>
+ * The client manages its own connections and exposes no pool, so stats
+ * show requests in flight rather than connections, and phases are reported
+ * as time to response headers and body read only. At most maxPerRoute
+ * requests are in flight at once; async sends past the limit wait on a
+ * virtual thread instead of the caller's.
+ */
+public class JdkHttpEngine implements HttpEngine {
+
+    private final String site;
+    private final int maxInFlight;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong http2Responses = new AtomicLong();
+
+    public JdkHttpEngine(String site, int maxInFlight, Duration connectTimeout) {
+        this.site = site;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight, true);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "jdk";
+    }
+
+    @Override
+    public Response send(Request request) {
+        PhaseRecorder recorder = PhaseRecorder.current();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a connection to " + request.url(), e);
+        }
+        try {
+            long startTime = System.nanoTime();
+            TimedBodyHandler handler = new TimedBodyHandler();
+            HttpResponse<byte[]> response = client.send(toHttpRequest(request), handler);
+            long endTime = System.nanoTime();
+            if (recorder != null) {
+                recorder.addTimeToFirstByte(handler.headersAt - startTime);
+                recorder.addBodyRead(endTime - handler.headersAt);
+            }
+            return toResponse(response);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending " + request.method() + " " + request.url(), e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Response> sendAsync(Request request) {
+        if (!permits.tryAcquire()) {
+            return AsyncSends.onThread(executor, () -> send(request));
+        }
+        try {
+            CompletableFuture<HttpResponse<byte[]>> sent = client.sendAsync(toHttpRequest(request), HttpResponse.BodyHandlers.ofByteArray());
+            return AsyncSends.cancelWith(sent.whenComplete((response, failure) -> permits.release())
+                    .thenApply(this::toResponse), sent);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private HttpRequest toHttpRequest(Request request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.url()))
+                .method(request.method(), request.body() != null
+                        ? HttpRequest.BodyPublishers.ofByteArray(request.body())
+                        : HttpRequest.BodyPublishers.noBody());
+        if (request.contentType() != null) {
+            builder.header("Content-Type", request.contentType());
+        }
+        request.headers().forEach(builder::header);
+        return builder.build();
+    }
+
+    private Response toResponse(HttpResponse<byte[]> response) {
+        requests.incrementAndGet();
+        if (response.version() == HttpClient.Version.HTTP_2) {
+            http2Responses.incrementAndGet();
+        }
+        return new Response(response.statusCode(), response.body());
+    }
+
+    @Override
+    public ConnectionPoolStats getStats() {
+        ConnectionPoolStats stats = new ConnectionPoolStats();
+        stats.setSite(site);
+        stats.setEngine(name());
+        stats.setProtocol(http2Responses.get() > 0 ? "HTTP/2" : "HTTP/1.1");
+        stats.setLeased(maxInFlight - permits.availablePermits());
+        stats.setPending(permits.getQueueLength());
+        stats.setMaxTotal(maxInFlight);
+        stats.setMaxPerRoute(maxInFlight);
+        return stats;
+    }
+
+    // The client closes idle connections itself (jdk.httpclient.keepalive.timeout)
+    @Override
+    public void evictIdleConnections(Duration idleTimeout) {
+    }
+
+    @Override
+    public void shutdown() {
+        client.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    // Called once the response headers are in; the body is read after it returns
+    private static class TimedBodyHandler implements HttpResponse.BodyHandler<byte[]> {
+        private volatile long headersAt;
+
+        @Override
+        public HttpResponse.BodySubscriber<byte[]> apply(HttpResponse.ResponseInfo responseInfo) {
+            headersAt = System.nanoTime();
+            return HttpResponse.BodySubscribers.ofByteArray();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.restfulbooker.http;
+
+/**
+ * How an {@link AdaptiveLimiter} moves its limit after each response. One
+ * instance per limiter, called under the limiter's lock, so implementations
+ * may keep state without synchronizing.
+ */
+interface LimitAlgorithm {
+
+    /**
+     * The new limit after a response that took {@code rttNanos} with
+     * {@code inFlight} requests outstanding, itself included; {@code dropped}
+     * when the target shed it (429, 502-504, no response) or it took longer
+     * than the latency ceiling.
+     */
+    double update(double limit, long rttNanos, int inFlight, boolean dropped);
+
+    static LimitAlgorithm create(String name) {
+        return switch (name) {
+            case "aimd" -> new Aimd();
+            case "gradient" -> new Gradient();
+            default -> throw new IllegalArgumentException("Unknown limiter '" + name + "'; expected aimd, gradient or off");
+        };
+    }
+
+    /**
+     * Additive increase, multiplicative decrease: one more permit per round
+     * of limit responses while the limit is actually being used, 10% fewer
+     * on a drop. Drops of requests sent before the last decrease don't
+     * decrease it again, so a burst of failures already in flight costs 10%
+     * once per round trip rather than the whole limit. Reacts only to errors
+     * and the latency ceiling, so it settles just below the point where the
+     * target starts shedding load.
+     */
+    final class Aimd implements LimitAlgorithm {
+
+        private static final double BACKOFF = 0.9;
+
+        private boolean decreased;
+        private long lastDecrease;
+
+        @Override
+        public double update(double limit, long rttNanos, int inFlight, boolean dropped) {
+            if (dropped) {
+                long now = System.nanoTime();
+                if (decreased && now - rttNanos - lastDecrease < 0) {
+                    return limit;
+                }
+                decreased = true;
+                lastDecrease = now;
+                return limit * BACKOFF;
+            }
+            // Growing while half the permits sit idle would only raise a limit nothing tests
+            return inFlight * 2 >= limit ? limit + 1 / limit : limit;
+        }
+    }
+
+    /**
+     * Latency gradient: compares each response time with the fastest of the
+     * last minute, the host's round trip without queueing. While responses
+     * are no slower than 1.5 times that, the limit grows by a fifth of its
+     * square root per round trip. Once the target starts queueing, latency rises and the limit
+     * shrinks in proportion, before any error occurs. Drops halve the limit,
+     * and like AIMD only drops of requests sent after the last halving halve
+     * it again.
+     */
+    final class Gradient implements LimitAlgorithm {
+
+        private static final double TOLERANCE = 1.5;
+        private static final double SMOOTHING = 0.2;
+        private static final int BASELINE_SECONDS = 60;
+        private static final long SECOND = 1_000_000_000L;
+
+        // Fastest response of each of the last BASELINE_SECONDS seconds, by second;
+        // nanoTime may be zero or negative, so unwritten slots are marked as such
+        private final long[] fastest = new long[BASELINE_SECONDS];
+        private final long[] seconds = new long[BASELINE_SECONDS];
+        private final boolean[] written = new boolean[BASELINE_SECONDS];
+        private boolean decreased;
+        private long lastDecrease;
+
+        @Override
+        public double update(double limit, long rttNanos, int inFlight, boolean dropped) {
+            long now = System.nanoTime();
+            long second = now / SECOND;
+            int slot = (int) Math.floorMod(second, (long) BASELINE_SECONDS);
+            if (!written[slot] || seconds[slot] != second) {
+                written[slot] = true;
+                seconds[slot] = second;
+                fastest[slot] = rttNanos;
+            } else {
+                fastest[slot] = Math.min(fastest[slot], rttNanos);
+            }
+            if (dropped) {
+                if (decreased && now - rttNanos - lastDecrease < 0) {
+                    return limit;
+                }
+                decreased = true;
+                lastDecrease = now;
+                return limit / 2;
+            }
+            long baseline = rttNanos;
+            for (int i = 0; i < BASELINE_SECONDS; i++) {
+                if (written[i] && second - seconds[i] < BASELINE_SECONDS) {
+                    baseline = Math.min(baseline, fastest[i]);
+                }
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * baseline / Math.max(1, rttNanos)));
+            double target = limit * gradient + Math.sqrt(limit);
+            if (inFlight * 2 < limit) {
+                target = Math.min(target, limit);
+            }
+            // A round trip brings back about limit responses; together they move it SMOOTHING of the way
+            return limit + (target - limit) * SMOOTHING / limit;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.restfulbooker.http;
+
+import com.restfulbooker.model.ConnectionPoolStats;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends through another engine while holding a permit of the target host's
+ * {@link AdaptiveLimiter}, and reports each round trip back to it. 429 and
+ * 502-504 responses and failed requests count as drops; a request an open
+ * circuit breaker turned away was never sent, so its permit is just handed
+ * back.
+ */
+class LimitedHttpEngine implements HttpEngine {
+
+    private final HttpEngine delegate;
+    private final HostLookup<AdaptiveLimiter> limiters;
+
+    LimitedHttpEngine(HttpEngine delegate, ConcurrencyLimiters limiters) {
+        this.delegate = delegate;
+        this.limiters = new HostLookup<>(limiters::forHost);
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public Response send(Request request) {
+        AdaptiveLimiter limiter = limiters.get(request.url());
+        limiter.acquire();
+        long start = System.nanoTime();
+        boolean dropped = true;
+        boolean sent = true;
+        try {
+            Response response = delegate.send(request);
+            dropped = isShed(response.statusCode());
+            return response;
+        } catch (CircuitOpenException e) {
+            sent = false;
+            throw e;
+        } finally {
+            // An interrupted send was abandoned by its caller, which says nothing about the host
+            if (!sent || Thread.currentThread().isInterrupted()) {
+                limiter.abandon();
+            } else {
+                limiter.release(System.nanoTime() - start, dropped);
+            }
+        }
+    }
+
+    /**
+     * Queues for a permit without blocking the caller, then sends once it is
+     * granted. Cancelling the returned future while it is still queued gives
+     * the place up; cancelling it after the send cancels the send.
+     */
+    @Override
+    public CompletableFuture<Response> sendAsync(Request request) {
+        AdaptiveLimiter limiter = limiters.get(request.url());
+        CompletableFuture<Void> permit = limiter.acquireAsync();
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        permit.thenRun(() -> {
+            long start = System.nanoTime();
+            CompletableFuture<Response> response;
+            try {
+                response = delegate.sendAsync(request);
+            } catch (CircuitOpenException e) {
+                limiter.abandon();
+                result.completeExceptionally(e);
+                return;
+            } catch (RuntimeException e) {
+                limiter.release(System.nanoTime() - start, true);
+                result.completeExceptionally(e);
+                return;
+            }
+            response.whenComplete((completed, failure) -> {
+                if (response.isCancelled()) {
+                    limiter.abandon();
+                } else {
+                    limiter.release(System.nanoTime() - start, failure != null || isShed(completed.statusCode()));
+                }
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else {
+                    result.complete(completed);
+                }
+            });
+            AsyncSends.cancelWith(result, response);
+        });
+        return AsyncSends.cancelWith(result, permit);
+    }
+
+    @Override
+    public ConnectionPoolStats getStats() {
+        return delegate.getStats();
+    }
+
+    @Override
+    public void evictIdleConnections(Duration idleTimeout) {
+        delegate.evictIdleConnections(idleTimeout);
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    private static boolean isShed(int statusCode) {
+        return statusCode == 429 || statusCode >= 502 && statusCode <= 504;
+    }
+}
@@ -0,0 +1,112 @@
+package com.restfulbooker.http;
+
+import com.restfulbooker.model.PhaseTimings;
+import com.restfulbooker.model.TestResult;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times one test execution. While a recorder is started on a thread, the
+ * instrumented HTTP client on that thread reports DNS, connect, TLS, write,
+ * first-byte and body-read time into it. Fixture calls run through
+ * {@link #fixture} so their requests are counted as setup, not as the
+ * request under test.
+ */
+public final class PhaseRecorder {
+
+    private static final ThreadLocal<PhaseRecorder> CURRENT = new ThreadLocal<>();
+
+    private final long startTime = System.nanoTime();
+    private long dns;
+    private long connect;
+    private long tlsHandshake;
+    private long requestWrite;
+    private long timeToFirstByte;
+    private long bodyRead;
+    private long fixtureSetup;
+    private boolean stopped;
+
+    private PhaseRecorder() {
+    }
+
+    public static PhaseRecorder start() {
+        PhaseRecorder recorder = new PhaseRecorder();
+        CURRENT.set(recorder);
+        return recorder;
+    }
+
+    /** The recorder started on the calling thread, or null if there is none or it was stopped. */
+    public static PhaseRecorder current() {
+        PhaseRecorder recorder = CURRENT.get();
+        return recorder != null && !recorder.stopped ? recorder : null;
+    }
+
+    /**
+     * Makes this recorder current on the calling thread while {@code send}
+     * runs, for a request sent on another thread on the test's behalf.
+     */
+    public <T> T record(Supplier<T> send) {
+        PhaseRecorder previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return send.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public <T> T fixture(Supplier<T> setup) {
+        long setupStart = System.nanoTime();
+        try {
+            return setup.get();
+        } finally {
+            // The fixture's own recorder replaced us on this thread
+            CURRENT.set(this);
+            fixtureSetup += System.nanoTime() - setupStart;
+        }
+    }
+
+    /** Stops the clock and stores the duration and phase breakdown on the result. Later calls are ignored. */
+    public void stop(TestResult result) {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        long total = System.nanoTime() - startTime;
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+
+        PhaseTimings phases = new PhaseTimings();
+        phases.setDns(dns);
+        phases.setConnect(connect);
+        phases.setTlsHandshake(tlsHandshake);
+        phases.setRequestWrite(requestWrite);
+        phases.setTimeToFirstByte(timeToFirstByte);
+        phases.setBodyRead(bodyRead);
+        phases.setFixtureSetup(fixtureSetup);
+        phases.setClientOverhead(Math.max(0, total - fixtureSetup - dns - connect - tlsHandshake
+                - requestWrite - timeToFirstByte - bodyRead));
+        phases.setTotal(total);
+
+        result.setPhases(phases);
+        result.setDuration(TimeUnit.NANOSECONDS.toMillis(total));
+    }
+
+    void addDns(long nanos) { dns += nanos; }
+
+    void addConnect(long nanos) { connect += nanos; }
+
+    void addTlsHandshake(long nanos) { tlsHandshake += nanos; }
+
+    void addRequestWrite(long nanos) { requestWrite += nanos; }
+
+    void addTimeToFirstByte(long nanos) { timeToFirstByte += nanos; }
+
+    void addBodyRead(long nanos) { bodyRead += nanos; }
+}
@@ -0,0 +1,70 @@
+package com.restfulbooker.http;
+
+import com.restfulbooker.model.ConnectionPoolStats;
+import io.restassured.specification.RequestSpecification;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends requests through RestAssured on the site's pooled Apache HttpClient
+ * (see {@link InstrumentedHttpClientFactory}). HTTP/1.1 only, and blocking:
+ * async sends each take a virtual thread for the whole request, which
+ * cancelling the send interrupts.
+ */
+public class RestAssuredEngine implements HttpEngine {
+
+    private final InstrumentedHttpClientFactory factory;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public RestAssuredEngine(InstrumentedHttpClientFactory factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public String name() {
+        return "restassured";
+    }
+
+    @Override
+    public Response send(Request request) {
+        RequestSpecification spec = factory.request().urlEncodingEnabled(false);
+        if (request.contentType() != null) {
+            spec.contentType(request.contentType());
+        }
+        if (!request.headers().isEmpty()) {
+            spec.headers(request.headers());
+        }
+        if (request.body() != null) {
+            spec.body(request.body());
+        }
+        io.restassured.response.Response response = spec.request(request.method(), request.url());
+        return new Response(response.getStatusCode(), response.asByteArray());
+    }
+
+    @Override
+    public CompletableFuture<Response> sendAsync(Request request) {
+        return AsyncSends.onThread(executor, () -> send(request));
+    }
+
+    @Override
+    public ConnectionPoolStats getStats() {
+        ConnectionPoolStats stats = factory.getStats();
+        stats.setEngine(name());
+        stats.setProtocol("HTTP/1.1");
+        return stats;
+    }
+
+    @Override
+    public void evictIdleConnections(Duration idleTimeout) {
+        factory.evictIdleConnections(idleTimeout);
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdownNow();
+        factory.shutdown();
+    }
+}
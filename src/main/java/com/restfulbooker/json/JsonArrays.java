@@ -0,0 +1,67 @@
+package com.restfulbooker.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts and checks the elements of a top-level JSON array with a streaming
+ * token parser. Only the field names of each element are looked at; values
+ * are skipped without being parsed into objects, so memory stays flat no
+ * matter how long the array is.
+ */
+public final class JsonArrays {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private JsonArrays() {
+    }
+
+    /**
+     * Reads a JSON array from {@code in} and counts its elements. An element
+     * is invalid when it isn't an object or, if {@code requiredField} is not
+     * null, doesn't have that field.
+     *
+     * @throws JsonParseException if the body isn't a well-formed JSON array
+     */
+    public static ArrayCount count(InputStream in, String requiredField) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array");
+            }
+            long elements = 0;
+            long invalid = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "Unexpected end of JSON array");
+                }
+                elements++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    invalid++;
+                    continue;
+                }
+                boolean found = requiredField == null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    if (!found && requiredField.equals(parser.currentName())) {
+                        found = true;
+                    }
+                    parser.nextToken();
+                    parser.skipChildren();
+                }
+                if (!found) {
+                    invalid++;
+                }
+            }
+            return new ArrayCount(elements, invalid);
+        }
+    }
+
+    public record ArrayCount(long elements, long invalid) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.restfulbooker.metrics;
+
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.model.ConnectionPoolStats;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.service.LoadTestService;
+import com.restfulbooker.service.TestExecutor;
+import com.restfulbooker.spec.SpecEngine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Gauges read when Prometheus scrapes: tests in flight, restful-booker auth
+ * refreshes and token state, and each site's HTTP connection pool. Spring
+ * Boot binds every {@link MeterBinder} bean to the registry at startup.
+ */
+@Component
+public class DashboardGauges implements MeterBinder {
+
+    @Autowired
+    private TestExecutor testExecutor;
+
+    @Autowired
+    private LoadTestService loadTestService;
+
+    @Autowired
+    private AuthTokenManager authTokens;
+
+    @Autowired
+    private HttpClientPools httpClientPools;
+
+    @Autowired
+    private SpecEngine specEngine;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("api.tests.in.flight", testExecutor, TestExecutor::getInFlight)
+                .description("Tests currently executing, by how they were started")
+                .tag("mode", "executor")
+                .register(registry);
+        Gauge.builder("api.tests.in.flight", loadTestService, LoadTestService::getInFlight)
+                .description("Tests currently executing, by how they were started")
+                .tag("mode", "load")
+                .register(registry);
+
+        FunctionCounter.builder("api.auth.refreshes", authTokens, tokens -> tokens.getMetrics().getRefreshCount())
+                .description("restful-booker POST /auth calls")
+                .register(registry);
+        FunctionCounter.builder("api.auth.refresh.failures", authTokens, tokens -> tokens.getMetrics().getFailedRefreshCount())
+                .register(registry);
+        TimeGauge.builder("api.auth.refresh.last", authTokens, TimeUnit.MILLISECONDS, tokens -> tokens.getMetrics().getLastRefreshLatency())
+                .register(registry);
+        Gauge.builder("api.auth.token.valid", authTokens, tokens -> tokens.getMetrics().isTokenValid() ? 1 : 0)
+                .register(registry);
+        TimeGauge.builder("api.auth.token.expires.in", authTokens, TimeUnit.MILLISECONDS, tokens -> tokens.getMetrics().getTokenExpiresIn())
+                .register(registry);
+
+        for (String site : specEngine.getSites().keySet()) {
+            poolGauge(registry, site, "http.pool.leased", ConnectionPoolStats::getLeased);
+            poolGauge(registry, site, "http.pool.idle", ConnectionPoolStats::getIdle);
+            poolGauge(registry, site, "http.pool.pending", ConnectionPoolStats::getPending);
+            FunctionCounter.builder("http.pool.connections.opened", httpClientPools, pools -> poolStat(pools, site, ConnectionPoolStats::getConnectionsOpened))
+                    .tag("site", site)
+                    .register(registry);
+            FunctionCounter.builder("http.pool.tls.handshakes", httpClientPools, pools -> poolStat(pools, site, ConnectionPoolStats::getTlsHandshakes))
+                    .tag("site", site)
+                    .register(registry);
+        }
+    }
+
+    private void poolGauge(MeterRegistry registry, String site, String name, ToDoubleFunction<ConnectionPoolStats> stat) {
+        Gauge.builder(name, httpClientPools, pools -> poolStat(pools, site, stat))
+                .tag("site", site)
+                .register(registry);
+    }
+
+    // Zero until the site has sent its first request and has a pool
+    private static double poolStat(HttpClientPools pools, String site, ToDoubleFunction<ConnectionPoolStats> stat) {
+        ConnectionPoolStats stats = pools.getStats(site);
+        return stats != null ? stat.applyAsDouble(stats) : 0;
+    }
+}
@@ -0,0 +1,181 @@
+package com.restfulbooker.metrics;
+
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.TestResultListener;
+import com.restfulbooker.spec.ExecutionPlan;
+import com.restfulbooker.spec.RequestPolicy;
+import com.restfulbooker.spec.SpecEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Micrometer meters for every test execution, scraped from
+ * /actuator/prometheus:
+ * <ul>
+ *   <li>{@code api.test.duration}, a timer with a percentile histogram,
+ *   tagged by site, test and status;</li>
+ *   <li>{@code api.test.results}, a counter tagged by site, test, status and
+ *   status code (0 when no response arrived).</li>
+ * </ul>
+ * Tests with a {@link RequestPolicy} also get {@code api.test.request.duration},
+ * the request's latency {@code hedging="without"} (the first request alone)
+ * and {@code hedging="with"} (the first response of first request and
+ * hedge), and counters of hedges sent, hedges that won and retries.
+ * Timers for every test and status are registered up front and status code
+ * counters on first use, then cached in arrays, so recording a result never
+ * builds tags or asks the registry for a meter. Load runs record here
+ * directly; everything else arrives through {@link TestResultListener}.
+ */
+@Component
+public class TestMetrics implements TestResultListener, RequestPolicy.Listener {
+
+    static final List<String> STATUSES = List.of("PASSED", "FAILED", "ERROR", "SKIPPED");
+    private static final int MAX_STATUS_CODE = 599;
+
+    private final MeterRegistry registry;
+    private final SpecEngine specEngine;
+    private final Map<String, TestMeters> tests = new ConcurrentHashMap<>();
+    private final Map<String, PolicyMeters> policies = new ConcurrentHashMap<>();
+
+    public TestMetrics(MeterRegistry registry, SpecEngine specEngine) {
+        this.registry = registry;
+        this.specEngine = specEngine;
+        specEngine.getSites().forEach((site, plans) -> {
+            for (ExecutionPlan plan : plans) {
+                tests.put(plan.id(), new TestMeters(site, plan.id()));
+                if (plan.policy() != null) {
+                    policies.put(plan.id(), new PolicyMeters(plan));
+                }
+            }
+        });
+        specEngine.setPolicyListener(this);
+    }
+
+    @Override
+    public void onResult(TestResult result, TestContext context) {
+        record(result.getTestId(), result);
+    }
+
+    public void record(String testId, TestResult result) {
+        TestMeters meters = tests.get(testId);
+        if (meters == null) {
+            // A test of a site registered after startup
+            meters = tests.computeIfAbsent(testId, id -> {
+                ExecutionPlan plan = specEngine.getPlan(id);
+                return new TestMeters(plan != null ? plan.site() : "unknown", id);
+            });
+        }
+        int status = STATUSES.indexOf(result.getStatus());
+        if (status < 0) {
+            status = STATUSES.indexOf("ERROR");
+        }
+        long nanos = result.getPhases() != null ? result.getPhases().getTotal() : TimeUnit.MILLISECONDS.toNanos(result.getDuration());
+        meters.durations[status].record(nanos, TimeUnit.NANOSECONDS);
+        meters.counter(status, result.getStatusCode()).increment();
+    }
+
+    @Override
+    public void onFirstRequest(ExecutionPlan plan, long nanos) {
+        policy(plan).withoutHedging.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onResponse(ExecutionPlan plan, long nanos, boolean hedgeWon) {
+        PolicyMeters meters = policy(plan);
+        meters.withHedging.record(nanos, TimeUnit.NANOSECONDS);
+        if (hedgeWon) {
+            meters.hedgeWins.increment();
+        }
+    }
+
+    @Override
+    public void onHedge(ExecutionPlan plan) {
+        policy(plan).hedges.increment();
+    }
+
+    @Override
+    public void onRetry(ExecutionPlan plan) {
+        policy(plan).retries.increment();
+    }
+
+    private PolicyMeters policy(ExecutionPlan plan) {
+        PolicyMeters meters = policies.get(plan.id());
+        return meters != null ? meters : policies.computeIfAbsent(plan.id(), id -> new PolicyMeters(plan));
+    }
+
+    private final class PolicyMeters {
+        private final Timer withoutHedging;
+        private final Timer withHedging;
+        private final Counter hedges;
+        private final Counter hedgeWins;
+        private final Counter retries;
+
+        PolicyMeters(ExecutionPlan plan) {
+            withoutHedging = requestTimer(plan, "without");
+            withHedging = requestTimer(plan, "with");
+            hedges = Counter.builder("api.test.hedges").description("Duplicate requests sent after the hedge delay")
+                    .tags("site", plan.site(), "test", plan.id()).register(registry);
+            hedgeWins = Counter.builder("api.test.hedge.wins").description("Hedges that answered before the first request")
+                    .tags("site", plan.site(), "test", plan.id()).register(registry);
+            retries = Counter.builder("api.test.retries").description("Requests sent again after a failure or retry status")
+                    .tags("site", plan.site(), "test", plan.id()).register(registry);
+        }
+
+        private Timer requestTimer(ExecutionPlan plan, String hedging) {
+            return Timer.builder("api.test.request.duration")
+                    .description("Latency of a test's request, by the first request alone or the first response with hedging")
+                    .tags("site", plan.site(), "test", plan.id(), "hedging", hedging)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(60))
+                    .register(registry);
+        }
+    }
+
+    private final class TestMeters {
+        private final String site;
+        private final String testId;
+        private final Timer[] durations = new Timer[STATUSES.size()];
+        // Indexed by status, then status code
+        private final AtomicReferenceArray<Counter> results = new AtomicReferenceArray<>(STATUSES.size() * (MAX_STATUS_CODE + 1));
+
+        TestMeters(String site, String testId) {
+            this.site = site;
+            this.testId = testId;
+            for (int i = 0; i < durations.length; i++) {
+                durations[i] = Timer.builder("api.test.duration")
+                        .description("Test execution time, fixtures included")
+                        .tags("site", site, "test", testId, "status", STATUSES.get(i))
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofSeconds(60))
+                        .register(registry);
+            }
+        }
+
+        Counter counter(int status, int statusCode) {
+            int code = statusCode >= 0 && statusCode <= MAX_STATUS_CODE ? statusCode : 0;
+            int index = status * (MAX_STATUS_CODE + 1) + code;
+            Counter counter = results.get(index);
+            if (counter == null) {
+                // The registry returns the same counter to racing threads
+                counter = Counter.builder("api.test.results")
+                        .description("Test executions by outcome")
+                        .tags("site", site, "test", testId, "status", STATUSES.get(status), "status_code", Integer.toString(code))
+                        .register(registry);
+                results.set(index, counter);
+            }
+            return counter;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.restfulbooker.model;
+
+public class AuthMetrics {
+    private long refreshCount;
+    private long failedRefreshCount;
+    private long lastRefreshLatency;
+    private long averageRefreshLatency;
+    private long maxRefreshLatency;
+    private boolean tokenValid;
+    private long tokenExpiresIn;
+
+    // Getters and Setters
+    public long getRefreshCount() { return refreshCount; }
+    public void setRefreshCount(long refreshCount) { this.refreshCount = refreshCount; }
+
+    public long getFailedRefreshCount() { return failedRefreshCount; }
+    public void setFailedRefreshCount(long failedRefreshCount) { this.failedRefreshCount = failedRefreshCount; }
+
+    public long getLastRefreshLatency() { return lastRefreshLatency; }
+    public void setLastRefreshLatency(long lastRefreshLatency) { this.lastRefreshLatency = lastRefreshLatency; }
+
+    public long getAverageRefreshLatency() { return averageRefreshLatency; }
+    public void setAverageRefreshLatency(long averageRefreshLatency) { this.averageRefreshLatency = averageRefreshLatency; }
+
+    public long getMaxRefreshLatency() { return maxRefreshLatency; }
+    public void setMaxRefreshLatency(long maxRefreshLatency) { this.maxRefreshLatency = maxRefreshLatency; }
+
+    public boolean isTokenValid() { return tokenValid; }
+    public void setTokenValid(boolean tokenValid) { this.tokenValid = tokenValid; }
+
+    public long getTokenExpiresIn() { return tokenExpiresIn; }
+    public void setTokenExpiresIn(long tokenExpiresIn) { this.tokenExpiresIn = tokenExpiresIn; }
+}
@@ -0,0 +1,41 @@
+package com.restfulbooker.model;
+
+public class BulkheadStats {
+    private int maxConcurrency;
+    private int maxQueue;
+    private long maxWait;
+    private int active;
+    private int queued;
+    private int maxQueued;
+    private long rejected;
+    private long timedOut;
+    private long completed;
+
+    // Getters and Setters
+    public int getMaxConcurrency() { return maxConcurrency; }
+    public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+
+    public int getMaxQueue() { return maxQueue; }
+    public void setMaxQueue(int maxQueue) { this.maxQueue = maxQueue; }
+
+    public long getMaxWait() { return maxWait; }
+    public void setMaxWait(long maxWait) { this.maxWait = maxWait; }
+
+    public int getActive() { return active; }
+    public void setActive(int active) { this.active = active; }
+
+    public int getQueued() { return queued; }
+    public void setQueued(int queued) { this.queued = queued; }
+
+    public int getMaxQueued() { return maxQueued; }
+    public void setMaxQueued(int maxQueued) { this.maxQueued = maxQueued; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+
+    public long getTimedOut() { return timedOut; }
+    public void setTimedOut(long timedOut) { this.timedOut = timedOut; }
+
+    public long getCompleted() { return completed; }
+    public void setCompleted(long completed) { this.completed = completed; }
+}
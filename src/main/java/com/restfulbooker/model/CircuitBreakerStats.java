@@ -0,0 +1,45 @@
+package com.restfulbooker.model;
+
+public class CircuitBreakerStats {
+    private String host;
+    private String state;
+    private int calls;
+    private double failureRate;
+    private double slowCallRate;
+    private long opens;
+    private long notPermitted;
+    private long openedAt;
+    private String reason;
+    private String lastFailure;
+
+    // Getters and Setters
+    public String getHost() { return host; }
+    public void setHost(String host) { this.host = host; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public int getCalls() { return calls; }
+    public void setCalls(int calls) { this.calls = calls; }
+
+    public double getFailureRate() { return failureRate; }
+    public void setFailureRate(double failureRate) { this.failureRate = failureRate; }
+
+    public double getSlowCallRate() { return slowCallRate; }
+    public void setSlowCallRate(double slowCallRate) { this.slowCallRate = slowCallRate; }
+
+    public long getOpens() { return opens; }
+    public void setOpens(long opens) { this.opens = opens; }
+
+    public long getNotPermitted() { return notPermitted; }
+    public void setNotPermitted(long notPermitted) { this.notPermitted = notPermitted; }
+
+    public long getOpenedAt() { return openedAt; }
+    public void setOpenedAt(long openedAt) { this.openedAt = openedAt; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+
+    public String getLastFailure() { return lastFailure; }
+    public void setLastFailure(String lastFailure) { this.lastFailure = lastFailure; }
+}
@@ -0,0 +1,49 @@
+package com.restfulbooker.model;
+
+public class ConnectionPoolStats {
+    private String site;
+    private String engine;
+    private String protocol;
+    private int leased;
+    private int idle;
+    private int pending;
+    private int maxTotal;
+    private int maxPerRoute;
+    private long connectionsOpened;
+    private long tlsHandshakes;
+    private long averageHandshakeTime;
+
+    // Getters and Setters
+    public String getSite() { return site; }
+    public void setSite(String site) { this.site = site; }
+
+    public String getEngine() { return engine; }
+    public void setEngine(String engine) { this.engine = engine; }
+
+    public String getProtocol() { return protocol; }
+    public void setProtocol(String protocol) { this.protocol = protocol; }
+
+    public int getLeased() { return leased; }
+    public void setLeased(int leased) { this.leased = leased; }
+
+    public int getIdle() { return idle; }
+    public void setIdle(int idle) { this.idle = idle; }
+
+    public int getPending() { return pending; }
+    public void setPending(int pending) { this.pending = pending; }
+
+    public int getMaxTotal() { return maxTotal; }
+    public void setMaxTotal(int maxTotal) { this.maxTotal = maxTotal; }
+
+    public int getMaxPerRoute() { return maxPerRoute; }
+    public void setMaxPerRoute(int maxPerRoute) { this.maxPerRoute = maxPerRoute; }
+
+    public long getConnectionsOpened() { return connectionsOpened; }
+    public void setConnectionsOpened(long connectionsOpened) { this.connectionsOpened = connectionsOpened; }
+
+    public long getTlsHandshakes() { return tlsHandshakes; }
+    public void setTlsHandshakes(long tlsHandshakes) { this.tlsHandshakes = tlsHandshakes; }
+
+    public long getAverageHandshakeTime() { return averageHandshakeTime; }
+    public void setAverageHandshakeTime(long averageHandshakeTime) { this.averageHandshakeTime = averageHandshakeTime; }
+}
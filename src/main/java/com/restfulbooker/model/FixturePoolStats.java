@@ -0,0 +1,49 @@
+package com.restfulbooker.model;
+
+public class FixturePoolStats {
+    private String testId;
+    private int ready;
+    private int target;
+    private long hits;
+    private long misses;
+    private long evicted;
+    private long deleted;
+    private long refills;
+    private long failedRefills;
+    private long averageRefillLatency;
+    private long maxRefillLatency;
+
+    // Getters and Setters
+    public String getTestId() { return testId; }
+    public void setTestId(String testId) { this.testId = testId; }
+
+    public int getReady() { return ready; }
+    public void setReady(int ready) { this.ready = ready; }
+
+    public int getTarget() { return target; }
+    public void setTarget(int target) { this.target = target; }
+
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+
+    public long getMisses() { return misses; }
+    public void setMisses(long misses) { this.misses = misses; }
+
+    public long getEvicted() { return evicted; }
+    public void setEvicted(long evicted) { this.evicted = evicted; }
+
+    public long getDeleted() { return deleted; }
+    public void setDeleted(long deleted) { this.deleted = deleted; }
+
+    public long getRefills() { return refills; }
+    public void setRefills(long refills) { this.refills = refills; }
+
+    public long getFailedRefills() { return failedRefills; }
+    public void setFailedRefills(long failedRefills) { this.failedRefills = failedRefills; }
+
+    public long getAverageRefillLatency() { return averageRefillLatency; }
+    public void setAverageRefillLatency(long averageRefillLatency) { this.averageRefillLatency = averageRefillLatency; }
+
+    public long getMaxRefillLatency() { return maxRefillLatency; }
+    public void setMaxRefillLatency(long maxRefillLatency) { this.maxRefillLatency = maxRefillLatency; }
+}
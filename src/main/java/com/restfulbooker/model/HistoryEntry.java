@@ -0,0 +1,37 @@
+package com.restfulbooker.model;
+
+public class HistoryEntry {
+    private long timestamp;
+    private String runId;
+    private String testId;
+    private String status;
+    private int statusCode;
+    private long duration;
+    private PhaseTimings phases;
+    private String bodyRef;
+
+    // Getters and Setters
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+
+    public String getTestId() { return testId; }
+    public void setTestId(String testId) { this.testId = testId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getStatusCode() { return statusCode; }
+    public void setStatusCode(int statusCode) { this.statusCode = statusCode; }
+
+    public long getDuration() { return duration; }
+    public void setDuration(long duration) { this.duration = duration; }
+
+    public PhaseTimings getPhases() { return phases; }
+    public void setPhases(PhaseTimings phases) { this.phases = phases; }
+
+    public String getBodyRef() { return bodyRef; }
+    public void setBodyRef(String bodyRef) { this.bodyRef = bodyRef; }
+}
@@ -0,0 +1,29 @@
+package com.restfulbooker.model;
+
+public class LimitSample {
+    private long timestamp;
+    private int limit;
+    private int maxInFlight;
+    private double throughput;
+    private int drops;
+    private long averageRtt;
+
+    // Getters and Setters
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+
+    public int getMaxInFlight() { return maxInFlight; }
+    public void setMaxInFlight(int maxInFlight) { this.maxInFlight = maxInFlight; }
+
+    public double getThroughput() { return throughput; }
+    public void setThroughput(double throughput) { this.throughput = throughput; }
+
+    public int getDrops() { return drops; }
+    public void setDrops(int drops) { this.drops = drops; }
+
+    public long getAverageRtt() { return averageRtt; }
+    public void setAverageRtt(long averageRtt) { this.averageRtt = averageRtt; }
+}
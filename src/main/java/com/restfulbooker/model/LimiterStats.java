@@ -0,0 +1,51 @@
+package com.restfulbooker.model;
+
+import java.util.List;
+
+public class LimiterStats {
+    private String host;
+    private String algorithm;
+    private int limit;
+    private int minLimit;
+    private int maxLimit;
+    private int inFlight;
+    private int waiting;
+    private long drops;
+    private double peakThroughput;
+    private int peakLimit;
+    private List<LimitSample> history;
+
+    // Getters and Setters
+    public String getHost() { return host; }
+    public void setHost(String host) { this.host = host; }
+
+    public String getAlgorithm() { return algorithm; }
+    public void setAlgorithm(String algorithm) { this.algorithm = algorithm; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+
+    public int getMinLimit() { return minLimit; }
+    public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+
+    public int getMaxLimit() { return maxLimit; }
+    public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+
+    public int getInFlight() { return inFlight; }
+    public void setInFlight(int inFlight) { this.inFlight = inFlight; }
+
+    public int getWaiting() { return waiting; }
+    public void setWaiting(int waiting) { this.waiting = waiting; }
+
+    public long getDrops() { return drops; }
+    public void setDrops(long drops) { this.drops = drops; }
+
+    public double getPeakThroughput() { return peakThroughput; }
+    public void setPeakThroughput(double peakThroughput) { this.peakThroughput = peakThroughput; }
+
+    public int getPeakLimit() { return peakLimit; }
+    public void setPeakLimit(int peakLimit) { this.peakLimit = peakLimit; }
+
+    public List<LimitSample> getHistory() { return history; }
+    public void setHistory(List<LimitSample> history) { this.history = history; }
+}
@@ -0,0 +1,65 @@
+package com.restfulbooker.model;
+
+public class LoadReport {
+    private String testId;
+    private int targetRps;
+    private int concurrency;
+    private boolean finished;
+    private long elapsed;
+    private long sent;
+    private long completed;
+    private long errors;
+    private double errorRate;
+    private double achievedRps;
+    private double p50;
+    private double p90;
+    private double p99;
+    private double p999;
+    private double max;
+
+    // Getters and Setters
+    public String getTestId() { return testId; }
+    public void setTestId(String testId) { this.testId = testId; }
+
+    public int getTargetRps() { return targetRps; }
+    public void setTargetRps(int targetRps) { this.targetRps = targetRps; }
+
+    public int getConcurrency() { return concurrency; }
+    public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
+
+    public boolean isFinished() { return finished; }
+    public void setFinished(boolean finished) { this.finished = finished; }
+
+    public long getElapsed() { return elapsed; }
+    public void setElapsed(long elapsed) { this.elapsed = elapsed; }
+
+    public long getSent() { return sent; }
+    public void setSent(long sent) { this.sent = sent; }
+
+    public long getCompleted() { return completed; }
+    public void setCompleted(long completed) { this.completed = completed; }
+
+    public long getErrors() { return errors; }
+    public void setErrors(long errors) { this.errors = errors; }
+
+    public double getErrorRate() { return errorRate; }
+    public void setErrorRate(double errorRate) { this.errorRate = errorRate; }
+
+    public double getAchievedRps() { return achievedRps; }
+    public void setAchievedRps(double achievedRps) { this.achievedRps = achievedRps; }
+
+    public double getP50() { return p50; }
+    public void setP50(double p50) { this.p50 = p50; }
+
+    public double getP90() { return p90; }
+    public void setP90(double p90) { this.p90 = p90; }
+
+    public double getP99() { return p99; }
+    public void setP99(double p99) { this.p99 = p99; }
+
+    public double getP999() { return p999; }
+    public void setP999(double p999) { this.p999 = p999; }
+
+    public double getMax() { return max; }
+    public void setMax(double max) { this.max = max; }
+}
@@ -0,0 +1,67 @@
+package com.restfulbooker.model;
+
+import java.util.List;
+
+public class MonitorStatus {
+    private String name;
+    private String suite;
+    private List<String> tests;
+    private String schedule;
+    private boolean running;
+    private long runs;
+    private long skipped;
+    private long passedRuns;
+    private long failedRuns;
+    private String lastRunId;
+    private String lastStatus;
+    private long lastStarted;
+    private long lastDuration;
+    private long nextRun;
+    private long maxLateness;
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getSuite() { return suite; }
+    public void setSuite(String suite) { this.suite = suite; }
+
+    public List<String> getTests() { return tests; }
+    public void setTests(List<String> tests) { this.tests = tests; }
+
+    public String getSchedule() { return schedule; }
+    public void setSchedule(String schedule) { this.schedule = schedule; }
+
+    public boolean isRunning() { return running; }
+    public void setRunning(boolean running) { this.running = running; }
+
+    public long getRuns() { return runs; }
+    public void setRuns(long runs) { this.runs = runs; }
+
+    public long getSkipped() { return skipped; }
+    public void setSkipped(long skipped) { this.skipped = skipped; }
+
+    public long getPassedRuns() { return passedRuns; }
+    public void setPassedRuns(long passedRuns) { this.passedRuns = passedRuns; }
+
+    public long getFailedRuns() { return failedRuns; }
+    public void setFailedRuns(long failedRuns) { this.failedRuns = failedRuns; }
+
+    public String getLastRunId() { return lastRunId; }
+    public void setLastRunId(String lastRunId) { this.lastRunId = lastRunId; }
+
+    public String getLastStatus() { return lastStatus; }
+    public void setLastStatus(String lastStatus) { this.lastStatus = lastStatus; }
+
+    public long getLastStarted() { return lastStarted; }
+    public void setLastStarted(long lastStarted) { this.lastStarted = lastStarted; }
+
+    public long getLastDuration() { return lastDuration; }
+    public void setLastDuration(long lastDuration) { this.lastDuration = lastDuration; }
+
+    public long getNextRun() { return nextRun; }
+    public void setNextRun(long nextRun) { this.nextRun = nextRun; }
+
+    public long getMaxLateness() { return maxLateness; }
+    public void setMaxLateness(long maxLateness) { this.maxLateness = maxLateness; }
+}
@@ -0,0 +1,47 @@
+package com.restfulbooker.model;
+
+/**
+ * Where the time of one test went, in nanoseconds. Network phases cover only
+ * the request under test; anything spent creating fixtures is in fixtureSetup.
+ * clientOverhead is what remains of total: building the request, leasing a
+ * connection and parsing the response on our side.
+ */
+public class PhaseTimings {
+    private long dns;
+    private long connect;
+    private long tlsHandshake;
+    private long requestWrite;
+    private long timeToFirstByte;
+    private long bodyRead;
+    private long fixtureSetup;
+    private long clientOverhead;
+    private long total;
+
+    // Getters and Setters
+    public long getDns() { return dns; }
+    public void setDns(long dns) { this.dns = dns; }
+
+    public long getConnect() { return connect; }
+    public void setConnect(long connect) { this.connect = connect; }
+
+    public long getTlsHandshake() { return tlsHandshake; }
+    public void setTlsHandshake(long tlsHandshake) { this.tlsHandshake = tlsHandshake; }
+
+    public long getRequestWrite() { return requestWrite; }
+    public void setRequestWrite(long requestWrite) { this.requestWrite = requestWrite; }
+
+    public long getTimeToFirstByte() { return timeToFirstByte; }
+    public void setTimeToFirstByte(long timeToFirstByte) { this.timeToFirstByte = timeToFirstByte; }
+
+    public long getBodyRead() { return bodyRead; }
+    public void setBodyRead(long bodyRead) { this.bodyRead = bodyRead; }
+
+    public long getFixtureSetup() { return fixtureSetup; }
+    public void setFixtureSetup(long fixtureSetup) { this.fixtureSetup = fixtureSetup; }
+
+    public long getClientOverhead() { return clientOverhead; }
+    public void setClientOverhead(long clientOverhead) { this.clientOverhead = clientOverhead; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+}
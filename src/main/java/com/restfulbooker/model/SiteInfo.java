@@ -0,0 +1,27 @@
+package com.restfulbooker.model;
+
+import java.util.List;
+
+public class SiteInfo {
+    private String site;
+    private String baseUrl;
+    private String auth;
+    private List<SiteTest> tests;
+    private BulkheadStats bulkhead;
+
+    // Getters and Setters
+    public String getSite() { return site; }
+    public void setSite(String site) { this.site = site; }
+
+    public String getBaseUrl() { return baseUrl; }
+    public void setBaseUrl(String baseUrl) { this.baseUrl = baseUrl; }
+
+    public String getAuth() { return auth; }
+    public void setAuth(String auth) { this.auth = auth; }
+
+    public List<SiteTest> getTests() { return tests; }
+    public void setTests(List<SiteTest> tests) { this.tests = tests; }
+
+    public BulkheadStats getBulkhead() { return bulkhead; }
+    public void setBulkhead(BulkheadStats bulkhead) { this.bulkhead = bulkhead; }
+}
@@ -0,0 +1,31 @@
+package com.restfulbooker.model;
+
+public class SiteReadiness {
+    private String site;
+    private String state;
+    private String message;
+    private long warmupDuration;
+
+    public SiteReadiness() {
+    }
+
+    public SiteReadiness(String site, String state, String message, long warmupDuration) {
+        this.site = site;
+        this.state = state;
+        this.message = message;
+        this.warmupDuration = warmupDuration;
+    }
+
+    // Getters and Setters
+    public String getSite() { return site; }
+    public void setSite(String site) { this.site = site; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public long getWarmupDuration() { return warmupDuration; }
+    public void setWarmupDuration(long warmupDuration) { this.warmupDuration = warmupDuration; }
+}
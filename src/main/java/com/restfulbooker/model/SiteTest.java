@@ -0,0 +1,17 @@
+package com.restfulbooker.model;
+
+public class SiteTest {
+    private String id;
+    private String name;
+    private String method;
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getMethod() { return method; }
+    public void setMethod(String method) { this.method = method; }
+}
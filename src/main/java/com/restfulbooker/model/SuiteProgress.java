@@ -0,0 +1,41 @@
+package com.restfulbooker.model;
+
+public class SuiteProgress {
+    private String runId;
+    private String site;
+    private int total;
+    private int completed;
+    private int passed;
+    private int failed;
+    private int skipped;
+    private long elapsed;
+    private long summedDuration;
+
+    // Getters and Setters
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+
+    public String getSite() { return site; }
+    public void setSite(String site) { this.site = site; }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getCompleted() { return completed; }
+    public void setCompleted(int completed) { this.completed = completed; }
+
+    public int getPassed() { return passed; }
+    public void setPassed(int passed) { this.passed = passed; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public int getSkipped() { return skipped; }
+    public void setSkipped(int skipped) { this.skipped = skipped; }
+
+    public long getElapsed() { return elapsed; }
+    public void setElapsed(long elapsed) { this.elapsed = elapsed; }
+
+    public long getSummedDuration() { return summedDuration; }
+    public void setSummedDuration(long summedDuration) { this.summedDuration = summedDuration; }
+}
@@ -0,0 +1,59 @@
+package com.restfulbooker.model;
+
+import java.util.List;
+
+public class SuiteReport {
+    private String runId;
+    private String site;
+    private int total;
+    private int passed;
+    private int failed;
+    private int skipped;
+    private long wallClockDuration;
+    private long summedDuration;
+    private long criticalPathDuration;
+    private long totalWork;
+    private int fixtureRuns;
+    private List<String> criticalPath;
+    private List<TestResult> results;
+
+    // Getters and Setters
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+
+    public String getSite() { return site; }
+    public void setSite(String site) { this.site = site; }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getPassed() { return passed; }
+    public void setPassed(int passed) { this.passed = passed; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public int getSkipped() { return skipped; }
+    public void setSkipped(int skipped) { this.skipped = skipped; }
+
+    public long getWallClockDuration() { return wallClockDuration; }
+    public void setWallClockDuration(long wallClockDuration) { this.wallClockDuration = wallClockDuration; }
+
+    public long getSummedDuration() { return summedDuration; }
+    public void setSummedDuration(long summedDuration) { this.summedDuration = summedDuration; }
+
+    public long getCriticalPathDuration() { return criticalPathDuration; }
+    public void setCriticalPathDuration(long criticalPathDuration) { this.criticalPathDuration = criticalPathDuration; }
+
+    public long getTotalWork() { return totalWork; }
+    public void setTotalWork(long totalWork) { this.totalWork = totalWork; }
+
+    public int getFixtureRuns() { return fixtureRuns; }
+    public void setFixtureRuns(int fixtureRuns) { this.fixtureRuns = fixtureRuns; }
+
+    public List<String> getCriticalPath() { return criticalPath; }
+    public void setCriticalPath(List<String> criticalPath) { this.criticalPath = criticalPath; }
+
+    public List<TestResult> getResults() { return results; }
+    public void setResults(List<TestResult> results) { this.results = results; }
+}
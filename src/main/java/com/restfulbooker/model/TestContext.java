@@ -0,0 +1,54 @@
+package com.restfulbooker.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State created while a single test executes: the variables its spec sets
+ * or extracts, such as the IDs of the bookings, pets, orders and users it
+ * made. A fresh context is handed to every test execution, so concurrent
+ * runs never see each other's fixtures.
+ */
+public class TestContext {
+
+    // Seeded from the clock so IDs stay unique across application restarts,
+    // incremented so they stay unique between threads within the same millisecond.
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    private final String runId;
+    private final Map<String, String> variables = new HashMap<>();
+
+    public TestContext() {
+        this(UUID.randomUUID().toString());
+    }
+
+    public TestContext(String runId) {
+        this.runId = runId;
+    }
+
+    public static long nextId() {
+        return ID_SEQUENCE.incrementAndGet();
+    }
+
+    public String getRunId() { return runId; }
+
+    public String get(String variable) {
+        return variables.get(variable);
+    }
+
+    /** Copies every variable of {@code other} into this context. */
+    public void putAll(TestContext other) {
+        variables.putAll(other.variables);
+    }
+
+    /** Sets a variable; null removes it. */
+    public void set(String variable, String value) {
+        if (value == null) {
+            variables.remove(variable);
+        } else {
+            variables.put(variable, value);
+        }
+    }
+}
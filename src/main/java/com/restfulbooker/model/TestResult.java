@@ -1,14 +1,25 @@
 package com.restfulbooker.model;
 
 public class TestResult {
+    private String testId;
     private String testName;
     private String status;
     private String message;
     private int statusCode;
     private String responseBody;
+    private long bodySize;
+    private boolean bodyTruncated;
+    private String bodyDigest;
+    private String bodyRef;
     private long duration;
+    private PhaseTimings phases;
+    private int attempts;
+    private boolean hedged;
 
     // Getters and Setters
+    public String getTestId() { return testId; }
+    public void setTestId(String testId) { this.testId = testId; }
+
     public String getTestName() { return testName; }
     public void setTestName(String testName) { this.testName = testName; }
 
@@ -24,6 +35,27 @@ public class TestResult {
     public String getResponseBody() { return responseBody; }
     public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
 
+    public long getBodySize() { return bodySize; }
+    public void setBodySize(long bodySize) { this.bodySize = bodySize; }
+
+    public boolean isBodyTruncated() { return bodyTruncated; }
+    public void setBodyTruncated(boolean bodyTruncated) { this.bodyTruncated = bodyTruncated; }
+
+    public String getBodyDigest() { return bodyDigest; }
+    public void setBodyDigest(String bodyDigest) { this.bodyDigest = bodyDigest; }
+
+    public String getBodyRef() { return bodyRef; }
+    public void setBodyRef(String bodyRef) { this.bodyRef = bodyRef; }
+
     public long getDuration() { return duration; }
     public void setDuration(long duration) { this.duration = duration; }
-}
\ No newline at end of file
+
+    public PhaseTimings getPhases() { return phases; }
+    public void setPhases(PhaseTimings phases) { this.phases = phases; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public boolean isHedged() { return hedged; }
+    public void setHedged(boolean hedged) { this.hedged = hedged; }
+}
@@ -0,0 +1,250 @@
+package com.restfulbooker.monitor;
+
+import com.restfulbooker.model.MonitorStatus;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fires monitors from a single timer thread and runs them on virtual
+ * threads, so hundreds of schedules cost one platform thread.
+ * <ul>
+ *   <li>Interval monitors keep a fixed timeline: the n-th run is due at
+ *   start + n * every, however long earlier runs took or how late the timer
+ *   woke up. Runs that fall due while the timer is behind are dropped
+ *   rather than fired in a burst.</li>
+ *   <li>Cron monitors are due whenever their expression matches.</li>
+ *   <li>Each run starts a random delay of up to the monitor's jitter after it
+ *   is due, which spreads monitors sharing an interval instead of firing
+ *   them together. The delay never carries over to the next run.</li>
+ *   <li>A monitor that is still running when it falls due again skips that
+ *   run. At most maxConcurrency monitors run at once; the rest wait for a
+ *   permit.</li>
+ * </ul>
+ */
+public class MonitorScheduler {
+
+    /** Runs one monitor to completion. */
+    public interface Runner {
+        Outcome run(MonitorSpec monitor);
+    }
+
+    public record Outcome(String runId, int passed, int failed) {
+    }
+
+    private final Runner runner;
+    private final Semaphore permits;
+    private final Map<String, Schedule> schedules = new LinkedHashMap<>();
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "monitor-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public MonitorScheduler(List<MonitorSpec> monitors, int maxConcurrency, Duration defaultJitter, Runner runner) {
+        this.runner = runner;
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+        for (MonitorSpec monitor : monitors) {
+            if (monitor.name() == null) {
+                throw new IllegalStateException("Every monitor needs a name");
+            }
+            if (schedules.putIfAbsent(monitor.name(), new Schedule(monitor, defaultJitter)) != null) {
+                throw new IllegalStateException("Monitor " + monitor.name() + " is defined more than once");
+            }
+        }
+    }
+
+    public void start() {
+        timer.execute(() -> {
+            long now = System.nanoTime();
+            for (Schedule schedule : schedules.values()) {
+                if (schedule.cron == null) {
+                    schedule.nominal = now;
+                    arm(schedule, now, now);
+                } else {
+                    schedule.cronNominal = ZonedDateTime.now();
+                    plan(schedule, now);
+                }
+            }
+        });
+    }
+
+    public void stop() {
+        timer.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    public List<MonitorStatus> getStatus() {
+        List<MonitorStatus> statuses = new ArrayList<>(schedules.size());
+        long now = System.nanoTime();
+        long wallNow = System.currentTimeMillis();
+        for (Schedule schedule : schedules.values()) {
+            MonitorSpec spec = schedule.spec;
+            MonitorStatus status = new MonitorStatus();
+            status.setName(spec.name());
+            status.setSuite(spec.suite());
+            status.setTests(spec.tests());
+            status.setSchedule(spec.cron() != null ? "cron " + spec.cron() : "every " + spec.every());
+            status.setRunning(schedule.running.get());
+            status.setRuns(schedule.runs.get());
+            status.setSkipped(schedule.skipped.get());
+            status.setPassedRuns(schedule.passedRuns.get());
+            status.setFailedRuns(schedule.failedRuns.get());
+            status.setLastRunId(schedule.lastRunId);
+            status.setLastStatus(schedule.lastStatus);
+            status.setLastStarted(schedule.lastStarted);
+            status.setLastDuration(schedule.lastDuration);
+            long target = schedule.target;
+            status.setNextRun(target == 0 ? 0 : wallNow + TimeUnit.NANOSECONDS.toMillis(target - now));
+            status.setMaxLateness(TimeUnit.NANOSECONDS.toMillis(schedule.maxLatenessNanos.get()));
+            statuses.add(status);
+        }
+        return statuses;
+    }
+
+    // Timer thread only, like everything else that touches a schedule's timeline
+    private void fire(Schedule schedule) {
+        long now = System.nanoTime();
+        try {
+            schedule.maxLatenessNanos.accumulateAndGet(now - schedule.target, Math::max);
+            if (schedule.running.compareAndSet(false, true)) {
+                executor.execute(() -> execute(schedule));
+            } else {
+                schedule.skipped.incrementAndGet();
+            }
+        } catch (RejectedExecutionException e) {
+            // Stopping
+            schedule.running.set(false);
+        } finally {
+            if (!timer.isShutdown()) {
+                plan(schedule, now);
+            }
+        }
+    }
+
+    private void plan(Schedule schedule, long now) {
+        if (schedule.cron == null) {
+            schedule.nominal += schedule.intervalNanos;
+            if (schedule.nominal <= now) {
+                long missed = (now - schedule.nominal) / schedule.intervalNanos + 1;
+                schedule.nominal += missed * schedule.intervalNanos;
+                schedule.skipped.addAndGet(missed);
+            }
+            arm(schedule, schedule.nominal, now);
+            return;
+        }
+        ZonedDateTime wallNow = ZonedDateTime.now();
+        ZonedDateTime next = schedule.cron.next(schedule.cronNominal);
+        while (next != null && next.isBefore(wallNow)) {
+            schedule.skipped.incrementAndGet();
+            next = schedule.cron.next(next);
+        }
+        if (next == null) {
+            schedule.target = 0;
+            return;
+        }
+        schedule.cronNominal = next;
+        arm(schedule, now + Duration.between(wallNow, next).toNanos(), now);
+    }
+
+    private void arm(Schedule schedule, long due, long now) {
+        long jitter = schedule.jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(schedule.jitterNanos) : 0;
+        schedule.target = due + jitter;
+        timer.schedule(() -> fire(schedule), schedule.target - now, TimeUnit.NANOSECONDS);
+    }
+
+    private void execute(Schedule schedule) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            schedule.running.set(false);
+            return;
+        }
+        long startTime = System.nanoTime();
+        schedule.lastStarted = System.currentTimeMillis();
+        try {
+            Outcome outcome = runner.run(schedule.spec);
+            schedule.lastRunId = outcome.runId();
+            schedule.lastStatus = outcome.failed() == 0 ? "PASSED" : "FAILED";
+        } catch (Exception e) {
+            schedule.lastRunId = null;
+            schedule.lastStatus = "ERROR";
+            System.err.println("Monitor " + schedule.spec.name() + " failed: " + e.getMessage());
+        } finally {
+            permits.release();
+            schedule.lastDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            schedule.runs.incrementAndGet();
+            if ("PASSED".equals(schedule.lastStatus)) {
+                schedule.passedRuns.incrementAndGet();
+            } else {
+                schedule.failedRuns.incrementAndGet();
+            }
+            schedule.running.set(false);
+        }
+    }
+
+    private static final class Schedule {
+        private final MonitorSpec spec;
+        private final long intervalNanos;
+        private final CronExpression cron;
+        private final long jitterNanos;
+        private final AtomicBoolean running = new AtomicBoolean();
+
+        // Due time of the current run before jitter, on the timer thread only
+        private long nominal;
+        private ZonedDateTime cronNominal;
+        private volatile long target;
+
+        private final AtomicLong runs = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong passedRuns = new AtomicLong();
+        private final AtomicLong failedRuns = new AtomicLong();
+        private final AtomicLong maxLatenessNanos = new AtomicLong();
+        private volatile String lastRunId;
+        private volatile String lastStatus;
+        private volatile long lastStarted;
+        private volatile long lastDuration;
+
+        Schedule(MonitorSpec spec, Duration defaultJitter) {
+            this.spec = spec;
+            if ((spec.every() == null) == (spec.cron() == null)) {
+                throw new IllegalStateException("Monitor " + spec.name() + " needs either every or cron");
+            }
+            try {
+                long jitter = spec.jitter() != null ? DurationStyle.detectAndParse(spec.jitter()).toNanos() : defaultJitter.toNanos();
+                if (spec.every() != null) {
+                    this.intervalNanos = DurationStyle.detectAndParse(spec.every()).toNanos();
+                    if (intervalNanos <= 0) {
+                        throw new IllegalArgumentException("every must be positive");
+                    }
+                    this.cron = null;
+                    // Less than the interval, so jitter alone never makes a run miss its slot
+                    this.jitterNanos = Math.min(jitter, intervalNanos / 2);
+                } else {
+                    this.intervalNanos = 0;
+                    this.cron = CronExpression.parse(spec.cron());
+                    this.jitterNanos = jitter;
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Monitor " + spec.name() + ": " + e.getMessage(), e);
+            }
+        }
+    }
+}
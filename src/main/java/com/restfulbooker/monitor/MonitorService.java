@@ -0,0 +1,141 @@
+package com.restfulbooker.monitor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restfulbooker.model.MonitorStatus;
+import com.restfulbooker.model.SuiteReport;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.SuiteRunnerService;
+import com.restfulbooker.service.TestCatalog;
+import com.restfulbooker.service.TestExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Synthetic monitoring: runs the monitors defined at monitor.locations (by
+ * default every {@code monitors/*.yml} on the classpath) on their schedules
+ * once the application is up, if monitor.enabled is set. A monitor runs a
+ * whole suite through {@link SuiteRunnerService} or its tests one after
+ * another through {@link TestExecutor}, so its results land in the history,
+ * the live statistics and the Prometheus metrics like any other run.
+ */
+@Service
+public class MonitorService {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private TestCatalog catalog;
+
+    @Autowired
+    private TestExecutor testExecutor;
+
+    @Autowired
+    private SuiteRunnerService suiteRunner;
+
+    private final boolean enabled;
+    private final List<MonitorSpec> monitors;
+    private final MonitorScheduler scheduler;
+
+    public MonitorService(@Value("${monitor.locations:classpath*:monitors/*.yml}") String[] locations,
+                          @Value("${monitor.enabled:false}") boolean enabled,
+                          @Value("${monitor.max-concurrency:4}") int maxConcurrency,
+                          @Value("${monitor.jitter:5s}") Duration jitter) throws IOException {
+        this.enabled = enabled;
+        this.monitors = read(locations);
+        this.scheduler = new MonitorScheduler(monitors, maxConcurrency, jitter, this::run);
+    }
+
+    @PostConstruct
+    void checkMonitors() {
+        for (MonitorSpec monitor : monitors) {
+            if ((monitor.suite() == null) == (monitor.tests() == null || monitor.tests().isEmpty())) {
+                throw new IllegalStateException("Monitor " + monitor.name() + " needs either a suite or tests");
+            }
+            if (monitor.suite() != null && catalog.getGraph(monitor.suite()) == null) {
+                throw new IllegalStateException("Monitor " + monitor.name() + ": no suite " + monitor.suite());
+            }
+            if (monitor.tests() != null) {
+                for (String testId : monitor.tests()) {
+                    if (catalog.getTest(testId) == null) {
+                        throw new IllegalStateException("Monitor " + monitor.name() + ": no test with id " + testId);
+                    }
+                }
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled && !monitors.isEmpty()) {
+            scheduler.start();
+            System.out.println("Monitoring " + monitors.size() + " schedules");
+        }
+    }
+
+    public List<MonitorStatus> getStatus() {
+        return scheduler.getStatus();
+    }
+
+    private MonitorScheduler.Outcome run(MonitorSpec monitor) {
+        if (monitor.suite() != null) {
+            SuiteReport report = suiteRunner.runSuite(monitor.suite());
+            // Skipped tests didn't pass either: their API was down
+            return new MonitorScheduler.Outcome(report.getRunId(), report.getPassed(), report.getTotal() - report.getPassed());
+        }
+        String runId = UUID.randomUUID().toString();
+        int passed = 0;
+        int failed = 0;
+        for (String testId : monitor.tests()) {
+            TestResult result = testExecutor.run(testId, catalog.getTest(testId), new TestContext(runId));
+            if ("PASSED".equals(result.getStatus())) {
+                passed++;
+            } else {
+                failed++;
+            }
+        }
+        return new MonitorScheduler.Outcome(runId, passed, failed);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.stop();
+    }
+
+    private static List<MonitorSpec> read(String[] locations) throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        List<MonitorSpec> monitors = new ArrayList<>();
+        for (String location : locations) {
+            for (Resource resource : resolver.getResources(location.trim())) {
+                try (InputStream in = resource.getInputStream()) {
+                    Object document = new Yaml(new SafeConstructor(new LoaderOptions())).load(in);
+                    if (document instanceof Map<?, ?> file && file.get("monitors") != null) {
+                        monitors.addAll(Arrays.asList(MAPPER.convertValue(file.get("monitors"), MonitorSpec[].class)));
+                    }
+                } catch (RuntimeException e) {
+                    throw new IllegalStateException("Can't read monitors " + resource.getFilename() + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return monitors;
+    }
+}
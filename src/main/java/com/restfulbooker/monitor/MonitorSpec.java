@@ -0,0 +1,12 @@
+package com.restfulbooker.monitor;
+
+import java.util.List;
+
+/**
+ * One scheduled monitor as written in a {@code monitors/*.yml} file: either a
+ * whole suite or a list of test ids, run {@code every} interval (e.g. 30s,
+ * 5m) or on a six-field {@code cron} expression, delayed by up to
+ * {@code jitter} each time.
+ */
+public record MonitorSpec(String name, String suite, List<String> tests, String every, String cron, String jitter) {
+}
@@ -0,0 +1,187 @@
+package com.restfulbooker.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.http.HttpEngine.Request;
+import com.restfulbooker.http.HttpEngine.Response;
+import com.restfulbooker.model.AuthMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Caches the restful-booker auth token. Only one POST /auth runs at a time:
+ * callers that find the token missing or expired wait for the refresh already
+ * in flight instead of starting their own. The token is refreshed in the
+ * background shortly before its TTL runs out; if that refresh fails, the
+ * current token is kept until it expires and the refresh is retried after an
+ * eighth of the refresh-ahead time, then a quarter, and so on.
+ */
+@Component
+public class AuthTokenManager {
+
+    /** The site whose login this manages; no other site is sent its token. */
+    public static final String SITE = "restful-booker";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String CREDENTIALS = "{\"username\": \"admin\", \"password\": \"password123\"}";
+
+    private final String baseUrl;
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final HttpClientPools httpClientPools;
+
+    private volatile CachedToken current;
+    private final AtomicReference<CompletableFuture<String>> inFlight = new AtomicReference<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "auth-token-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong failedRefreshCount = new AtomicLong();
+    private final AtomicLong totalRefreshNanos = new AtomicLong();
+    private final AtomicLong maxRefreshNanos = new AtomicLong();
+    private volatile long lastRefreshNanos;
+    private volatile int backgroundFailures;
+
+    public AuthTokenManager(@Value("${restful-booker.base-url:https://restful-booker.herokuapp.com}") String baseUrl,
+                            @Value("${restful-booker.auth.ttl:10m}") Duration ttl,
+                            @Value("${restful-booker.auth.refresh-ahead:1m}") Duration refreshAhead,
+                            HttpClientPools httpClientPools) {
+        this.baseUrl = baseUrl;
+        this.httpClientPools = httpClientPools;
+        this.ttlNanos = ttl.toNanos();
+        this.refreshAheadNanos = Math.min(refreshAhead.toNanos(), ttlNanos / 2);
+    }
+
+    /** Returns a valid token, waiting for a refresh if needed; null if authentication failed. */
+    public String getToken() {
+        CachedToken token = current;
+        if (token != null && !token.isExpired()) {
+            return token.value;
+        }
+        return refresh(token, false).join();
+    }
+
+    /**
+     * Called after the API rejected {@code rejectedToken}. Only the first caller
+     * holding that token triggers a refresh; the rest reuse its result.
+     */
+    public String refreshAfterRejection(String rejectedToken) {
+        CachedToken token = current;
+        if (token != null && !token.value.equals(rejectedToken) && !token.isExpired()) {
+            return token.value;
+        }
+        return refresh(token, false).join();
+    }
+
+    private CompletableFuture<String> refresh(CachedToken seen, boolean background) {
+        while (true) {
+            CompletableFuture<String> pending = inFlight.get();
+            if (pending != null) {
+                return pending;
+            }
+            CachedToken token = current;
+            if (token != seen && token != null && !token.isExpired()) {
+                // Someone else finished a refresh between our check and now
+                return CompletableFuture.completedFuture(token.value);
+            }
+            CompletableFuture<String> mine = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, mine)) {
+                try {
+                    mine.complete(fetchToken(background ? seen : null));
+                } finally {
+                    inFlight.set(null);
+                }
+                return mine;
+            }
+        }
+    }
+
+    // keep: the token a background refresh is replacing, kept while still valid if the refresh fails
+    private String fetchToken(CachedToken keep) {
+        long startTime = System.nanoTime();
+        String token = null;
+        try {
+            Response response = httpClientPools.engine(SITE).send(Request.post(baseUrl + "/auth", "application/json",
+                    CREDENTIALS.getBytes(StandardCharsets.UTF_8)));
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Unexpected status code: " + response.statusCode());
+            }
+            JsonNode json = MAPPER.readTree(response.body()).path("token");
+            token = json.isTextual() ? json.asText() : null;
+            System.out.println("Auth token obtained: " + token);
+        } catch (Exception e) {
+            System.err.println("Failed to get auth token: " + e.getMessage());
+        }
+
+        long latency = System.nanoTime() - startTime;
+        lastRefreshNanos = latency;
+        totalRefreshNanos.addAndGet(latency);
+        maxRefreshNanos.accumulateAndGet(latency, Math::max);
+        refreshCount.incrementAndGet();
+
+        if (token == null || token.isEmpty()) {
+            failedRefreshCount.incrementAndGet();
+            if (keep != null && current == keep && !keep.isExpired()) {
+                // The old token still works: keep serving it and retry before it runs out
+                long retryIn = Math.min((refreshAheadNanos / 8) << Math.min(backgroundFailures++, 16),
+                        keep.expiresAt - System.nanoTime());
+                scheduler.schedule(() -> refreshInBackground(keep), retryIn, TimeUnit.NANOSECONDS);
+                return keep.value;
+            }
+            current = null;
+            return null;
+        }
+        backgroundFailures = 0;
+        CachedToken cached = new CachedToken(token, System.nanoTime() + ttlNanos);
+        current = cached;
+        scheduler.schedule(() -> refreshInBackground(cached), ttlNanos - refreshAheadNanos, TimeUnit.NANOSECONDS);
+        return token;
+    }
+
+    private void refreshInBackground(CachedToken scheduledFor) {
+        // A 403 retry may already have replaced the token this refresh was scheduled for
+        if (current == scheduledFor) {
+            refresh(scheduledFor, true);
+        }
+    }
+
+    public AuthMetrics getMetrics() {
+        AuthMetrics metrics = new AuthMetrics();
+        long refreshes = refreshCount.get();
+        metrics.setRefreshCount(refreshes);
+        metrics.setFailedRefreshCount(failedRefreshCount.get());
+        metrics.setLastRefreshLatency(TimeUnit.NANOSECONDS.toMillis(lastRefreshNanos));
+        metrics.setMaxRefreshLatency(TimeUnit.NANOSECONDS.toMillis(maxRefreshNanos.get()));
+        metrics.setAverageRefreshLatency(refreshes == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalRefreshNanos.get() / refreshes));
+        CachedToken token = current;
+        metrics.setTokenValid(token != null && !token.isExpired());
+        metrics.setTokenExpiresIn(token == null ? 0 : Math.max(0, TimeUnit.NANOSECONDS.toMillis(token.expiresAt - System.nanoTime())));
+        return metrics;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private record CachedToken(String value, long expiresAt) {
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt >= 0;
+        }
+    }
+}
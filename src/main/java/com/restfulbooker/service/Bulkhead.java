@@ -0,0 +1,112 @@
+package com.restfulbooker.service;
+
+import com.restfulbooker.model.BulkheadStats;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One site's budget of concurrent tests. Up to maxConcurrency tests run at
+ * once; up to maxQueue more wait, first come first served, for at most
+ * maxWait. Anything beyond that is rejected straight away, so a site that
+ * has slowed down fills its own queue instead of holding threads and
+ * connections every other site needs. Tests run on virtual threads, so the
+ * permits are the whole budget; a waiting test costs no platform thread.
+ */
+public class Bulkhead {
+
+    private final String site;
+    private final int maxConcurrency;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger maxQueued = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+
+    public Bulkhead(String site, int maxConcurrency, int maxQueue, Duration maxWait) {
+        this.site = site;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(this.maxConcurrency, true);
+    }
+
+    /**
+     * Takes a permit, waiting in the queue if there is room; false if the
+     * test was rejected because the queue was full or the wait timed out.
+     * Every successful call must be paired with {@link #release}.
+     */
+    public boolean acquire() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        int waiting = queued.incrementAndGet();
+        try {
+            if (waiting > maxQueue) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            maxQueued.accumulateAndGet(waiting, Math::max);
+            if (permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            timedOut.incrementAndGet();
+            rejected.incrementAndGet();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.incrementAndGet();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        completed.incrementAndGet();
+        permits.release();
+    }
+
+    public String getSite() {
+        return site;
+    }
+
+    public int getActive() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return Math.max(0, queued.get());
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /** Why the last caller was turned away, for the result shown in its place. */
+    public String rejection() {
+        return "Rejected by the " + site + " bulkhead: " + getActive() + " of " + maxConcurrency + " running, "
+                + getQueued() + " of " + maxQueue + " queued";
+    }
+
+    public BulkheadStats getStats() {
+        BulkheadStats stats = new BulkheadStats();
+        stats.setMaxConcurrency(maxConcurrency);
+        stats.setMaxQueue(maxQueue);
+        stats.setMaxWait(TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+        stats.setActive(getActive());
+        stats.setQueued(getQueued());
+        stats.setMaxQueued(maxQueued.get());
+        stats.setRejected(rejected.get());
+        stats.setTimedOut(timedOut.get());
+        stats.setCompleted(completed.get());
+        return stats;
+    }
+}
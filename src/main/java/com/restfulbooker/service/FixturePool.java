@@ -0,0 +1,276 @@
+package com.restfulbooker.service;
+
+import com.restfulbooker.model.FixturePoolStats;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.spec.ExecutionPlan;
+import com.restfulbooker.spec.FixtureSource;
+import com.restfulbooker.spec.SpecEngine;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps ready-made fixtures (bookings, pets, orders, users) so mutation
+ * tests only time the request under test. Each pooled fixture test
+ * (fixture.pool.tests) gets up to fixture.pool.size fixtures, made ahead
+ * of time by one background thread that creates at most
+ * fixture.pool.refill-rate fixtures per second across all pools.
+ * <p>
+ * A lease takes the oldest ready fixture off a lock-free queue. Fixtures
+ * older than fixture.pool.max-age are evicted rather than leased, since the
+ * target API may have purged them by then (restful-booker resets its data
+ * every ten minutes). When no fixture is ready the lease misses and the
+ * test runs the fixture itself, as it would without a pool.
+ * <p>
+ * Evicted fixtures are deleted from the target API by the refill thread,
+ * using the site's DELETE test that takes the pooled test as its fixture,
+ * so a long-running pool doesn't leave resources behind. A pool whose
+ * refill fails backs off, doubling the wait after each failure up to
+ * {@value #MAX_BACKOFF_SECONDS}s, so a down API isn't hit at the full refill rate.
+ */
+@Component
+public class FixturePool implements FixtureSource {
+
+    static final int MAX_BACKOFF_SECONDS = 60;
+
+    private final SpecEngine specEngine;
+    private final int size;
+    private final long refillIntervalNanos;
+    private final long maxAgeNanos;
+    private final Map<String, Pool> pools = new LinkedHashMap<>();
+    // Evicted fixtures waiting to be deleted by the refill thread
+    private final ConcurrentLinkedQueue<Evicted> evicted = new ConcurrentLinkedQueue<>();
+
+    // Released by leases so the refill thread wakes up as soon as a pool runs low
+    private final Semaphore wakeups = new Semaphore(0);
+    private volatile Thread refiller;
+
+    public FixturePool(@Value("${fixture.pool.tests:create-booking,petstore-add-pet,petstore-place-order,petstore-create-user}") String[] tests,
+                       @Value("${fixture.pool.size:0}") int size,
+                       @Value("${fixture.pool.refill-rate:5}") double refillRate,
+                       @Value("${fixture.pool.max-age:5m}") Duration maxAge,
+                       SpecEngine specEngine) {
+        this.specEngine = specEngine;
+        this.size = Math.max(0, size);
+        this.refillIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / Math.max(0.001, refillRate));
+        this.maxAgeNanos = maxAge.toNanos();
+        for (String testId : tests) {
+            ExecutionPlan plan = specEngine.getPlan(testId.trim());
+            if (plan == null) {
+                System.err.println("Fixture pool: no test with id " + testId.trim());
+            } else {
+                ExecutionPlan cleanup = specEngine.getCleanupPlan(plan);
+                if (cleanup == null) {
+                    System.err.println("Fixture pool: no DELETE test takes " + plan.id() + " as its fixture; evicted fixtures stay on the API");
+                }
+                pools.put(plan.id(), new Pool(plan, cleanup));
+            }
+        }
+    }
+
+    /** Starts leasing and refilling once the application is up, so filling the pools doesn't delay startup. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (size == 0 || pools.isEmpty()) {
+            return;
+        }
+        specEngine.setFixtureSource(this);
+        refiller = Thread.ofVirtual().name("fixture-pool-refill").start(this::refillLoop);
+    }
+
+    @Override
+    public TestContext lease(ExecutionPlan plan) {
+        Pool pool = pools.get(plan.id());
+        if (pool == null) {
+            return null;
+        }
+        try {
+            Entry entry;
+            while ((entry = pool.ready.poll()) != null) {
+                pool.available.decrementAndGet();
+                if (!isStale(entry)) {
+                    pool.hits.incrementAndGet();
+                    return entry.context();
+                }
+                evict(pool, entry);
+            }
+            pool.misses.incrementAndGet();
+            return null;
+        } finally {
+            wakeups.release();
+        }
+    }
+
+    public List<FixturePoolStats> getStats() {
+        List<FixturePoolStats> stats = new ArrayList<>();
+        for (Pool pool : pools.values()) {
+            FixturePoolStats entry = new FixturePoolStats();
+            entry.setTestId(pool.plan.id());
+            entry.setReady(pool.available.get());
+            entry.setTarget(size);
+            entry.setHits(pool.hits.get());
+            entry.setMisses(pool.misses.get());
+            entry.setEvicted(pool.evicted.get());
+            entry.setDeleted(pool.deleted.get());
+            long refills = pool.refills.get();
+            entry.setRefills(refills);
+            entry.setFailedRefills(pool.failedRefills.get());
+            entry.setAverageRefillLatency(refills == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(pool.totalRefillNanos.get() / refills));
+            entry.setMaxRefillLatency(TimeUnit.NANOSECONDS.toMillis(pool.maxRefillNanos.get()));
+            stats.add(entry);
+        }
+        return stats;
+    }
+
+    private void refillLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Pool pool = mostDepleted();
+                Evicted stale = evicted.poll();
+                if (pool == null && stale == null) {
+                    wakeups.tryAcquire(idleWaitNanos(), TimeUnit.NANOSECONDS);
+                    wakeups.drainPermits();
+                    continue;
+                }
+                // Deletes and refills share the refill rate
+                long startTime = System.nanoTime();
+                if (stale != null) {
+                    delete(stale);
+                } else {
+                    refill(pool);
+                }
+                TimeUnit.NANOSECONDS.sleep(refillIntervalNanos - (System.nanoTime() - startTime));
+            }
+        } catch (InterruptedException e) {
+            // Shutting down
+        }
+    }
+
+    // Evicts stale fixtures from the head of every pool, then picks the one furthest below its target
+    // among those not backing off after a failed refill
+    private Pool mostDepleted() {
+        Pool mostDepleted = null;
+        long now = System.nanoTime();
+        for (Pool pool : pools.values()) {
+            Entry oldest;
+            while ((oldest = pool.ready.peek()) != null && isStale(oldest) && pool.ready.remove(oldest)) {
+                pool.available.decrementAndGet();
+                evict(pool, oldest);
+            }
+            if (pool.failures > 0 && now - pool.retryAt < 0) {
+                continue;
+            }
+            if (pool.available.get() < size && (mostDepleted == null || pool.available.get() < mostDepleted.available.get())) {
+                mostDepleted = pool;
+            }
+        }
+        return mostDepleted;
+    }
+
+    // Until the next pool backing off may retry, or a second if none is
+    private long idleWaitNanos() {
+        long now = System.nanoTime();
+        long wait = TimeUnit.SECONDS.toNanos(1);
+        for (Pool pool : pools.values()) {
+            if (pool.failures > 0) {
+                wait = Math.min(wait, Math.max(0, pool.retryAt - now));
+            }
+        }
+        return wait;
+    }
+
+    private void refill(Pool pool) {
+        TestContext context = new TestContext("fixture-pool");
+        long startTime = System.nanoTime();
+        TestResult result = specEngine.execute(pool.plan, context);
+        long elapsed = System.nanoTime() - startTime;
+        if (!"PASSED".equals(result.getStatus())) {
+            pool.failedRefills.incrementAndGet();
+            long backoff = Math.min(refillIntervalNanos << Math.min(pool.failures, 20), TimeUnit.SECONDS.toNanos(MAX_BACKOFF_SECONDS));
+            pool.failures++;
+            pool.retryAt = System.nanoTime() + backoff;
+            return;
+        }
+        pool.failures = 0;
+        pool.refills.incrementAndGet();
+        pool.totalRefillNanos.addAndGet(elapsed);
+        pool.maxRefillNanos.accumulateAndGet(elapsed, Math::max);
+        pool.ready.add(new Entry(context, System.nanoTime()));
+        pool.available.incrementAndGet();
+    }
+
+    // The caller has taken the entry off the ready queue and counted it out of available
+    private void evict(Pool pool, Entry entry) {
+        pool.evicted.incrementAndGet();
+        if (pool.cleanup != null) {
+            evicted.add(new Evicted(pool, entry.context()));
+            wakeups.release();
+        }
+    }
+
+    // Runs the DELETE test against the evicted fixture's variables, as if it had just made them
+    private void delete(Evicted stale) {
+        TestResult result = specEngine.execute(stale.pool().cleanup, stale.context(), i -> true);
+        if ("PASSED".equals(result.getStatus())) {
+            stale.pool().deleted.incrementAndGet();
+        } else {
+            System.err.println("Fixture pool: couldn't delete an evicted " + stale.pool().plan.id() + " fixture: " + result.getMessage());
+        }
+    }
+
+    private boolean isStale(Entry entry) {
+        return System.nanoTime() - entry.createdAt() > maxAgeNanos;
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = refiller;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private record Entry(TestContext context, long createdAt) {
+    }
+
+    private record Evicted(Pool pool, TestContext context) {
+    }
+
+    private static final class Pool {
+        private final ExecutionPlan plan;
+        private final ExecutionPlan cleanup;
+        private final ConcurrentLinkedQueue<Entry> ready = new ConcurrentLinkedQueue<>();
+        // The queue's own size() walks every node
+        private final AtomicInteger available = new AtomicInteger();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong evicted = new AtomicLong();
+        private final AtomicLong deleted = new AtomicLong();
+        private final AtomicLong refills = new AtomicLong();
+        private final AtomicLong failedRefills = new AtomicLong();
+        private final AtomicLong totalRefillNanos = new AtomicLong();
+        private final AtomicLong maxRefillNanos = new AtomicLong();
+        // Only touched by the refill thread
+        private int failures;
+        private long retryAt;
+
+        Pool(ExecutionPlan plan, ExecutionPlan cleanup) {
+            this.plan = plan;
+            this.cleanup = cleanup;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.restfulbooker.service;
+
+import com.restfulbooker.metrics.TestMetrics;
+import com.restfulbooker.model.LoadReport;
+import com.restfulbooker.model.PhaseTimings;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Drives a dashboard test at a fixed arrival rate (open loop). Each request has
+ * an intended start time on a fixed schedule and its latency is measured from
+ * that time, not from when it actually got a thread or connection. A stalled
+ * target therefore shows up as queueing delay instead of silently lowering
+ * the request rate (coordinated omission). Time a test spends creating its
+ * fixtures is taken out, so the latency is that of the request under test
+ * plus any wait before it could be sent.
+ */
+@Service
+public class LoadTestService {
+
+    private static final long SNAPSHOT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired
+    private TestCatalog catalog;
+
+    @Autowired
+    private TestMetrics testMetrics;
+
+    @Autowired
+    private SiteRegistry sites;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Runs the load and blocks until every request has completed. {@code onSnapshot}
+     * receives a cumulative report every second; returning false stops the run early.
+     */
+    public LoadReport run(String testId, int rps, int durationSeconds, int concurrency, Predicate<LoadReport> onSnapshot) {
+        Function<TestContext, TestResult> test = catalog.getTest(testId);
+        Bulkhead bulkhead = sites.bulkhead(catalog.getSite(testId));
+        return run(testId, context -> {
+            // Within the site's bulkhead, like every other test run
+            if (!bulkhead.acquire()) {
+                throw new IllegalStateException(bulkhead.rejection());
+            }
+            TestResult result;
+            try {
+                result = test.apply(context);
+            } finally {
+                bulkhead.release();
+            }
+            testMetrics.record(testId, result);
+            return result;
+        }, rps, durationSeconds, concurrency, onSnapshot);
+    }
+
+    /** Runs the load against {@code test}, which is called with a fresh context for every request. */
+    public LoadReport run(String testId, Function<TestContext, TestResult> test, int rps, int durationSeconds, int concurrency,
+                          Predicate<LoadReport> onSnapshot) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long totalRequests = (long) rps * durationSeconds;
+
+        Recorder recorder = new Recorder(3);
+        Histogram cumulative = new Histogram(3);
+        Histogram interval = null;
+        AtomicLong sent = new AtomicLong();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicBoolean stopped = new AtomicBoolean();
+        Semaphore permits = new Semaphore(concurrency);
+
+        long startTime = System.nanoTime();
+        long nextSnapshot = startTime + SNAPSHOT_INTERVAL_NANOS;
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (long i = 0; i < totalRequests && !stopped.get(); i++) {
+            long intendedStart = startTime + i * intervalNanos;
+            while (true) {
+                long now = System.nanoTime();
+                if (now >= nextSnapshot) {
+                    interval = recorder.getIntervalHistogram(interval);
+                    cumulative.add(interval);
+                    stopped.set(!onSnapshot.test(report(testId, rps, concurrency, startTime, cumulative, sent, completed, errors)));
+                    nextSnapshot += SNAPSHOT_INTERVAL_NANOS;
+                }
+                if (now >= intendedStart) {
+                    break;
+                }
+                LockSupport.parkNanos(Math.min(intendedStart, nextSnapshot) - now);
+            }
+
+            sent.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                inFlight.incrementAndGet();
+                long fixtureSetup = 0;
+                try {
+                    TestResult result = test.apply(new TestContext());
+                    PhaseTimings phases = result.getPhases();
+                    fixtureSetup = phases != null ? phases.getFixtureSetup() : 0;
+                    if (!"PASSED".equals(result.getStatus())) {
+                        errors.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                } finally {
+                    inFlight.decrementAndGet();
+                    permits.release();
+                    long latency = Math.max(0, System.nanoTime() - intendedStart - fixtureSetup);
+                    recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(latency));
+                    completed.incrementAndGet();
+                }
+            });
+        }
+
+        // Keep reporting while the last requests drain
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(nextSnapshot - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                interval = recorder.getIntervalHistogram(interval);
+                cumulative.add(interval);
+                if (!onSnapshot.test(report(testId, rps, concurrency, startTime, cumulative, sent, completed, errors))) {
+                    executor.shutdownNow();
+                }
+                nextSnapshot += SNAPSHOT_INTERVAL_NANOS;
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        cumulative.add(recorder.getIntervalHistogram(interval));
+        LoadReport report = report(testId, rps, concurrency, startTime, cumulative, sent, completed, errors);
+        report.setFinished(true);
+        return report;
+    }
+
+    /** Requests of all load runs currently executing. */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private static LoadReport report(String testId, int rps, int concurrency, long startTime, Histogram latencies,
+                                     AtomicLong sent, AtomicLong completed, AtomicLong errors) {
+        long elapsedNanos = System.nanoTime() - startTime;
+        long done = completed.get();
+
+        LoadReport report = new LoadReport();
+        report.setTestId(testId);
+        report.setTargetRps(rps);
+        report.setConcurrency(concurrency);
+        report.setElapsed(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        report.setSent(sent.get());
+        report.setCompleted(done);
+        report.setErrors(errors.get());
+        report.setErrorRate(done == 0 ? 0 : (double) errors.get() / done);
+        report.setAchievedRps(done * 1e9 / elapsedNanos);
+        report.setP50(toMillis(latencies.getValueAtPercentile(50)));
+        report.setP90(toMillis(latencies.getValueAtPercentile(90)));
+        report.setP99(toMillis(latencies.getValueAtPercentile(99)));
+        report.setP999(toMillis(latencies.getValueAtPercentile(99.9)));
+        report.setMax(toMillis(latencies.getMaxValue()));
+        return report;
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,144 @@
+package com.restfulbooker.service;
+
+import com.restfulbooker.model.SiteInfo;
+import com.restfulbooker.model.SiteTest;
+import com.restfulbooker.spec.ExecutionPlan;
+import com.restfulbooker.spec.SiteSpec;
+import com.restfulbooker.spec.SpecEngine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The sites under test: the ones whose specs were loaded at startup plus
+ * any registered later through {@link #register}, each with its base URL,
+ * auth strategy, tests and its own {@link Bulkhead}. Bulkhead sizes come
+ * from the spec's {@code bulkhead} block, falling back to the
+ * site.bulkhead.* properties.
+ */
+@Component
+public class SiteRegistry {
+
+    private final SpecEngine specEngine;
+    private final TestCatalog catalog;
+    private final MeterRegistry meterRegistry;
+    private final WarmupService warmupService;
+    private final int defaultMaxConcurrency;
+    private final int defaultMaxQueue;
+    private final Duration defaultMaxWait;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public SiteRegistry(SpecEngine specEngine, TestCatalog catalog, MeterRegistry meterRegistry, WarmupService warmupService,
+                        @Value("${site.bulkhead.max-concurrency:8}") int maxConcurrency,
+                        @Value("${site.bulkhead.max-queue:64}") int maxQueue,
+                        @Value("${site.bulkhead.max-wait:30s}") Duration maxWait) {
+        this.specEngine = specEngine;
+        this.catalog = catalog;
+        this.meterRegistry = meterRegistry;
+        this.warmupService = warmupService;
+        this.defaultMaxConcurrency = maxConcurrency;
+        this.defaultMaxQueue = maxQueue;
+        this.defaultMaxWait = maxWait;
+        for (String site : specEngine.getSites().keySet()) {
+            bulkhead(site);
+        }
+    }
+
+    /**
+     * Compiles and adds a site from an untrusted spec, see
+     * {@link SpecEngine#registerSite}; its tests can run as soon as this
+     * returns, and it is warmed up in the background.
+     */
+    public synchronized SiteInfo register(SiteSpec spec) {
+        if (spec.site() == null) {
+            throw new IllegalStateException("A spec needs a site and a baseUrl");
+        }
+        // In place before the site is published, so a test that starts right away
+        // finds this bulkhead instead of creating and metering another
+        Bulkhead bulkhead = createBulkhead(spec.site(), spec);
+        if (bulkheads.putIfAbsent(spec.site(), bulkhead) != null) {
+            throw new IllegalStateException("Site " + spec.site() + " is defined by more than one spec");
+        }
+        List<ExecutionPlan> plans;
+        try {
+            plans = specEngine.registerSite(spec);
+        } catch (RuntimeException e) {
+            bulkheads.remove(spec.site(), bulkhead);
+            throw e;
+        }
+        registerMeters(bulkhead);
+        catalog.addSite(spec.site(), plans);
+        warmupService.warmUpInBackground(spec.site());
+        System.out.println("Registered site " + spec.site() + " with " + plans.size() + " tests");
+        return describe(spec.site(), plans);
+    }
+
+    /** The site's bulkhead, created with its spec's sizes the first time it is needed. */
+    public Bulkhead bulkhead(String site) {
+        Bulkhead bulkhead = bulkheads.get(site);
+        return bulkhead != null ? bulkhead
+                : bulkheads.computeIfAbsent(site, name -> registerMeters(createBulkhead(name, specEngine.getSiteSpec(name))));
+    }
+
+    public List<SiteInfo> getSites() {
+        List<SiteInfo> sites = new ArrayList<>();
+        specEngine.getSites().forEach((site, plans) -> sites.add(describe(site, plans)));
+        return sites;
+    }
+
+    public SiteInfo getSite(String site) {
+        List<ExecutionPlan> plans = specEngine.getSites().get(site);
+        return plans != null ? describe(site, plans) : null;
+    }
+
+    private SiteInfo describe(String site, List<ExecutionPlan> plans) {
+        SiteSpec spec = specEngine.getSiteSpec(site);
+        SiteInfo info = new SiteInfo();
+        info.setSite(site);
+        info.setBaseUrl(specEngine.getBaseUrl(site));
+        info.setAuth(spec.auth() == null ? "none" : spec.auth().token() != null ? "token" : "login");
+        List<SiteTest> tests = new ArrayList<>(plans.size());
+        for (ExecutionPlan plan : plans) {
+            SiteTest test = new SiteTest();
+            test.setId(plan.id());
+            test.setName(plan.name());
+            test.setMethod(plan.method().name());
+            tests.add(test);
+        }
+        info.setTests(tests);
+        info.setBulkhead(bulkhead(site).getStats());
+        return info;
+    }
+
+    private Bulkhead createBulkhead(String site, SiteSpec spec) {
+        SiteSpec.Bulkhead sizes = spec != null ? spec.bulkhead() : null;
+        try {
+            return new Bulkhead(site,
+                    sizes != null && sizes.maxConcurrency() != null ? sizes.maxConcurrency() : defaultMaxConcurrency,
+                    sizes != null && sizes.maxQueue() != null ? sizes.maxQueue() : defaultMaxQueue,
+                    sizes != null && sizes.maxWait() != null ? DurationStyle.detectAndParse(sizes.maxWait()) : defaultMaxWait);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Site " + site + ": bad bulkhead.maxWait: " + e.getMessage(), e);
+        }
+    }
+
+    private Bulkhead registerMeters(Bulkhead bulkhead) {
+        String site = bulkhead.getSite();
+        Gauge.builder("site.bulkhead.active", bulkhead, Bulkhead::getActive)
+                .tag("site", site).description("Tests holding a permit of the site's bulkhead").register(meterRegistry);
+        Gauge.builder("site.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+                .tag("site", site).description("Tests waiting for a permit of the site's bulkhead").register(meterRegistry);
+        FunctionCounter.builder("site.bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                .tag("site", site).description("Tests turned away by the site's bulkhead").register(meterRegistry);
+        return bulkhead;
+    }
+}
@@ -0,0 +1,234 @@
+package com.restfulbooker.service;
+
+import com.restfulbooker.model.SuiteProgress;
+import com.restfulbooker.model.SuiteReport;
+import com.restfulbooker.model.TestResult;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans the events of a suite run out to any number of watchers. A run's
+ * events are recorded once, so a dashboard that connects late gets the
+ * results it missed, and extra watchers cost one queue each rather than
+ * another run.
+ * <p>
+ * Publishing never blocks on a watcher. Each watcher has its own bounded
+ * queue of live events drained by its own thread; progress events replace
+ * the one still waiting to be sent, and a watcher that falls more than
+ * {@link #MAX_QUEUED_EVENTS} results behind is disconnected so it can
+ * reconnect and replay instead of holding memory for the whole run. Replay
+ * reads the recorded results in place, so it isn't bounded by the queue.
+ */
+@Component
+public class SuiteRunEvents {
+
+    public static final String RESULT = "result";
+    public static final String PROGRESS = "progress";
+    public static final String REPORT = "report";
+
+    private static final int MAX_QUEUED_EVENTS = 256;
+    private static final int RETAINED_RUNS = 50;
+
+    /** Receives a watcher's events in order; returning false ends the subscription. */
+    public interface EventSink {
+        boolean send(String event, Object data);
+
+        void close();
+    }
+
+    private final Map<String, Channel> runs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Channel> eldest) {
+            return size() > RETAINED_RUNS;
+        }
+    });
+
+    public void open(SuiteProgress progress) {
+        Channel channel = new Channel();
+        channel.publish(new Event(PROGRESS, progress));
+        runs.put(progress.getRunId(), channel);
+    }
+
+    public void publishResult(String runId, TestResult result, SuiteProgress progress) {
+        Channel channel = runs.get(runId);
+        if (channel != null) {
+            channel.publish(new Event(RESULT, result));
+            channel.publish(new Event(PROGRESS, progress));
+        }
+    }
+
+    public void finish(String runId, SuiteReport report) {
+        Channel channel = runs.get(runId);
+        if (channel != null) {
+            channel.publish(new Event(REPORT, report));
+        }
+    }
+
+    /**
+     * Replays the run so far to {@code sink} and keeps it updated until the
+     * report is sent. Returns a handle that cancels the subscription, or null
+     * if the run is unknown.
+     */
+    public Runnable subscribe(String runId, EventSink sink) {
+        Channel channel = runs.get(runId);
+        if (channel == null) {
+            return null;
+        }
+        Subscriber subscriber = new Subscriber(sink);
+        int replay = channel.subscribe(subscriber);
+        Thread.ofVirtual().name("suite-events-" + runId).start(() -> subscriber.drain(channel, replay));
+        return subscriber::close;
+    }
+
+    private record Event(String name, Object data) {
+    }
+
+    private static class Channel {
+        private final List<Event> results = new ArrayList<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private Event progress;
+        private Event report;
+
+        synchronized void publish(Event event) {
+            switch (event.name()) {
+                case PROGRESS -> progress = event;
+                case REPORT -> report = event;
+                default -> results.add(event);
+            }
+            subscribers.forEach(subscriber -> subscriber.offer(event));
+            if (report != null) {
+                subscribers.clear();
+            }
+        }
+
+        // Returns how many recorded results the subscriber has to replay before its live events
+        synchronized int subscribe(Subscriber subscriber) {
+            if (progress != null) {
+                subscriber.offer(progress);
+            }
+            if (report != null) {
+                subscriber.offer(report);
+            } else {
+                subscribers.add(subscriber);
+            }
+            return results.size();
+        }
+
+        synchronized Event result(int index) {
+            return results.get(index);
+        }
+
+        synchronized void unsubscribe(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private static class Subscriber {
+        private final EventSink sink;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition ready = lock.newCondition();
+        private final ArrayDeque<Event> queue = new ArrayDeque<>();
+        private Event progress;
+        private boolean closed;
+
+        Subscriber(EventSink sink) {
+            this.sink = sink;
+        }
+
+        void offer(Event event) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                if (event.name().equals(PROGRESS)) {
+                    progress = event;
+                } else if (queue.size() >= MAX_QUEUED_EVENTS) {
+                    System.err.println("Disconnecting slow suite run watcher after " + queue.size() + " queued events");
+                    closed = true;
+                } else {
+                    queue.add(event);
+                }
+                ready.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                ready.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void drain(Channel channel, int replay) {
+            try {
+                for (int i = 0; i < replay; i++) {
+                    Event result = channel.result(i);
+                    if (isClosed() || !sink.send(result.name(), result.data())) {
+                        return;
+                    }
+                }
+                Event event;
+                while ((event = next()) != null) {
+                    if (!sink.send(event.name(), event.data())) {
+                        break;
+                    }
+                    if (event.name().equals(REPORT)) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+                channel.unsubscribe(this);
+                sink.close();
+            }
+        }
+
+        private boolean isClosed() {
+            lock.lock();
+            try {
+                return closed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Results go out in order; the latest progress goes out whenever the
+        // queue is empty, and always before the report so the final count is seen
+        private Event next() throws InterruptedException {
+            lock.lock();
+            try {
+                while (!closed && queue.isEmpty() && progress == null) {
+                    ready.await();
+                }
+                if (closed) {
+                    return null;
+                }
+                Event head = queue.peek();
+                if (progress != null && (head == null || head.name().equals(REPORT))) {
+                    Event latest = progress;
+                    progress = null;
+                    return latest;
+                }
+                return queue.poll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
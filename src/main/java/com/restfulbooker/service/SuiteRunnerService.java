@@ -0,0 +1,306 @@
+package com.restfulbooker.service;
+
+import com.restfulbooker.model.SuiteProgress;
+import com.restfulbooker.model.SuiteReport;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.spec.SpecEngine;
+import com.restfulbooker.spec.SuiteGraph;
+import com.restfulbooker.spec.SuiteGraph.Node;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+public class SuiteRunnerService {
+
+    @Autowired
+    private TestCatalog catalog;
+
+    @Autowired
+    private SuiteRunEvents events;
+
+    @Autowired
+    private TestExecutor testExecutor;
+
+    @Autowired
+    private SpecEngine specEngine;
+
+    @Autowired
+    private SiteRegistry sites;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SuiteReport runSuite(String site) {
+        SuiteGraph graph = catalog.getGraph(site);
+        if (graph == null) {
+            return null;
+        }
+        return execute(open(site, graph), graph);
+    }
+
+    /**
+     * Starts a suite run in the background and returns its initial progress;
+     * the run's events can be followed through {@link SuiteRunEvents}.
+     */
+    public SuiteProgress startSuite(String site) {
+        SuiteGraph graph = catalog.getGraph(site);
+        if (graph == null) {
+            return null;
+        }
+        SuiteProgress progress = open(site, graph);
+        executor.submit(() -> execute(progress, graph));
+        return progress;
+    }
+
+    private SuiteProgress open(String site, SuiteGraph graph) {
+        SuiteProgress progress = new SuiteProgress();
+        progress.setRunId(UUID.randomUUID().toString());
+        progress.setSite(site);
+        progress.setTotal(graph.tests().size());
+        events.open(progress);
+        return progress;
+    }
+
+    // Each node of the graph starts as soon as the fixtures it depends on are done,
+    // so independent branches run in parallel, bounded by the site's bulkhead.
+    private SuiteReport execute(SuiteProgress initial, SuiteGraph graph) {
+        String runId = initial.getRunId();
+        long startTime = System.currentTimeMillis();
+        RunTally tally = new RunTally(initial, startTime);
+        // Every node's future exists before any node is scheduled, so node runs only ever read a finished list
+        List<CompletableFuture<NodeRun>> runs = Stream.generate(CompletableFuture<NodeRun>::new)
+                .limit(graph.nodes().size())
+                .toList();
+        for (Node node : graph.nodes()) {
+            CompletableFuture<?>[] dependencies = node.dependencies().stream()
+                    .map(dependency -> runs.get(dependency.index()))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture<NodeRun> nodeRun = runs.get(node.index());
+            CompletableFuture.allOf(dependencies)
+                    .handleAsync((done, failure) -> run(node, runs, runId, tally), executor)
+                    .whenComplete((result, failure) -> {
+                        if (failure != null) {
+                            nodeRun.completeExceptionally(failure);
+                        } else {
+                            nodeRun.complete(result);
+                        }
+                    });
+        }
+
+        List<TestResult> results = new ArrayList<>(graph.tests().size());
+        for (Node test : graph.tests()) {
+            results.add(await(test.plan().id(), runs.get(test.index())));
+        }
+
+        SuiteReport report = new SuiteReport();
+        report.setRunId(runId);
+        report.setSite(initial.getSite());
+        report.setResults(results);
+        report.setWallClockDuration(System.currentTimeMillis() - startTime);
+        report.setTotal(results.size());
+        for (TestResult result : results) {
+            if ("PASSED".equals(result.getStatus())) {
+                report.setPassed(report.getPassed() + 1);
+            } else if ("SKIPPED".equals(result.getStatus())) {
+                report.setSkipped(report.getSkipped() + 1);
+            } else {
+                report.setFailed(report.getFailed() + 1);
+            }
+            report.setSummedDuration(report.getSummedDuration() + result.getDuration());
+        }
+        reportCriticalPath(graph, runs, report);
+        events.finish(runId, report);
+        return report;
+    }
+
+    // Every node gets its own context, seeded with the variables of the fixtures it depends on;
+    // fixture nodes are run directly, tests through the executor so their results are recorded.
+    private NodeRun run(Node node, List<CompletableFuture<NodeRun>> runs, String runId, RunTally tally) {
+        TestContext context = new TestContext(runId);
+        List<Node> dependencies = node.dependencies();
+        boolean[] fixturePassed = new boolean[dependencies.size()];
+        TestResult skippedFixture = null;
+        for (int i = 0; i < fixturePassed.length; i++) {
+            NodeRun fixture = completed(runs.get(dependencies.get(i).index()));
+            fixturePassed[i] = fixture != null && "PASSED".equals(fixture.result().getStatus());
+            if (fixturePassed[i]) {
+                context.putAll(fixture.context());
+            } else if (fixture != null && "SKIPPED".equals(fixture.result().getStatus())) {
+                skippedFixture = fixture.result();
+            }
+        }
+        String testId = node.plan().id();
+        if (!node.isTest()) {
+            TestContext leased = specEngine.leaseFixture(node.plan());
+            if (leased != null) {
+                context.putAll(leased);
+                return new NodeRun(leasedResult(testId), context, 0);
+            }
+        }
+        // A fixture turned away by an open circuit breaker skips everything that needs it
+        String skipped = skippedFixture != null ? skippedFixture.getMessage() : null;
+        Function<TestContext, TestResult> test = skipped != null
+                ? ctx -> skippedResult(node.plan().name(), skipped)
+                : ctx -> specEngine.execute(node.plan(), ctx, i -> fixturePassed[i]);
+
+        TestResult result;
+        long start = System.nanoTime();
+        try {
+            result = node.isTest() ? testExecutor.run(testId, test, context) : runFixture(node, test, context);
+        } catch (Exception e) {
+            result = errorResult(testId, "Exception: " + e.getMessage());
+        }
+        long elapsed = System.nanoTime() - start;
+        if (node.isTest()) {
+            events.publishResult(runId, result, tally.record(result));
+        }
+        return new NodeRun(result, context, elapsed);
+    }
+
+    // Tests go through the executor, which holds the bulkhead for them; fixtures are run here
+    private TestResult runFixture(Node node, Function<TestContext, TestResult> fixture, TestContext context) {
+        Bulkhead bulkhead = sites.bulkhead(node.plan().site());
+        if (!bulkhead.acquire()) {
+            return errorResult(node.plan().id(), bulkhead.rejection());
+        }
+        try {
+            return fixture.apply(context);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    // Critical path: the longest chain of dependent node runs, the shortest the run could take
+    // with unlimited parallelism. Total work: every node run, fixtures included, added up.
+    private static void reportCriticalPath(SuiteGraph graph, List<CompletableFuture<NodeRun>> runs, SuiteReport report) {
+        List<Node> nodes = graph.nodes();
+        long[] finish = new long[nodes.size()];
+        int[] previous = new int[nodes.size()];
+        long totalWork = 0;
+        int last = -1;
+        for (Node node : nodes) {
+            NodeRun run = completed(runs.get(node.index()));
+            long elapsed = run != null ? run.elapsed() : 0;
+            previous[node.index()] = -1;
+            long start = 0;
+            for (Node dependency : node.dependencies()) {
+                if (finish[dependency.index()] > start) {
+                    start = finish[dependency.index()];
+                    previous[node.index()] = dependency.index();
+                }
+            }
+            finish[node.index()] = start + elapsed;
+            totalWork += elapsed;
+            if (last < 0 || finish[node.index()] > finish[last]) {
+                last = node.index();
+            }
+        }
+
+        List<String> path = new ArrayList<>();
+        for (int index = last; index >= 0; index = previous[index]) {
+            path.add(nodes.get(index).label());
+        }
+        Collections.reverse(path);
+        report.setCriticalPath(path);
+        report.setCriticalPathDuration(last >= 0 ? TimeUnit.NANOSECONDS.toMillis(finish[last]) : 0);
+        report.setTotalWork(TimeUnit.NANOSECONDS.toMillis(totalWork));
+        report.setFixtureRuns(graph.fixtureCount());
+    }
+
+    private static NodeRun completed(CompletableFuture<NodeRun> run) {
+        return run.isDone() && !run.isCompletedExceptionally() ? run.join() : null;
+    }
+
+    private TestResult await(String testId, Future<NodeRun> future) {
+        try {
+            return future.get().result();
+        } catch (Exception e) {
+            return errorResult(testId, "Exception: " + e.getMessage());
+        }
+    }
+
+    private static TestResult leasedResult(String testId) {
+        TestResult result = new TestResult();
+        result.setTestId(testId);
+        result.setTestName(testId);
+        result.setStatus("PASSED");
+        result.setMessage("Leased from the fixture pool");
+        return result;
+    }
+
+    private static TestResult skippedResult(String testName, String message) {
+        TestResult result = new TestResult();
+        result.setTestName(testName);
+        result.setStatus("SKIPPED");
+        result.setMessage(message);
+        return result;
+    }
+
+    private static TestResult errorResult(String testId, String message) {
+        TestResult result = new TestResult();
+        result.setTestId(testId);
+        result.setTestName(testId);
+        result.setStatus("ERROR");
+        result.setMessage(message);
+        return result;
+    }
+
+    private record NodeRun(TestResult result, TestContext context, long elapsed) {
+    }
+
+    // Running totals for progress events; each event gets its own snapshot
+    // because watchers serialize it later on their own threads.
+    private static class RunTally {
+        private final SuiteProgress initial;
+        private final long startTime;
+        private int completed;
+        private int passed;
+        private int skipped;
+        private long summedDuration;
+
+        RunTally(SuiteProgress initial, long startTime) {
+            this.initial = initial;
+            this.startTime = startTime;
+        }
+
+        synchronized SuiteProgress record(TestResult result) {
+            completed++;
+            if ("PASSED".equals(result.getStatus())) {
+                passed++;
+            } else if ("SKIPPED".equals(result.getStatus())) {
+                skipped++;
+            }
+            summedDuration += result.getDuration();
+
+            SuiteProgress progress = new SuiteProgress();
+            progress.setRunId(initial.getRunId());
+            progress.setSite(initial.getSite());
+            progress.setTotal(initial.getTotal());
+            progress.setCompleted(completed);
+            progress.setPassed(passed);
+            progress.setFailed(completed - passed - skipped);
+            progress.setSkipped(skipped);
+            progress.setElapsed(System.currentTimeMillis() - startTime);
+            progress.setSummedDuration(summedDuration);
+            return progress;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,76 @@
+package com.restfulbooker.service;
+
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.spec.ExecutionPlan;
+import com.restfulbooker.spec.SpecEngine;
+import com.restfulbooker.spec.SuiteGraph;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Every dashboard test, grouped by site and keyed by the same id the
+ * /api/tests/{id} endpoint and index.html use. Tests come from the specs
+ * compiled by {@link SpecEngine}. Each suite also has a {@link SuiteGraph}
+ * of its tests and fixtures for suite runs. Sites registered at runtime
+ * are added through {@link SiteRegistry}.
+ */
+@Component
+public class TestCatalog {
+
+    @Autowired
+    private SpecEngine specEngine;
+
+    private final Map<String, Map<String, Function<TestContext, TestResult>>> suites = new ConcurrentHashMap<>();
+    private final Map<String, SuiteGraph> graphs = new ConcurrentHashMap<>();
+    private final Map<String, String> testSites = new ConcurrentHashMap<>();
+    // Site names in the order they were added
+    private final List<String> sites = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    void registerTests() {
+        specEngine.getSites().forEach(this::addSite);
+    }
+
+    synchronized void addSite(String site, List<ExecutionPlan> plans) {
+        Map<String, Function<TestContext, TestResult>> suite = new LinkedHashMap<>();
+        for (ExecutionPlan plan : plans) {
+            suite.put(plan.id(), context -> specEngine.execute(plan, context));
+            testSites.put(plan.id(), site);
+        }
+        suites.put(site, Collections.unmodifiableMap(suite));
+        graphs.put(site, SuiteGraph.of(plans));
+        sites.add(site);
+    }
+
+    public Map<String, Function<TestContext, TestResult>> getSuite(String site) {
+        return suites.get(site);
+    }
+
+    public SuiteGraph getGraph(String site) {
+        return graphs.get(site);
+    }
+
+    public Function<TestContext, TestResult> getTest(String testId) {
+        String site = testSites.get(testId);
+        return site != null ? suites.get(site).get(testId) : null;
+    }
+
+    /** The site a test belongs to; null if the test id is unknown. */
+    public String getSite(String testId) {
+        return testSites.get(testId);
+    }
+
+    public Iterable<String> getSites() {
+        return sites;
+    }
+}
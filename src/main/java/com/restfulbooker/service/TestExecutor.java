@@ -0,0 +1,80 @@
+package com.restfulbooker.service;
+
+import com.restfulbooker.body.ResponseBodies;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Service
+public class TestExecutor {
+
+    @Autowired
+    private TestCatalog catalog;
+
+    @Autowired
+    private ResponseBodies responseBodies;
+
+    @Autowired
+    private SiteRegistry sites;
+
+    @Autowired(required = false)
+    private List<TestResultListener> listeners = List.of();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /** Runs a single test with a fresh context; null if the test id is unknown. */
+    public TestResult run(String testId) {
+        Function<TestContext, TestResult> test = catalog.getTest(testId);
+        if (test == null) {
+            return null;
+        }
+        return run(testId, test, new TestContext());
+    }
+
+    /**
+     * Runs a test within its site's bulkhead. A test the bulkhead turns away
+     * comes back as an ERROR without being run, and isn't recorded.
+     */
+    public TestResult run(String testId, Function<TestContext, TestResult> test, TestContext context) {
+        String site = catalog.getSite(testId);
+        Bulkhead bulkhead = site != null ? sites.bulkhead(site) : null;
+        if (bulkhead != null && !bulkhead.acquire()) {
+            TestResult rejected = new TestResult();
+            rejected.setTestId(testId);
+            rejected.setTestName(testId);
+            rejected.setStatus("ERROR");
+            rejected.setMessage(bulkhead.rejection());
+            return rejected;
+        }
+        TestResult result;
+        inFlight.incrementAndGet();
+        try {
+            result = test.apply(context);
+        } finally {
+            inFlight.decrementAndGet();
+            if (bulkhead != null) {
+                bulkhead.release();
+            }
+        }
+        result.setTestId(testId);
+        responseBodies.retain(result);
+        for (TestResultListener listener : listeners) {
+            try {
+                listener.onResult(result, context);
+            } catch (Exception e) {
+                System.err.println("Result listener failed for " + testId + ": " + e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /** Tests started through this executor that haven't finished yet. */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
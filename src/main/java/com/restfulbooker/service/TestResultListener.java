@@ -0,0 +1,13 @@
+package com.restfulbooker.service;
+
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+
+/**
+ * Notified of every test result run through {@link TestExecutor}, whether the
+ * test was started on its own or as part of a suite run.
+ */
+public interface TestResultListener {
+
+    void onResult(TestResult result, TestContext context);
+}
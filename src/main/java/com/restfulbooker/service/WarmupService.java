@@ -0,0 +1,109 @@
+package com.restfulbooker.service;
+
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.http.HttpEngine.Request;
+import com.restfulbooker.http.HttpEngine.Response;
+import com.restfulbooker.model.SiteReadiness;
+import com.restfulbooker.spec.SiteSpec;
+import com.restfulbooker.spec.SpecEngine;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authenticates and opens pooled connections to each target API once the
+ * application is up, so the first dashboard click doesn't pay for a cold
+ * Heroku dyno or a fresh TLS handshake. Each site is warmed up with a GET
+ * of its base URL, which only fails on a 5xx or no response, after logging
+ * in first if the site uses the restful-booker login.
+ * Warm-up runs in the background by default; set warmup.blocking=true to
+ * finish it before the web server accepts requests. Sites registered later
+ * are warmed up in the background as they are added, and are reported but
+ * don't count towards {@link #isReady}.
+ */
+@Service
+public class WarmupService implements SmartInitializingSingleton {
+
+    @Autowired
+    private AuthTokenManager authTokens;
+
+    @Autowired
+    private HttpClientPools httpClientPools;
+
+    @Autowired
+    private SpecEngine specEngine;
+
+    @Value("${warmup.blocking:false}")
+    private boolean blocking;
+
+    private final Set<String> startupSites = new LinkedHashSet<>();
+    private final Map<String, SiteReadiness> readiness = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        startupSites.addAll(specEngine.getSites().keySet());
+        startupSites.forEach(site -> readiness.put(site, new SiteReadiness(site, "PENDING", "Waiting for startup", 0)));
+        if (blocking) {
+            startupSites.forEach(this::warmUp);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpInBackground() {
+        if (!blocking) {
+            startupSites.forEach(this::warmUpInBackground);
+        }
+    }
+
+    /** Warms up one site on a virtual thread of its own. */
+    public void warmUpInBackground(String site) {
+        readiness.put(site, new SiteReadiness(site, "PENDING", "Waiting for warm-up", 0));
+        Thread.ofVirtual().name("warmup-" + site).start(() -> warmUp(site));
+    }
+
+    private void warmUp(String site) {
+        readiness.put(site, new SiteReadiness(site, "WARMING", "Connecting", 0));
+        long startTime = System.currentTimeMillis();
+        try {
+            SiteSpec spec = specEngine.getSiteSpec(site);
+            if (spec.auth() != null && spec.auth().token() == null && authTokens.getToken() == null) {
+                throw new IllegalStateException("Authentication failed");
+            }
+            Response response = httpClientPools.engine(site).send(Request.get(specEngine.getBaseUrl(site)));
+            if (response.statusCode() >= 500) {
+                throw new IllegalStateException("Unexpected status code: " + response.statusCode());
+            }
+            long duration = System.currentTimeMillis() - startTime;
+            readiness.put(site, new SiteReadiness(site, "READY", "Warmed up in " + duration + "ms", duration));
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            System.err.println("Warm-up failed for " + site + ": " + e.getMessage());
+            readiness.put(site, new SiteReadiness(site, "FAILED", "Exception: " + e.getMessage(), duration));
+        }
+    }
+
+    public List<SiteReadiness> getReadiness() {
+        List<SiteReadiness> sites = new ArrayList<>();
+        for (String site : specEngine.getSites().keySet()) {
+            SiteReadiness state = readiness.get(site);
+            if (state != null) {
+                sites.add(state);
+            }
+        }
+        return sites;
+    }
+
+    public boolean isReady() {
+        return startupSites.stream().allMatch(site -> readiness.get(site).getState().equals("READY"));
+    }
+}
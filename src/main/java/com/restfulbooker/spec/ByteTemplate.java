@@ -0,0 +1,106 @@
+package com.restfulbooker.spec;
+
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.spec.Template.Builtin;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A request body template encoded once into UTF-8: all literal text sits in
+ * one byte array and each slot is an offset into it. Rendering copies the
+ * literal ranges into a {@link PayloadBuffer} and writes slot values in
+ * place, numbers as ASCII digits and ASCII strings byte by byte, so the only
+ * allocation per request is the exact-size copy the HTTP client sends.
+ * Templates without slots hand out their pre-encoded bytes as they are.
+ * <p>
+ * Only context variables, {@code $nextId} and {@code $now} can appear in a
+ * body; the other built-ins describe the response and don't exist yet. In a
+ * JSON body, variable values are escaped as JSON string content, so a value
+ * in a quoted slot can't close its quotes and add fields. An unquoted slot,
+ * such as {@code "id": {{petId}}}, is JSON text rather than a string: the
+ * value isn't checked and can be any literal, so it should only hold numbers
+ * the test extracted itself. A variable that isn't set fails the render
+ * instead of sending "null".
+ */
+public final class ByteTemplate {
+
+    private final byte[] literals;
+    // slotOffsets[i] is where slot i sits in literals; the last entry is literals.length
+    private final int[] slotOffsets;
+    private final String[] variables;
+    private final Builtin[] builtins;
+    private final boolean json;
+
+    private ByteTemplate(Template template, boolean json) {
+        this.json = json;
+        String[] parts = template.literals();
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        slotOffsets = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            encoded.writeBytes(parts[i].getBytes(StandardCharsets.UTF_8));
+            slotOffsets[i] = encoded.size();
+        }
+        literals = encoded.toByteArray();
+        variables = template.variables();
+        builtins = template.builtins();
+        for (int i = 0; i < builtins.length; i++) {
+            if (builtins[i] != null && builtins[i] != Builtin.NEXT_ID && builtins[i] != Builtin.NOW) {
+                throw new IllegalArgumentException("Placeholder " + variables[i] + " is not available in a request body");
+            }
+        }
+    }
+
+    /** Compiles a JSON body. */
+    public static ByteTemplate compile(String source) {
+        return compile(source, true);
+    }
+
+    public static ByteTemplate compile(String source, boolean json) {
+        return new ByteTemplate(Template.compile(source), json);
+    }
+
+    static ByteTemplate compileOrNull(String source, boolean json) {
+        return source != null ? compile(source, json) : null;
+    }
+
+    /** Renders into {@code out}, replacing whatever it held; throws if a variable isn't set. */
+    public void render(TestContext context, PayloadBuffer out) {
+        out.reset();
+        int start = 0;
+        for (int i = 0; i < variables.length; i++) {
+            out.write(literals, start, slotOffsets[i] - start);
+            start = slotOffsets[i];
+            Builtin builtin = builtins[i];
+            if (builtin == null) {
+                String value = context.get(variables[i]);
+                if (value == null) {
+                    throw new IllegalStateException("Variable " + variables[i] + " is not set");
+                }
+                if (json) {
+                    out.writeJsonString(value);
+                } else {
+                    out.writeString(value);
+                }
+            } else if (builtin == Builtin.NEXT_ID) {
+                out.writeLong(TestContext.nextId());
+            } else {
+                out.writeLong(System.currentTimeMillis());
+            }
+        }
+        out.write(literals, start, literals.length - start);
+    }
+
+    /**
+     * The rendered bytes, using {@code buffer} as scratch space. The array
+     * returned is shared when the template has no slots and must not be
+     * modified.
+     */
+    public byte[] renderBytes(TestContext context, PayloadBuffer buffer) {
+        if (variables.length == 0) {
+            return literals;
+        }
+        render(context, buffer);
+        return buffer.toByteArray();
+    }
+}
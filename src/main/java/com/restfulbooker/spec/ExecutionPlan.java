@@ -0,0 +1,40 @@
+package com.restfulbooker.spec;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import io.restassured.http.Method;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled test: everything {@link SpecEngine} needs to run it, resolved
+ * once at startup. The URL already carries the site's base URL and encoded
+ * query string, bodies are pre-encoded bytes with slot offsets, fixtures point
+ * straight at their plans and response fields at their JSON pointers.
+ * {@code policy} is null unless the test hedges or retries its request.
+ */
+public record ExecutionPlan(String site, String id, String name,
+                            List<Fixture> fixtures, List<Assignment> assignments,
+                            Method method, Template url, String contentType, Map<String, String> headers,
+                            ByteTemplate body, TokenHeader auth,
+                            int expectedStatus, List<FieldCheck> checks, String arrayField, Template invalidMessage,
+                            List<Extraction> extractions, List<String> clears,
+                            Template passMessage, Template failMessage, Template responseBody,
+                            RequestPolicy policy) {
+
+    /**
+     * A fixture the test needs. Shared fixtures may be run once per suite run
+     * for all tests that share them; see {@link SuiteGraph}.
+     */
+    record Fixture(ExecutionPlan plan, String unless, Template error, boolean shared) {
+    }
+
+    record Assignment(String variable, Template value) {
+    }
+
+    record FieldCheck(String field, JsonPointer pointer, String expected) {
+    }
+
+    record Extraction(String variable, JsonPointer pointer) {
+    }
+}
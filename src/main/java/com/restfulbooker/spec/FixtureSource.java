@@ -0,0 +1,13 @@
+package com.restfulbooker.spec;
+
+import com.restfulbooker.model.TestContext;
+
+/**
+ * Supplies ready-made fixtures so a test doesn't have to run them first.
+ * A leased fixture belongs to the caller alone.
+ */
+public interface FixtureSource {
+
+    /** The variables of a fixture made by {@code plan} ahead of time, or null if none is ready. */
+    TestContext lease(ExecutionPlan plan);
+}
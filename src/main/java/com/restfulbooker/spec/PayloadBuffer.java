@@ -0,0 +1,142 @@
+package com.restfulbooker.spec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer that {@link ByteTemplate}s render into. Meant to be
+ * reused: reset keeps the array, so once it has grown to the largest body a
+ * caller renders, rendering no longer allocates. Not thread-safe.
+ */
+public final class PayloadBuffer {
+
+    // Long.MIN_VALUE has 19 digits plus the sign
+    private static final int MAX_LONG_DIGITS = 20;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+    private static final byte[] DIGIT_TENS = new byte[100];
+    private static final byte[] DIGIT_ONES = new byte[100];
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+        for (int i = 0; i < 100; i++) {
+            DIGIT_TENS[i] = (byte) ('0' + i / 10);
+            DIGIT_ONES[i] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private byte[] bytes;
+    private int length;
+
+    public PayloadBuffer(int capacity) {
+        bytes = new byte[Math.max(16, capacity)];
+    }
+
+    public void reset() {
+        length = 0;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    void write(byte[] source, int offset, int count) {
+        ensureCapacity(count);
+        System.arraycopy(source, offset, bytes, length, count);
+        length += count;
+    }
+
+    // ASCII is copied char by char; the rest of the string is encoded from the first non-ASCII char on
+    void writeString(String value) {
+        int count = value.length();
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                byte[] encoded = value.substring(i).getBytes(StandardCharsets.UTF_8);
+                write(encoded, 0, encoded.length);
+                return;
+            }
+            bytes[length++] = (byte) c;
+        }
+    }
+
+    // Like writeString, with quotes, backslashes and control characters escaped as in a JSON string
+    void writeJsonString(String value) {
+        int count = value.length();
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                writeString(value.substring(start, i));
+                writeEscape(c);
+                start = i + 1;
+            }
+        }
+        writeString(start == 0 ? value : value.substring(start));
+    }
+
+    private void writeEscape(char c) {
+        ensureCapacity(6);
+        bytes[length++] = '\\';
+        switch (c) {
+            case '"' -> bytes[length++] = '"';
+            case '\\' -> bytes[length++] = '\\';
+            case '\n' -> bytes[length++] = 'n';
+            case '\r' -> bytes[length++] = 'r';
+            case '\t' -> bytes[length++] = 't';
+            case '\b' -> bytes[length++] = 'b';
+            case '\f' -> bytes[length++] = 'f';
+            default -> {
+                bytes[length++] = 'u';
+                bytes[length++] = '0';
+                bytes[length++] = '0';
+                bytes[length++] = HEX_DIGITS[c >> 4];
+                bytes[length++] = HEX_DIGITS[c & 0xf];
+            }
+        }
+    }
+
+    void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeString(Long.toString(value));
+            return;
+        }
+        ensureCapacity(MAX_LONG_DIGITS);
+        if (value < 0) {
+            bytes[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        int position = length + digits;
+        while (value >= 100) {
+            int pair = (int) (value % 100);
+            value /= 100;
+            bytes[--position] = DIGIT_ONES[pair];
+            bytes[--position] = DIGIT_TENS[pair];
+        }
+        int last = (int) value;
+        bytes[--position] = DIGIT_ONES[last];
+        if (last >= 10) {
+            bytes[--position] = DIGIT_TENS[last];
+        }
+        length += digits;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (length + additional > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additional));
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.restfulbooker.spec;
+
+import com.restfulbooker.http.CircuitOpenException;
+import com.restfulbooker.http.HttpEngine;
+import com.restfulbooker.http.HttpEngine.Request;
+import com.restfulbooker.http.HttpEngine.Response;
+import com.restfulbooker.http.PhaseRecorder;
+import com.restfulbooker.model.TestResult;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hedging and retries for one test's request, compiled from the test's
+ * {@code hedge} and {@code retry} settings.
+ * <p>
+ * A hedged request is sent and, if no response has arrived once it has
+ * taken longer than the given percentile of the test's last
+ * {@value #SAMPLES} first requests (and at least minDelay), sent again;
+ * the first response wins. Hedging starts once {@value #MIN_SAMPLES}
+ * latencies are known. Whichever request loses is cancelled, so it gives
+ * back its connection and its limiter and breaker permits. A first request
+ * that lost is counted in the percentile and the {@link Listener} at the
+ * time the hedge won, a lower bound of the latency a run without hedging
+ * would have seen. The first request is always a blocking send that records
+ * the network phases; when the hedge wins, they cover the first request up
+ * to the point it was abandoned.
+ * <p>
+ * A retried request is sent again after a failure or one of the retry
+ * statuses, up to attempts times in all, waiting backoff and then twice as
+ * long before each new attempt, up to 2^16 times backoff.
+ */
+public final class RequestPolicy {
+
+    static final int SAMPLES = 100;
+    static final int MIN_SAMPLES = 10;
+    // Doubling stops here, so many attempts can't shift the backoff into a negative sleep
+    private static final int MAX_BACKOFF_SHIFT = 16;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int attempts;
+    private final long backoffNanos;
+    private final boolean[] retryOn = new boolean[600];
+
+    private final long[] samples = new long[SAMPLES];
+    private int sampled;
+    private int next;
+    private volatile long hedgeDelayNanos = -1;
+
+    RequestPolicy(double percentile, Duration minDelay, int attempts, Duration backoff, List<Integer> retryOn) {
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.attempts = Math.max(1, attempts);
+        this.backoffNanos = backoff.toNanos();
+        for (int status : retryOn) {
+            if (status < 0 || status >= this.retryOn.length) {
+                throw new IllegalArgumentException("retry status " + status + " out of range");
+            }
+            this.retryOn[status] = true;
+        }
+    }
+
+    /** Receives what a policy did, for metrics. */
+    public interface Listener {
+
+        Listener NONE = new Listener() {
+        };
+
+        /** A first request got its response after {@code nanos}: the latency without hedging. */
+        default void onFirstRequest(ExecutionPlan plan, long nanos) {
+        }
+
+        /** An attempt got its response after {@code nanos}, from the hedge if {@code hedgeWon}. */
+        default void onResponse(ExecutionPlan plan, long nanos, boolean hedgeWon) {
+        }
+
+        default void onHedge(ExecutionPlan plan) {
+        }
+
+        default void onRetry(ExecutionPlan plan) {
+        }
+    }
+
+    public boolean hedges() {
+        return percentile > 0;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /** The current hedge delay, or -1 while hedging is off or waiting for enough samples. */
+    public long getHedgeDelayNanos() {
+        return hedgeDelayNanos;
+    }
+
+    /** Sends {@code request} for {@code plan}, counting every request sent and a winning hedge on {@code result}. */
+    Response send(ExecutionPlan plan, HttpEngine engine, Request request, TestResult result, Listener listener) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Response response = attempt(plan, engine, request, result, listener);
+                if (attempt >= attempts || !retryOn[Math.max(0, Math.min(retryOn.length - 1, response.statusCode()))]) {
+                    return response;
+                }
+            } catch (CircuitOpenException e) {
+                // Nothing was sent, and a retry would be turned away just the same
+                throw e;
+            } catch (RuntimeException e) {
+                if (attempt >= attempts) {
+                    throw e;
+                }
+            }
+            listener.onRetry(plan);
+            sleep(backoffNanos << Math.min(attempt - 1, MAX_BACKOFF_SHIFT));
+        }
+    }
+
+    private Response attempt(ExecutionPlan plan, HttpEngine engine, Request request, TestResult result, Listener listener) {
+        result.setAttempts(result.getAttempts() + 1);
+        result.setHedged(false);
+        long delay = hedgeDelayNanos;
+        long start = System.nanoTime();
+        if (delay < 0) {
+            // Not hedging: sent on this thread so the network phases are recorded
+            Response response = engine.send(request);
+            long nanos = System.nanoTime() - start;
+            firstRequest(plan, nanos, listener);
+            listener.onResponse(plan, nanos, false);
+            return response;
+        }
+
+        // Still a blocking send recording into this test's phases, but on a thread of its own so it can be abandoned
+        PhaseRecorder recorder = PhaseRecorder.current();
+        CompletableFuture<Response> first = new CompletableFuture<>();
+        AtomicBoolean sampled = new AtomicBoolean();
+        Thread sender = Thread.ofVirtual().name("request-" + plan.id()).start(() -> {
+            try {
+                Response response = recorder != null ? recorder.record(() -> engine.send(request)) : engine.send(request);
+                if (sampled.compareAndSet(false, true)) {
+                    firstRequest(plan, System.nanoTime() - start, listener);
+                }
+                first.complete(response);
+            } catch (Throwable e) {
+                first.completeExceptionally(e);
+            }
+        });
+        try {
+            Response response = first.get(delay, TimeUnit.NANOSECONDS);
+            listener.onResponse(plan, System.nanoTime() - start, false);
+            return response;
+        } catch (TimeoutException e) {
+            // Slower than the percentile: hedge below
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            sender.interrupt();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for " + request.url(), e);
+        }
+
+        CompletableFuture<Response> hedge;
+        try {
+            hedge = engine.sendAsync(request);
+        } catch (CircuitOpenException e) {
+            // The host's breaker opened meanwhile; the first request may still answer
+            hedge = CompletableFuture.failedFuture(e);
+        }
+        if (!hedge.isCompletedExceptionally()) {
+            listener.onHedge(plan);
+            result.setAttempts(result.getAttempts() + 1);
+        }
+        CompletableFuture<Response> winner = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        for (CompletableFuture<Response> sent : List.of(first, hedge)) {
+            sent.whenComplete((response, failure) -> {
+                if (failure == null) {
+                    winner.complete(response);
+                } else if (failed.incrementAndGet() == 2) {
+                    winner.completeExceptionally(failure);
+                }
+            });
+        }
+        Response response;
+        try {
+            response = winner.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            sender.interrupt();
+            hedge.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for " + request.url(), e);
+        }
+        long nanos = System.nanoTime() - start;
+        boolean hedgeWon = hedge.isDone() && !hedge.isCompletedExceptionally() && hedge.join() == response;
+        if (hedgeWon) {
+            // The first request took at least this long; its own latency would have kept the percentile honest
+            if (sampled.compareAndSet(false, true)) {
+                firstRequest(plan, nanos, listener);
+            }
+            // Connection and limiter waits give up on the interrupt; wait for it to let go,
+            // so it records nothing more into this test's phases
+            sender.interrupt();
+            first.handle((unused, failure) -> null).join();
+        } else {
+            hedge.cancel(true);
+        }
+        result.setHedged(hedgeWon);
+        listener.onResponse(plan, nanos, hedgeWon);
+        return response;
+    }
+
+    private void firstRequest(ExecutionPlan plan, long nanos, Listener listener) {
+        listener.onFirstRequest(plan, nanos);
+        if (!hedges()) {
+            return;
+        }
+        long[] sorted;
+        synchronized (samples) {
+            samples[next] = nanos;
+            next = (next + 1) % SAMPLES;
+            sampled = Math.min(SAMPLES, sampled + 1);
+            if (sampled < MIN_SAMPLES) {
+                return;
+            }
+            sorted = Arrays.copyOf(samples, sampled);
+        }
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        hedgeDelayNanos = Math.max(minDelayNanos, sorted[Math.max(0, Math.min(sorted.length - 1, rank))]);
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted before retrying", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.restfulbooker.spec;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One site's test definitions as written in a {@code specs/*.yml} file,
+ * or posted to /api/sites; {@link SpecCompiler} turns it into execution plans.
+ */
+public record SiteSpec(String site, String baseUrl, String contentType, Auth auth, Bulkhead bulkhead, List<TestSpec> tests) {
+
+    /**
+     * Header carrying the token on authenticated requests: the fixed
+     * {@code token} (an API key). Only the restful-booker site may leave it
+     * unset, and is then sent the token from {@code AuthTokenManager}'s login.
+     */
+    public record Auth(String header, String prefix, String token) {
+    }
+
+    /** The site's share of concurrent tests; unset fields take the site.bulkhead.* defaults. */
+    public record Bulkhead(Integer maxConcurrency, Integer maxQueue, String maxWait) {
+    }
+
+    public record TestSpec(String id, String name, List<FixtureSpec> fixtures, Map<String, String> set,
+                           RequestSpec request, ExpectSpec expect, Map<String, String> extract,
+                           List<String> clear, String pass, String fail, String responseBody,
+                           HedgeSpec hedge, RetrySpec retry) {
+    }
+
+    /** Runs another test of the site first, unless the named variable is already set. */
+    public record FixtureSpec(String test, String unless, String error, Boolean shared) {
+    }
+
+    public record RequestSpec(String method, String path, Map<String, String> query,
+                              Map<String, String> headers, String body, boolean authenticated) {
+    }
+
+    /** Expected status, field values and, for list endpoints, the field every array element must have. */
+    public record ExpectSpec(int status, Map<String, String> fields, ArraySpec array) {
+    }
+
+    public record ArraySpec(String required, String invalid) {
+    }
+
+    /**
+     * Sends a duplicate of a GET that has taken longer than the percentile of
+     * its recent latencies, but at least minDelay, and takes the first response.
+     */
+    public record HedgeSpec(Double percentile, String minDelay) {
+    }
+
+    /** Retries an idempotent request that failed or got one of the {@code on} statuses, backing off twice as long each time. */
+    public record RetrySpec(Integer attempts, String backoff, List<Integer> on) {
+    }
+}
@@ -0,0 +1,222 @@
+package com.restfulbooker.spec;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.restfulbooker.spec.ExecutionPlan.Assignment;
+import com.restfulbooker.spec.ExecutionPlan.Extraction;
+import com.restfulbooker.spec.ExecutionPlan.FieldCheck;
+import com.restfulbooker.spec.ExecutionPlan.Fixture;
+import com.restfulbooker.spec.SiteSpec.FixtureSpec;
+import com.restfulbooker.spec.SiteSpec.HedgeSpec;
+import com.restfulbooker.spec.SiteSpec.RequestSpec;
+import com.restfulbooker.spec.SiteSpec.RetrySpec;
+import com.restfulbooker.spec.SiteSpec.TestSpec;
+import io.restassured.http.Method;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns a {@link SiteSpec} into one {@link ExecutionPlan} per test. Fixtures
+ * are compiled before the tests that use them; a fixture cycle, an unknown
+ * fixture or a missing required field fails startup with the site and test
+ * named in the message.
+ */
+final class SpecCompiler {
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/json";
+    private static final Set<Method> IDEMPOTENT = Set.of(Method.GET, Method.HEAD, Method.OPTIONS, Method.PUT, Method.DELETE);
+    private static final List<Integer> DEFAULT_RETRY_ON = List.of(429, 502, 503, 504);
+
+    private final SiteSpec site;
+    private final String baseUrl;
+    private final TokenHeader auth;
+    private final Map<String, TestSpec> specs = new LinkedHashMap<>();
+    private final Map<String, ExecutionPlan> compiled = new HashMap<>();
+    private final Set<String> compiling = new HashSet<>();
+
+    private SpecCompiler(SiteSpec site, String baseUrl, String token) {
+        this.site = site;
+        this.baseUrl = baseUrl;
+        this.auth = site.auth() != null ? new TokenHeader(require(site.auth().header(), "auth.header"), site.auth().prefix(), token) : null;
+    }
+
+    /** Compiles every test of the site, in the order the spec lists them, with its placeholders already resolved. */
+    static List<ExecutionPlan> compile(SiteSpec site, String baseUrl, String token) {
+        SpecCompiler compiler = new SpecCompiler(site, baseUrl, token);
+        List<TestSpec> tests = site.tests() != null ? site.tests() : List.of();
+        for (TestSpec test : tests) {
+            if (test.id() == null || test.id().isBlank()) {
+                throw compiler.invalid("?", "missing id");
+            }
+            if (compiler.specs.put(test.id(), test) != null) {
+                throw compiler.invalid(test.id(), "duplicate test id");
+            }
+        }
+        List<ExecutionPlan> plans = new ArrayList<>();
+        for (TestSpec test : tests) {
+            plans.add(compiler.compile(test));
+        }
+        return plans;
+    }
+
+    private ExecutionPlan compile(TestSpec test) {
+        ExecutionPlan plan = compiled.get(test.id());
+        if (plan != null) {
+            return plan;
+        }
+        if (!compiling.add(test.id())) {
+            throw invalid(test.id(), "fixture cycle");
+        }
+        try {
+            plan = build(test);
+        } catch (IllegalArgumentException e) {
+            throw invalid(test.id(), e.getMessage());
+        }
+        compiling.remove(test.id());
+        compiled.put(test.id(), plan);
+        return plan;
+    }
+
+    private ExecutionPlan build(TestSpec test) {
+        RequestSpec request = test.request();
+        if (request == null) {
+            throw new IllegalArgumentException("missing request");
+        }
+        Method method = Method.valueOf(require(request.method(), "request.method").toUpperCase());
+
+        // A test that only reads what its fixture made can share the fixture with other readers
+        boolean reader = method == Method.GET || method == Method.HEAD;
+        List<Fixture> fixtures = new ArrayList<>();
+        for (FixtureSpec fixture : orEmpty(test.fixtures())) {
+            TestSpec target = specs.get(require(fixture.test(), "fixtures.test"));
+            if (target == null) {
+                throw new IllegalArgumentException("unknown fixture test " + fixture.test());
+            }
+            String error = fixture.error() != null ? fixture.error() : "Fixture " + fixture.test() + " failed";
+            boolean shared = fixture.shared() != null ? fixture.shared() : reader;
+            fixtures.add(new Fixture(compile(target), fixture.unless(), Template.compile(error), shared));
+        }
+
+        List<Assignment> assignments = new ArrayList<>();
+        orEmpty(test.set()).forEach((variable, value) -> assignments.add(new Assignment(variable, Template.compile(value))));
+
+        if (request.authenticated() && auth == null) {
+            throw new IllegalArgumentException("authenticated request but the site has no auth header");
+        }
+        if (test.expect() == null || test.expect().status() == 0) {
+            throw new IllegalArgumentException("missing expect.status");
+        }
+
+        List<FieldCheck> checks = new ArrayList<>();
+        orEmpty(test.expect().fields()).forEach((field, expected) -> checks.add(new FieldCheck(field, pointer(field), expected)));
+        List<Extraction> extractions = new ArrayList<>();
+        orEmpty(test.extract()).forEach((variable, field) -> extractions.add(new Extraction(variable, pointer(field))));
+        String arrayField = test.expect().array() != null ? test.expect().array().required() : null;
+        String invalidMessage = test.expect().array() != null && test.expect().array().invalid() != null
+                ? test.expect().array().invalid()
+                : "{{$invalid}} of {{$count}} elements have no " + arrayField;
+
+        String contentType = site.contentType() != null ? site.contentType() : DEFAULT_CONTENT_TYPE;
+        return new ExecutionPlan(site.site(), test.id(), require(test.name(), "name"),
+                List.copyOf(fixtures), List.copyOf(assignments),
+                method, Template.compile(url(request)),
+                contentType, Map.copyOf(orEmpty(request.headers())),
+                ByteTemplate.compileOrNull(request.body(), contentType.toLowerCase(Locale.ROOT).contains("json")), request.authenticated() ? auth : null,
+                test.expect().status(), List.copyOf(checks), arrayField, Template.compile(invalidMessage),
+                List.copyOf(extractions), List.copyOf(orEmpty(test.clear())),
+                Template.compile(require(test.pass(), "pass")), Template.compile(require(test.fail(), "fail")),
+                Template.compileOrNull(test.responseBody()),
+                policy(method, test.hedge(), test.retry()));
+    }
+
+    // Hedges only duplicate safe reads; retries repeat any idempotent request
+    private static RequestPolicy policy(Method method, HedgeSpec hedge, RetrySpec retry) {
+        if (hedge == null && retry == null) {
+            return null;
+        }
+        double percentile = 0;
+        Duration minDelay = Duration.ZERO;
+        if (hedge != null) {
+            if (method != Method.GET && method != Method.HEAD) {
+                throw new IllegalArgumentException("hedge needs a GET or HEAD request");
+            }
+            percentile = hedge.percentile() != null ? hedge.percentile() : 95;
+            if (percentile <= 0 || percentile >= 100) {
+                throw new IllegalArgumentException("hedge.percentile must be between 0 and 100");
+            }
+            minDelay = duration(hedge.minDelay(), Duration.ZERO);
+        }
+        int attempts = 1;
+        Duration backoff = Duration.ZERO;
+        List<Integer> retryOn = List.of();
+        if (retry != null) {
+            if (!IDEMPOTENT.contains(method)) {
+                throw new IllegalArgumentException("retry needs an idempotent request, not " + method);
+            }
+            attempts = retry.attempts() != null ? retry.attempts() : 2;
+            if (attempts < 1) {
+                throw new IllegalArgumentException("retry.attempts must be at least 1");
+            }
+            backoff = duration(retry.backoff(), Duration.ofMillis(100));
+            retryOn = retry.on() != null ? retry.on() : DEFAULT_RETRY_ON;
+        }
+        return new RequestPolicy(percentile, minDelay, attempts, backoff, retryOn);
+    }
+
+    private static Duration duration(String value, Duration defaultValue) {
+        return value != null ? DurationStyle.detectAndParse(value) : defaultValue;
+    }
+
+    // Literal query values are encoded here; values with placeholders are inserted as they are
+    private String url(RequestSpec request) {
+        StringBuilder url = new StringBuilder(baseUrl).append(require(request.path(), "request.path"));
+        char separator = '?';
+        for (Map.Entry<String, String> param : orEmpty(request.query()).entrySet()) {
+            url.append(separator).append(encode(param.getKey())).append('=').append(encode(param.getValue()));
+            separator = '&';
+        }
+        return url.toString();
+    }
+
+    private static String encode(String value) {
+        return value.contains("{{") ? value : URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // "booking.firstname" -> /booking/firstname
+    private static JsonPointer pointer(String field) {
+        StringBuilder pointer = new StringBuilder();
+        for (String segment : field.split("\\.")) {
+            pointer.append('/').append(segment.replace("~", "~0").replace("/", "~1"));
+        }
+        return JsonPointer.compile(pointer.toString());
+    }
+
+    private String require(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("missing " + field);
+        }
+        return value;
+    }
+
+    private IllegalStateException invalid(String testId, String problem) {
+        return new IllegalStateException("Invalid spec for " + site.site() + "/" + testId + ": " + problem);
+    }
+
+    private static <K, V> Map<K, V> orEmpty(Map<K, V> map) {
+        return map != null ? map : Map.of();
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+}
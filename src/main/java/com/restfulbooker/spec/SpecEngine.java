@@ -0,0 +1,382 @@
+package com.restfulbooker.spec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restfulbooker.http.CircuitOpenException;
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.http.HttpEngine.Request;
+import com.restfulbooker.http.HttpEngine.Response;
+import com.restfulbooker.http.PhaseRecorder;
+import com.restfulbooker.json.JsonArrays;
+import com.restfulbooker.json.JsonArrays.ArrayCount;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.spec.ExecutionPlan.Assignment;
+import com.restfulbooker.spec.ExecutionPlan.Extraction;
+import com.restfulbooker.spec.ExecutionPlan.FieldCheck;
+import com.restfulbooker.spec.ExecutionPlan.Fixture;
+import com.restfulbooker.spec.Template.Outcome;
+import io.restassured.http.Method;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Runs the dashboard's tests from the YAML specs found at spec.locations
+ * (by default every {@code specs/*.yml} on the classpath), one file per
+ * site. Specs are compiled into {@link ExecutionPlan}s when the engine
+ * starts, or when {@link #registerSite} adds another site later; running a
+ * test only renders its placeholders, sends the request and checks the
+ * response. The baseUrl and auth.token of a spec file may use ${...}
+ * properties; a registered spec may not.
+ */
+@Component
+public class SpecEngine {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int PAYLOAD_BUFFERS = 64;
+
+    private final PropertyResolver properties;
+    private final HttpClientPools httpClientPools;
+    private final AuthTokenManager authTokens;
+    // Replaced rather than changed when a site is added, so readers never lock
+    private volatile Map<String, List<ExecutionPlan>> sites = Map.of();
+    private final Map<String, SiteSpec> specs = new ConcurrentHashMap<>();
+    private final Map<String, String> baseUrls = new ConcurrentHashMap<>();
+    private final Map<String, ExecutionPlan> plans = new ConcurrentHashMap<>();
+    // Tests run on virtual threads, so render buffers are pooled rather than thread-local
+    private final BlockingQueue<PayloadBuffer> payloadBuffers = new ArrayBlockingQueue<>(PAYLOAD_BUFFERS);
+    private volatile FixtureSource fixtureSource;
+    private volatile RequestPolicy.Listener policyListener = RequestPolicy.Listener.NONE;
+
+    public SpecEngine(@Value("${spec.locations:classpath*:specs/*.yml}") String[] locations,
+                      PropertyResolver properties, HttpClientPools httpClientPools, AuthTokenManager authTokens) throws IOException {
+        this.properties = properties;
+        this.httpClientPools = httpClientPools;
+        this.authTokens = authTokens;
+        for (Resource resource : findSpecs(locations)) {
+            try (InputStream in = resource.getInputStream()) {
+                addSite(parse(in));
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Can't load spec " + resource.getFilename() + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /** Reads one site's spec from YAML. */
+    public static SiteSpec parse(InputStream in) {
+        Object document = new Yaml(new SafeConstructor(new LoaderOptions())).load(in);
+        return MAPPER.convertValue(document, SiteSpec.class);
+    }
+
+    /**
+     * Compiles a site's spec and adds its tests. Nothing is added if the spec
+     * doesn't compile, or if its site or one of its test ids is already taken.
+     */
+    public List<ExecutionPlan> addSite(SiteSpec site) {
+        return addSite(site, true);
+    }
+
+    /**
+     * Adds a site whose spec came from outside the application, such as a
+     * POST /api/sites. Its baseUrl and auth.token are taken as written, so
+     * that it can't read properties or environment variables.
+     */
+    public List<ExecutionPlan> registerSite(SiteSpec site) {
+        if (hasPlaceholder(site.baseUrl()) || site.auth() != null && hasPlaceholder(site.auth().token())) {
+            throw new IllegalStateException("A registered spec can't use ${...} properties");
+        }
+        return addSite(site, false);
+    }
+
+    private synchronized List<ExecutionPlan> addSite(SiteSpec site, boolean resolvePlaceholders) {
+        if (site.site() == null || site.baseUrl() == null) {
+            throw new IllegalStateException("A spec needs a site and a baseUrl");
+        }
+        if (sites.containsKey(site.site())) {
+            throw new IllegalStateException("Site " + site.site() + " is defined by more than one spec");
+        }
+        if (site.auth() != null && site.auth().token() == null && !AuthTokenManager.SITE.equals(site.site())) {
+            throw new IllegalStateException("Site " + site.site() + " needs an auth.token; only "
+                    + AuthTokenManager.SITE + " is sent its login token");
+        }
+        String baseUrl = resolvePlaceholders ? properties.resolveRequiredPlaceholders(site.baseUrl()) : site.baseUrl();
+        String token = site.auth() == null || site.auth().token() == null ? null
+                : resolvePlaceholders ? properties.resolveRequiredPlaceholders(site.auth().token()) : site.auth().token();
+        List<ExecutionPlan> compiled = List.copyOf(SpecCompiler.compile(site, baseUrl, token));
+        for (ExecutionPlan plan : compiled) {
+            if (plans.containsKey(plan.id())) {
+                throw new IllegalStateException("Test id " + plan.id() + " is defined by more than one site");
+            }
+        }
+        for (ExecutionPlan plan : compiled) {
+            plans.put(plan.id(), plan);
+        }
+        specs.put(site.site(), site);
+        baseUrls.put(site.site(), baseUrl);
+        Map<String, List<ExecutionPlan>> updated = new LinkedHashMap<>(sites);
+        updated.put(site.site(), compiled);
+        sites = Collections.unmodifiableMap(updated);
+        return compiled;
+    }
+
+    private static boolean hasPlaceholder(String value) {
+        return value != null && value.contains("${");
+    }
+
+    /** Compiled plans by site, each in the order its spec lists them. */
+    public Map<String, List<ExecutionPlan>> getSites() {
+        return sites;
+    }
+
+    /** The spec a site was added from, as written; null for an unknown site. */
+    public SiteSpec getSiteSpec(String site) {
+        return specs.get(site);
+    }
+
+    /** The site's base URL with its placeholders resolved. */
+    public String getBaseUrl(String site) {
+        return baseUrls.get(site);
+    }
+
+    public ExecutionPlan getPlan(String testId) {
+        return plans.get(testId);
+    }
+
+    /** The site's DELETE test whose only fixture is {@code plan}, which undoes what it made; null if there is none. */
+    public ExecutionPlan getCleanupPlan(ExecutionPlan plan) {
+        for (ExecutionPlan candidate : sites.getOrDefault(plan.site(), List.of())) {
+            if (candidate.method() == Method.DELETE && candidate.fixtures().size() == 1
+                    && candidate.fixtures().get(0).plan().id().equals(plan.id())) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /** Lets fixtures be leased from {@code source} instead of run when it has one ready. */
+    public void setFixtureSource(FixtureSource source) {
+        this.fixtureSource = source;
+    }
+
+    /** Reports what the hedging and retry policies of tests do to {@code listener}. */
+    public void setPolicyListener(RequestPolicy.Listener listener) {
+        this.policyListener = listener;
+    }
+
+    /** The variables of a ready-made fixture for {@code plan}, or null if there is none to lease. */
+    public TestContext leaseFixture(ExecutionPlan plan) {
+        FixtureSource source = fixtureSource;
+        return source != null ? source.lease(plan) : null;
+    }
+
+    /**
+     * Runs a test, first running its fixtures in the same context or, for
+     * a test that changes what its fixture made, leasing it ready-made from
+     * the fixture source. A test whose request, or a fixture's, is turned
+     * away by an open circuit breaker is SKIPPED.
+     */
+    public TestResult execute(ExecutionPlan plan, TestContext context) {
+        return execute(plan, context, null);
+    }
+
+    /**
+     * Runs a test whose fixtures the caller has already run, as a
+     * {@link SuiteGraph} scheduler does. {@code fixturePassed} tells whether
+     * the plan's fixture at each index passed; the variables of those that
+     * did must already be in the context.
+     */
+    public TestResult execute(ExecutionPlan plan, TestContext context, IntPredicate fixturePassed) {
+        TestResult result = new TestResult();
+        result.setTestName(plan.name());
+        PhaseRecorder timer = PhaseRecorder.start();
+        Outcome outcome = new Outcome();
+
+        try {
+            for (int i = 0; i < plan.fixtures().size(); i++) {
+                Fixture fixture = plan.fixtures().get(i);
+                boolean passed;
+                if (fixturePassed != null) {
+                    passed = fixturePassed.test(i);
+                } else if (fixture.unless() != null && context.get(fixture.unless()) != null) {
+                    continue;
+                } else {
+                    // Readers leave the pool's fixtures to the tests that change or delete them
+                    TestContext leased = fixture.shared() ? null : leaseFixture(fixture.plan());
+                    if (leased != null) {
+                        context.putAll(leased);
+                        passed = true;
+                    } else {
+                        TestResult setup = timer.fixture(() -> execute(fixture.plan(), context));
+                        if ("SKIPPED".equals(setup.getStatus())) {
+                            result.setStatus("SKIPPED");
+                            result.setMessage(setup.getMessage());
+                            timer.stop(result);
+                            return result;
+                        }
+                        passed = "PASSED".equals(setup.getStatus());
+                    }
+                }
+                if (!passed) {
+                    result.setStatus("ERROR");
+                    result.setMessage(fixture.error().render(context, outcome));
+                    timer.stop(result);
+                    return result;
+                }
+            }
+            for (Assignment assignment : plan.assignments()) {
+                context.set(assignment.variable(), assignment.value().render(context, outcome));
+            }
+
+            String url = plan.url().render(context, outcome);
+            byte[] body = plan.body() != null ? renderBody(plan.body(), context) : null;
+            Response response = send(plan, url, body, result);
+
+            timer.stop(result);
+            outcome.status = response.statusCode();
+            result.setStatusCode(outcome.status);
+            boolean statusMatched = outcome.status == plan.expectedStatus();
+            String failure = null;
+
+            if (plan.arrayField() != null) {
+                if (statusMatched) {
+                    ArrayCount elements = JsonArrays.count(new ByteArrayInputStream(response.body()), plan.arrayField());
+                    outcome.count = elements.elements();
+                    outcome.invalid = elements.invalid();
+                    if (elements.invalid() > 0) {
+                        failure = plan.invalidMessage().render(context, outcome);
+                    }
+                }
+            } else {
+                byte[] bytes = response.body();
+                if (plan.responseBody() == null) {
+                    result.setResponseBody(new String(bytes, StandardCharsets.UTF_8));
+                }
+                if (statusMatched && (!plan.checks().isEmpty() || !plan.extractions().isEmpty())) {
+                    failure = checkFields(plan, MAPPER.readTree(bytes), context);
+                }
+            }
+            if (statusMatched && plan.responseBody() != null) {
+                result.setResponseBody(plan.responseBody().render(context, outcome));
+            }
+
+            if (statusMatched && failure == null) {
+                result.setStatus("PASSED");
+                result.setMessage(plan.passMessage().render(context, outcome));
+                for (String variable : plan.clears()) {
+                    context.set(variable, null);
+                }
+            } else {
+                result.setStatus("FAILED");
+                result.setMessage(failure != null ? failure : plan.failMessage().render(context, outcome));
+            }
+        } catch (CircuitOpenException e) {
+            result.setStatus("SKIPPED");
+            result.setMessage(e.getMessage());
+            timer.stop(result);
+        } catch (Exception e) {
+            result.setStatus("ERROR");
+            result.setMessage("Exception: " + e.getMessage());
+            timer.stop(result);
+        }
+
+        return result;
+    }
+
+    private byte[] renderBody(ByteTemplate body, TestContext context) {
+        PayloadBuffer buffer = payloadBuffers.poll();
+        if (buffer == null) {
+            buffer = new PayloadBuffer(1024);
+        }
+        try {
+            return body.renderBytes(context, buffer);
+        } finally {
+            payloadBuffers.offer(buffer);
+        }
+    }
+
+    // Checks expected field values, then stores extracted ones; returns the first mismatch, if any
+    private static String checkFields(ExecutionPlan plan, JsonNode json, TestContext context) {
+        for (FieldCheck check : plan.checks()) {
+            String actual = text(json.at(check.pointer()));
+            if (!check.expected().equals(actual)) {
+                return "Expected " + check.field() + " to be '" + check.expected() + "' but was '" + actual + "'";
+            }
+        }
+        for (Extraction extraction : plan.extractions()) {
+            context.set(extraction.variable(), text(json.at(extraction.pointer())));
+        }
+        return null;
+    }
+
+    private static String text(JsonNode node) {
+        if (node.isMissingNode() || node.isNull()) {
+            return null;
+        }
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+
+    // Authenticated requests re-authenticate and retry once if the token was rejected
+    private Response send(ExecutionPlan plan, String url, byte[] body, TestResult result) {
+        if (plan.auth() == null) {
+            return request(plan, url, body, null, result);
+        }
+        if (plan.auth().token() != null) {
+            return request(plan, url, body, plan.auth().token(), result);
+        }
+        String token = authTokens.getToken();
+        Response response = request(plan, url, body, token, result);
+        if (response.statusCode() == 403) {
+            response = request(plan, url, body, authTokens.refreshAfterRejection(token), result);
+        }
+        return response;
+    }
+
+    private Response request(ExecutionPlan plan, String url, byte[] body, String token, TestResult result) {
+        Map<String, String> headers = plan.headers();
+        if (token != null) {
+            headers = new HashMap<>(headers);
+            headers.put(plan.auth().name(), plan.auth().value(token));
+        }
+        Request request = new Request(plan.method().name(), url, plan.contentType(), headers, body);
+        if (plan.policy() != null) {
+            return plan.policy().send(plan, httpClientPools.engine(plan.site()), request, result, policyListener);
+        }
+        result.setAttempts(result.getAttempts() + 1);
+        return httpClientPools.engine(plan.site()).send(request);
+    }
+
+    private static List<Resource> findSpecs(String[] locations) throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        List<Resource> resources = new ArrayList<>();
+        for (String location : locations) {
+            Resource[] found = resolver.getResources(location.trim());
+            Arrays.sort(found, Comparator.comparing(Resource::getFilename, Comparator.nullsFirst(Comparator.naturalOrder())));
+            resources.addAll(Arrays.asList(found));
+        }
+        return resources;
+    }
+}
@@ -0,0 +1,132 @@
+package com.restfulbooker.spec;
+
+import com.restfulbooker.spec.ExecutionPlan.Fixture;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The tests of a suite and the fixture runs they need, as a DAG a scheduler
+ * can run with every independent branch in parallel. Each fixture a test
+ * declares becomes an edge to the node that provides it:
+ * <ul>
+ *   <li>a shared fixture comes from one node per run, which all tests sharing
+ *   it read from: the suite's own test for that plan if it clears no
+ *   variables, otherwise a fixture node;</li>
+ *   <li>any other fixture gets a node of its own, because the test changes or
+ *   deletes what the fixture made.</li>
+ * </ul>
+ * {@link #nodes()} lists dependencies before the nodes that need them.
+ */
+public final class SuiteGraph {
+
+    private final Map<String, Node> tests = new LinkedHashMap<>();
+    private final Map<String, Node> sharedFixtures = new HashMap<>();
+    private final List<Node> nodes = new ArrayList<>();
+
+    private SuiteGraph() {
+    }
+
+    public static SuiteGraph of(List<ExecutionPlan> plans) {
+        SuiteGraph graph = new SuiteGraph();
+        for (ExecutionPlan plan : plans) {
+            graph.tests.put(plan.id(), new Node(plan, true));
+        }
+        for (Node test : graph.tests.values()) {
+            graph.link(test);
+        }
+        for (Node test : graph.tests.values()) {
+            graph.order(test);
+        }
+        return graph;
+    }
+
+    /** Every node, each after its dependencies; a node's index is its position here. */
+    public List<Node> nodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /** The suite's tests, in spec order. */
+    public List<Node> tests() {
+        return List.copyOf(tests.values());
+    }
+
+    public int fixtureCount() {
+        return nodes.size() - tests.size();
+    }
+
+    private void link(Node node) {
+        for (Fixture fixture : node.plan.fixtures()) {
+            node.dependencies.add(provider(fixture));
+        }
+    }
+
+    private Node provider(Fixture fixture) {
+        ExecutionPlan plan = fixture.plan();
+        if (!fixture.shared()) {
+            Node own = new Node(plan, false);
+            link(own);
+            return own;
+        }
+        Node test = tests.get(plan.id());
+        if (test != null && plan.clears().isEmpty()) {
+            return test;
+        }
+        Node shared = sharedFixtures.get(plan.id());
+        if (shared == null) {
+            shared = new Node(plan, false);
+            sharedFixtures.put(plan.id(), shared);
+            link(shared);
+        }
+        return shared;
+    }
+
+    private void order(Node node) {
+        if (node.index >= 0) {
+            return;
+        }
+        for (Node dependency : node.dependencies) {
+            order(dependency);
+        }
+        node.index = nodes.size();
+        nodes.add(node);
+    }
+
+    public static final class Node {
+        private final ExecutionPlan plan;
+        private final boolean test;
+        // One per fixture of the plan, in the same order
+        private final List<Node> dependencies = new ArrayList<>();
+        private int index = -1;
+
+        private Node(ExecutionPlan plan, boolean test) {
+            this.plan = plan;
+            this.test = test;
+        }
+
+        public ExecutionPlan plan() {
+            return plan;
+        }
+
+        /** True for the suite's tests, false for fixture runs. */
+        public boolean isTest() {
+            return test;
+        }
+
+        public List<Node> dependencies() {
+            return Collections.unmodifiableList(dependencies);
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public String label() {
+            return test ? plan.id() : plan.id() + " (fixture)";
+        }
+    }
+}
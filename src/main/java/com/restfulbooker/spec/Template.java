@@ -0,0 +1,114 @@
+package com.restfulbooker.spec;
+
+import com.restfulbooker.model.TestContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text with {@code {{name}}} placeholders, split once into literals and
+ * slots. A slot is either a context variable or one of the built-ins:
+ * {@code $nextId}, {@code $now}, {@code $status}, {@code $count} and
+ * {@code $invalid}. Templates without slots render to the same String every
+ * time. A variable that isn't set renders as "null". Request bodies use the
+ * byte-level {@link ByteTemplate} built from the same parse.
+ */
+final class Template {
+
+    enum Builtin { NEXT_ID, NOW, STATUS, COUNT, INVALID }
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String[] literals;
+    private final String[] variables;
+    private final Builtin[] builtins;
+    private final int literalLength;
+    private final String constant;
+
+    private Template(List<String> literals, List<String> variables, List<Builtin> builtins) {
+        this.literals = literals.toArray(String[]::new);
+        this.variables = variables.toArray(String[]::new);
+        this.builtins = builtins.toArray(Builtin[]::new);
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+        this.constant = this.variables.length == 0 ? this.literals[0] : null;
+    }
+
+    static Template compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        List<Builtin> builtins = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in: " + source);
+            }
+            String name = source.substring(open + OPEN.length(), close).trim();
+            literals.add(source.substring(position, open));
+            variables.add(name);
+            builtins.add(name.startsWith("$") ? builtin(name) : null);
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+        return new Template(literals, variables, builtins);
+    }
+
+    static Template compileOrNull(String source) {
+        return source != null ? compile(source) : null;
+    }
+
+    String render(TestContext context, Outcome outcome) {
+        if (constant != null) {
+            return constant;
+        }
+        StringBuilder out = new StringBuilder(literalLength + 16 * variables.length);
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            Builtin builtin = builtins[i];
+            if (builtin == null) {
+                out.append(context.get(variables[i]));
+            } else {
+                switch (builtin) {
+                    case NEXT_ID -> out.append(TestContext.nextId());
+                    case NOW -> out.append(System.currentTimeMillis());
+                    case STATUS -> out.append(outcome.status);
+                    case COUNT -> out.append(outcome.count);
+                    case INVALID -> out.append(outcome.invalid);
+                }
+            }
+        }
+        return out.append(literals[variables.length]).toString();
+    }
+
+    String[] literals() {
+        return literals;
+    }
+
+    String[] variables() {
+        return variables;
+    }
+
+    Builtin[] builtins() {
+        return builtins;
+    }
+
+    private static Builtin builtin(String name) {
+        return switch (name) {
+            case "$nextId" -> Builtin.NEXT_ID;
+            case "$now" -> Builtin.NOW;
+            case "$status" -> Builtin.STATUS;
+            case "$count" -> Builtin.COUNT;
+            case "$invalid" -> Builtin.INVALID;
+            default -> throw new IllegalArgumentException("Unknown built-in placeholder: " + name);
+        };
+    }
+
+    /** Values a test's response produced, for messages and response body summaries. */
+    static final class Outcome {
+        int status;
+        long count;
+        long invalid;
+    }
+}
@@ -0,0 +1,40 @@
+package com.restfulbooker.spec;
+
+/**
+ * A site's auth header. The header value is rebuilt only when the token
+ * changes, so authenticated requests don't concatenate it every time.
+ */
+final class TokenHeader {
+
+    private record Cached(String token, String value) {
+    }
+
+    private final String name;
+    private final String prefix;
+    private final String token;
+    private volatile Cached cached = new Cached(null, null);
+
+    TokenHeader(String name, String prefix, String token) {
+        this.name = name;
+        this.prefix = prefix != null ? prefix : "";
+        this.token = token;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /** The site's fixed token, or null if requests use the login token. */
+    String token() {
+        return token;
+    }
+
+    String value(String token) {
+        Cached current = cached;
+        if (token == null || !token.equals(current.token())) {
+            current = new Cached(token, prefix + token);
+            cached = current;
+        }
+        return current.value();
+    }
+}
@@ -0,0 +1,163 @@
+package com.restfulbooker.stats;
+
+import com.restfulbooker.model.WindowStats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A ring of time slots, each holding a latency histogram, kept in a single
+ * {@link AtomicLongArray}. Recording is a handful of atomic increments and
+ * never allocates; a query merges the slots inside the window, so its cost
+ * depends on the ring size and not on how many samples were recorded.
+ * <p>
+ * Slot layout: {@code [period, count, sum, passed, bucket 0 .. bucket n]}.
+ * The first writer of a new period claims the slot by swapping its period
+ * for {@link #RESETTING}, zeroes it and publishes the new period; writers
+ * that arrive meanwhile spin until it is published. A writer still holding a
+ * sample from a period the slot has already moved past drops the sample.
+ * <p>
+ * Latencies are bucketed log-linearly in milliseconds: exact below 16ms,
+ * then 8 buckets per power of two, which bounds the percentile error to
+ * about 6%.
+ */
+public class LatencyRing {
+
+    private static final long RESETTING = -1;
+    private static final int PERIOD = 0;
+    private static final int COUNT = 1;
+    private static final int SUM = 2;
+    private static final int PASSED = 3;
+    private static final int BUCKETS = 4;
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int MAX_EXPONENT = 24;
+    static final int BUCKET_COUNT = LINEAR_LIMIT + (MAX_EXPONENT - 3) * SUB_BUCKETS;
+
+    private final long slotMillis;
+    private final int slots;
+    private final int stride = BUCKETS + BUCKET_COUNT;
+    private final AtomicLongArray data;
+
+    public LatencyRing(long slotMillis, int slots) {
+        this.slotMillis = slotMillis;
+        this.slots = slots;
+        this.data = new AtomicLongArray(slots * stride);
+    }
+
+    public void record(long nowMillis, long latencyMillis, boolean passed) {
+        long period = nowMillis / slotMillis;
+        int base = (int) (period % slots) * stride;
+        while (true) {
+            long current = data.get(base + PERIOD);
+            if (current == period) {
+                break;
+            }
+            if (current == RESETTING) {
+                Thread.onSpinWait();
+            } else if (current > period) {
+                return;
+            } else if (data.compareAndSet(base + PERIOD, current, RESETTING)) {
+                for (int i = 1; i < stride; i++) {
+                    data.set(base + i, 0);
+                }
+                data.set(base + PERIOD, period);
+                break;
+            }
+        }
+        data.incrementAndGet(base + COUNT);
+        data.addAndGet(base + SUM, latencyMillis);
+        if (passed) {
+            data.incrementAndGet(base + PASSED);
+        }
+        data.incrementAndGet(base + BUCKETS + bucket(latencyMillis));
+    }
+
+    /**
+     * Fills {@code out} with the samples of the slots that started within
+     * {@code windowMillis} of now, the current partial slot included.
+     */
+    public void snapshot(long nowMillis, long windowMillis, WindowStats out) {
+        long newest = nowMillis / slotMillis;
+        long oldest = newest - Math.min(slots, Math.max(1, windowMillis / slotMillis)) + 1;
+        long count = 0;
+        long sum = 0;
+        long passed = 0;
+        long[] buckets = new long[BUCKET_COUNT];
+        long[] slotBuckets = new long[BUCKET_COUNT];
+        for (int slot = 0; slot < slots; slot++) {
+            int base = slot * stride;
+            long period = data.get(base + PERIOD);
+            if (period < oldest || period > newest) {
+                continue;
+            }
+            long slotCount = data.get(base + COUNT);
+            long slotSum = data.get(base + SUM);
+            long slotPassed = data.get(base + PASSED);
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                slotBuckets[i] = data.get(base + BUCKETS + i);
+            }
+            // Reset under us: the slot left the window while we read it
+            if (data.get(base + PERIOD) != period) {
+                continue;
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] += slotBuckets[i];
+            }
+            count += slotCount;
+            sum += slotSum;
+            passed += slotPassed;
+        }
+
+        out.setCount(count);
+        out.setMean(count == 0 ? 0 : (double) sum / count);
+        out.setPassRate(count == 0 ? 0 : (double) passed / count);
+        long total = 0;
+        for (long bucketCount : buckets) {
+            total += bucketCount;
+        }
+        out.setP50(percentile(buckets, total, 0.50));
+        out.setP95(percentile(buckets, total, 0.95));
+        out.setP99(percentile(buckets, total, 0.99));
+    }
+
+    static int bucket(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) Math.max(0, value);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - 4) * SUB_BUCKETS + subBucket;
+    }
+
+    // Midpoint of the bucket's range
+    static double bucketValue(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 4;
+        int subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (1L << exponent) + subBucket * width;
+        return lower + (width - 1) / 2.0;
+    }
+
+    private static double percentile(long[] buckets, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return bucketValue(i);
+            }
+        }
+        return bucketValue(buckets.length - 1);
+    }
+}
@@ -0,0 +1,104 @@
+package com.restfulbooker.stats;
+
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.model.WindowStats;
+import com.restfulbooker.service.TestCatalog;
+import com.restfulbooker.service.TestResultListener;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live latency and pass-rate statistics per test over the last minute, five
+ * minutes and hour. Rings for every catalog test are created up front, so
+ * recording a result is a map lookup plus atomic increments.
+ */
+@Component
+public class LatencyStats implements TestResultListener {
+
+    private static final Map<String, Long> WINDOWS = Map.of(
+            "1m", TimeUnit.MINUTES.toMillis(1),
+            "5m", TimeUnit.MINUTES.toMillis(5),
+            "1h", TimeUnit.HOURS.toMillis(1));
+    private static final List<String> WINDOW_ORDER = List.of("1m", "5m", "1h");
+
+    @Autowired
+    private TestCatalog catalog;
+
+    private final Map<String, TestRings> tests = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerTests() {
+        for (String site : catalog.getSites()) {
+            catalog.getSuite(site).keySet().forEach(testId -> tests.put(testId, new TestRings()));
+        }
+    }
+
+    @Override
+    public void onResult(TestResult result, TestContext context) {
+        // A skipped test never reached its API, so it has no latency to report
+        if ("SKIPPED".equals(result.getStatus())) {
+            return;
+        }
+        record(result.getTestId(), result.getDuration(), "PASSED".equals(result.getStatus()), System.currentTimeMillis());
+    }
+
+    public void record(String testId, long durationMillis, boolean passed, long nowMillis) {
+        TestRings rings = tests.get(testId);
+        if (rings == null) {
+            rings = tests.computeIfAbsent(testId, id -> new TestRings());
+        }
+        rings.recent.record(nowMillis, durationMillis, passed);
+        rings.hourly.record(nowMillis, durationMillis, passed);
+    }
+
+    /** Stats of one test over a 1m, 5m or 1h window; null if the test or window is unknown. */
+    public WindowStats query(String testId, String window, long nowMillis) {
+        TestRings rings = tests.get(testId);
+        Long windowMillis = WINDOWS.get(window);
+        if (rings == null || windowMillis == null) {
+            return null;
+        }
+        // Five-second slots for the short windows, one-minute slots for the hour
+        LatencyRing ring = windowMillis <= TestRings.RECENT_SPAN ? rings.recent : rings.hourly;
+        WindowStats stats = new WindowStats();
+        stats.setTestId(testId);
+        stats.setWindow(window);
+        ring.snapshot(nowMillis, windowMillis, stats);
+        return stats;
+    }
+
+    public List<WindowStats> queryAll(String window) {
+        if (!WINDOWS.containsKey(window)) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        List<WindowStats> stats = new ArrayList<>();
+        tests.keySet().stream().sorted().forEach(testId -> stats.add(query(testId, window, now)));
+        return stats;
+    }
+
+    public List<WindowStats> queryTest(String testId) {
+        if (!tests.containsKey(testId)) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        List<WindowStats> stats = new ArrayList<>();
+        WINDOW_ORDER.forEach(window -> stats.add(query(testId, window, now)));
+        return stats;
+    }
+
+    private static class TestRings {
+        static final long RECENT_SPAN = TimeUnit.MINUTES.toMillis(5);
+
+        final LatencyRing recent = new LatencyRing(TimeUnit.SECONDS.toMillis(5), 60);
+        final LatencyRing hourly = new LatencyRing(TimeUnit.MINUTES.toMillis(1), 60);
+    }
+}
@@ -0,0 +1,40 @@
+package com.restfulbooker.stub;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Runs the {@link StubServer} inside the dashboard under the "stub" profile,
+ * which also points restful-booker.base-url and petstore.base-url at it
+ * (see application-stub.properties).
+ */
+@Component
+@Profile("stub")
+public class LocalStubServer extends StubServer {
+
+    public LocalStubServer(@Value("${stub.port:8089}") int port,
+                           @Value("${stub.latency:0ms}") Duration latency,
+                           @Value("${stub.latency-jitter:0ms}") Duration latencyJitter,
+                           @Value("${stub.error-rate:0}") double errorRate,
+                           @Value("${stub.auth-latency:0ms}") Duration authLatency,
+                           @Value("${stub.reset-interval:10m}") Duration resetInterval) throws IOException {
+        super(port);
+        setLatency(latency, latencyJitter);
+        setErrorRate(errorRate);
+        setAuthLatency(authLatency);
+        setResetInterval(resetInterval);
+        System.out.println("Stub APIs listening on " + getBookerUrl() + " (latency " + latency.toMillis() + "ms +"
+                + latencyJitter.toMillis() + "ms jitter, error rate " + errorRate + ")");
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        super.close();
+    }
+}
@@ -0,0 +1,445 @@
+package com.restfulbooker.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for restful-booker (under /) and the Swagger Petstore
+ * (under /v2), covering every route the bundled specs call, with state kept
+ * in memory. Each request runs on its own virtual thread, so injected
+ * latency costs no platform threads and the stub keeps up with load runs.
+ * <p>
+ * Injected faults: every request is delayed by {@code latency} plus a random
+ * share of {@code latencyJitter}, and answered 503 with probability
+ * {@code errorRate}. /auth can be slowed down separately, like a Heroku dyno
+ * waking up. Like restful-booker, all data is wiped every
+ * {@code resetInterval}; zero keeps it for the server's lifetime.
+ */
+public class StubServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String ADMIN_BASIC_AUTH = "Basic YWRtaW46cGFzc3dvcmQxMjM=";
+    private static final String[] REQUIRED_BOOKING_FIELDS = {"firstname", "lastname", "totalprice", "depositpaid", "bookingdates"};
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<Integer, ObjectNode> bookings = new ConcurrentHashMap<>();
+    private final Map<String, ObjectNode> pets = new ConcurrentHashMap<>();
+    private final Map<String, ObjectNode> orders = new ConcurrentHashMap<>();
+    private final Map<String, ObjectNode> users = new ConcurrentHashMap<>();
+    private final AtomicInteger bookingSequence = new AtomicInteger();
+    private final AtomicLong lastReset = new AtomicLong(System.nanoTime());
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicInteger authCalls = new AtomicInteger();
+
+    private volatile String token = newToken();
+    private volatile long latencyNanos;
+    private volatile long latencyJitterNanos;
+    private volatile double errorRate;
+    private volatile long authLatencyNanos;
+    private volatile long resetIntervalNanos;
+
+    static {
+        // Without TCP_NODELAY, Nagle's algorithm and the client's delayed ACKs add ~40ms to every small response
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    public StubServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String getBookerUrl() {
+        return "http://127.0.0.1:" + getPort();
+    }
+
+    public String getPetstoreUrl() {
+        return getBookerUrl() + "/v2";
+    }
+
+    public void setLatency(Duration latency, Duration jitter) {
+        this.latencyNanos = latency.toNanos();
+        this.latencyJitterNanos = jitter.toNanos();
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public void setAuthLatency(Duration authLatency) {
+        this.authLatencyNanos = authLatency.toNanos();
+    }
+
+    public void setResetInterval(Duration resetInterval) {
+        this.resetIntervalNanos = resetInterval.toNanos();
+    }
+
+    /** Invalidates every token issued so far, as if the API had restarted. */
+    public void rotateToken() {
+        token = newToken();
+    }
+
+    public int getBookingsCreated() {
+        return bookingSequence.get();
+    }
+
+    public int getAuthCalls() {
+        return authCalls.get();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    /** Called after every successful PUT, PATCH and DELETE of a resource. */
+    protected void onMutation(String method, String path) {
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            resetIfDue();
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getRawPath();
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            byte[] body = exchange.getRequestBody().readAllBytes();
+
+            sleep(latencyNanos + (latencyJitterNanos > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterNanos) : 0));
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                respond(exchange, 503, "text/plain", "Service Unavailable");
+                return;
+            }
+
+            try {
+                if (path.startsWith("/v2/")) {
+                    handlePetstore(exchange, method, path.substring(3), query, body);
+                } else {
+                    handleBooker(exchange, method, path, query, body);
+                }
+            } catch (RuntimeException e) {
+                // Still open here, so the client gets an answer rather than a dropped connection
+                respond(exchange, 500, "text/plain", "Internal Server Error");
+            }
+        }
+    }
+
+    private void handleBooker(HttpExchange exchange, String method, String path, Map<String, String> query, byte[] body) throws IOException {
+        if (path.equals("/ping") && method.equals("GET")) {
+            respond(exchange, 201, "text/plain", "Created");
+        } else if (path.equals("/auth") && method.equals("POST")) {
+            authCalls.incrementAndGet();
+            sleep(authLatencyNanos);
+            JsonNode credentials = readOrNull(body);
+            if (credentials != null && "admin".equals(credentials.path("username").asText())
+                    && "password123".equals(credentials.path("password").asText())) {
+                respondJson(exchange, 200, MAPPER.createObjectNode().put("token", token));
+            } else {
+                respondJson(exchange, 200, MAPPER.createObjectNode().put("reason", "Bad credentials"));
+            }
+        } else if (path.equals("/booking") && method.equals("GET")) {
+            ArrayNode ids = MAPPER.createArrayNode();
+            bookings.forEach((id, booking) -> {
+                if (matches(booking, "firstname", query.get("firstname")) && matches(booking, "lastname", query.get("lastname"))) {
+                    ids.addObject().put("bookingid", id);
+                }
+            });
+            respondJson(exchange, 200, ids);
+        } else if (path.equals("/booking") && method.equals("POST")) {
+            JsonNode booking = readOrNull(body);
+            if (!(booking instanceof ObjectNode object) || !hasFields(object, REQUIRED_BOOKING_FIELDS)) {
+                respond(exchange, 500, "text/plain", "Internal Server Error");
+                return;
+            }
+            int id = bookingSequence.incrementAndGet();
+            bookings.put(id, object);
+            ObjectNode created = MAPPER.createObjectNode().put("bookingid", id);
+            created.set("booking", object);
+            respondJson(exchange, 200, created);
+        } else if (path.startsWith("/booking/")) {
+            handleBooking(exchange, method, path, body);
+        } else {
+            respond(exchange, 404, "text/plain", "Not Found");
+        }
+    }
+
+    private void handleBooking(HttpExchange exchange, String method, String path, byte[] body) throws IOException {
+        Integer id = parseInt(path.substring("/booking/".length()));
+        ObjectNode booking = id != null ? bookings.get(id) : null;
+        if (method.equals("GET")) {
+            if (booking == null) {
+                respond(exchange, 404, "text/plain", "Not Found");
+            } else {
+                respondJson(exchange, 200, booking);
+            }
+            return;
+        }
+        String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (!("token=" + token).equals(cookie) && !ADMIN_BASIC_AUTH.equals(authorization)) {
+            respond(exchange, 403, "text/plain", "Forbidden");
+            return;
+        }
+        if (booking == null) {
+            respond(exchange, 405, "text/plain", "Method Not Allowed");
+            return;
+        }
+        switch (method) {
+            case "PUT" -> {
+                JsonNode replacement = readOrNull(body);
+                if (!(replacement instanceof ObjectNode object) || !hasFields(object, REQUIRED_BOOKING_FIELDS)) {
+                    respond(exchange, 400, "text/plain", "Bad Request");
+                    return;
+                }
+                bookings.put(id, object);
+                onMutation(method, path);
+                respondJson(exchange, 200, object);
+            }
+            case "PATCH" -> {
+                JsonNode changes = readOrNull(body);
+                if (!(changes instanceof ObjectNode object)) {
+                    respond(exchange, 400, "text/plain", "Bad Request");
+                    return;
+                }
+                ObjectNode patched = booking.deepCopy();
+                patched.setAll(object);
+                bookings.put(id, patched);
+                onMutation(method, path);
+                respondJson(exchange, 200, patched);
+            }
+            case "DELETE" -> {
+                if (bookings.remove(id) == null) {
+                    respond(exchange, 405, "text/plain", "Method Not Allowed");
+                    return;
+                }
+                onMutation(method, path);
+                respond(exchange, 201, "text/plain", "Created");
+            }
+            default -> respond(exchange, 405, "text/plain", "Method Not Allowed");
+        }
+    }
+
+    // Petstore paths arrive without the /v2 prefix
+    private void handlePetstore(HttpExchange exchange, String method, String path, Map<String, String> query, byte[] body) throws IOException {
+        if (path.equals("/pet") && (method.equals("POST") || method.equals("PUT"))) {
+            storeById(exchange, method, "/pet", pets, body);
+        } else if (path.equals("/pet/findByStatus") && method.equals("GET")) {
+            ArrayNode matching = MAPPER.createArrayNode();
+            String statuses = "," + query.getOrDefault("status", "") + ",";
+            pets.values().forEach(pet -> {
+                if (statuses.contains("," + pet.path("status").asText() + ",")) {
+                    matching.add(pet);
+                }
+            });
+            respondJson(exchange, 200, matching);
+        } else if (path.startsWith("/pet/")) {
+            handleResource(exchange, method, path, path.substring("/pet/".length()), pets, "Pet not found");
+        } else if (path.equals("/store/order") && method.equals("POST")) {
+            storeById(exchange, method, "/store/order", orders, body);
+        } else if (path.equals("/store/inventory") && method.equals("GET")) {
+            Map<String, Integer> inventory = new HashMap<>();
+            pets.values().forEach(pet -> inventory.merge(pet.path("status").asText("unknown"), 1, Integer::sum));
+            respondJson(exchange, 200, MAPPER.valueToTree(inventory));
+        } else if (path.startsWith("/store/order/")) {
+            handleResource(exchange, method, path, path.substring("/store/order/".length()), orders, "Order not found");
+        } else if (path.equals("/user") && method.equals("POST")) {
+            JsonNode user = readOrNull(body);
+            if (!(user instanceof ObjectNode object) || object.path("username").asText().isEmpty()) {
+                respondJson(exchange, 400, message(400, "error", "bad input"));
+                return;
+            }
+            users.put(object.path("username").asText(), object);
+            respondJson(exchange, 200, message(200, "unknown", object.path("id").asText()));
+        } else if (path.equals("/user/login") && method.equals("GET")) {
+            respondJson(exchange, 200, message(200, "unknown", "logged in user session:" + System.currentTimeMillis()));
+        } else if (path.equals("/user/logout") && method.equals("GET")) {
+            respondJson(exchange, 200, message(200, "unknown", "ok"));
+        } else if (path.startsWith("/user/")) {
+            String username = URLDecoder.decode(path.substring("/user/".length()), StandardCharsets.UTF_8);
+            if (method.equals("PUT")) {
+                JsonNode user = readOrNull(body);
+                if (!(user instanceof ObjectNode object)) {
+                    respondJson(exchange, 400, message(400, "error", "bad input"));
+                    return;
+                }
+                users.put(username, object);
+                onMutation(method, "/v2" + path);
+                respondJson(exchange, 200, message(200, "unknown", object.path("id").asText()));
+            } else {
+                handleResource(exchange, method, path, username, users, "User not found");
+            }
+        } else {
+            respondJson(exchange, 404, message(404, "unknown", "null"));
+        }
+    }
+
+    private void storeById(HttpExchange exchange, String method, String collection, Map<String, ObjectNode> resources, byte[] body) throws IOException {
+        JsonNode resource = readOrNull(body);
+        if (!(resource instanceof ObjectNode object) || !object.path("id").canConvertToLong()) {
+            respondJson(exchange, 405, message(405, "unknown", "Invalid input"));
+            return;
+        }
+        String id = object.path("id").asText();
+        resources.put(id, object);
+        if (method.equals("PUT")) {
+            onMutation(method, "/v2" + collection + "/" + id);
+        }
+        respondJson(exchange, 200, object);
+    }
+
+    private void handleResource(HttpExchange exchange, String method, String path, String key,
+                                Map<String, ObjectNode> resources, String notFound) throws IOException {
+        switch (method) {
+            case "GET" -> {
+                ObjectNode resource = resources.get(key);
+                if (resource == null) {
+                    respondJson(exchange, 404, message(1, "error", notFound));
+                } else {
+                    respondJson(exchange, 200, resource);
+                }
+            }
+            case "DELETE" -> {
+                if (resources.remove(key) == null) {
+                    respond(exchange, 404, "application/json", "");
+                    return;
+                }
+                onMutation(method, "/v2" + path);
+                respondJson(exchange, 200, message(200, "unknown", key));
+            }
+            default -> respondJson(exchange, 405, message(405, "unknown", "Method Not Allowed"));
+        }
+    }
+
+    // Wipes all data once per reset interval, on the first request after it elapsed
+    private void resetIfDue() {
+        long interval = resetIntervalNanos;
+        long last = lastReset.get();
+        long now = System.nanoTime();
+        if (interval > 0 && now - last >= interval && lastReset.compareAndSet(last, now)) {
+            bookings.clear();
+            pets.clear();
+            orders.clear();
+            users.clear();
+        }
+    }
+
+    private static ObjectNode message(int code, String type, String message) {
+        return MAPPER.createObjectNode().put("code", code).put("type", type).put("message", message);
+    }
+
+    private static boolean matches(JsonNode resource, String field, String expected) {
+        return expected == null || expected.equals(resource.path(field).asText());
+    }
+
+    private static boolean hasFields(ObjectNode object, String... fields) {
+        for (String field : fields) {
+            if (!object.hasNonNull(field)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static JsonNode readOrNull(byte[] body) {
+        try {
+            return body.length == 0 ? null : MAPPER.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Integer parseInt(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String newToken() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 15);
+    }
+
+    private static void respondJson(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        respond(exchange, status, "application/json", MAPPER.writeValueAsBytes(body));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        respond(exchange, status, contentType, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,162 @@
+package com.restfulbooker.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result ({@code -rf json -rff target/jmh-result.json})
+ * against the committed baseline and exits non-zero on a regression:
+ * <ul>
+ *   <li>bytes allocated per operation ({@code -prof gc}) up by more than
+ *   --alloc-tolerance (default 5%) and 64 bytes;</li>
+ *   <li>time per operation up by more than --time-tolerance (default 20%)
+ *   beyond the error of both measurements.</li>
+ * </ul>
+ * Allocation is checked first because it barely varies between machines;
+ * timings only compare meaningfully against a baseline recorded on the
+ * same kind of machine, so refresh it with --update after an intended change.
+ * <p>
+ * Usage: {@code BaselineCheck <result.json> [baseline.json] [--time-tolerance=0.2]
+ * [--alloc-tolerance=0.05] [--update]}
+ */
+public class BaselineCheck {
+
+    private static final String DEFAULT_BASELINE = "src/test/resources/benchmarks/baseline.json";
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    private static final double MIN_ALLOCATION_DELTA = 64;
+
+    public static void main(String[] args) throws IOException {
+        String resultFile = null;
+        String baselineFile = DEFAULT_BASELINE;
+        double timeTolerance = 0.2;
+        double allocTolerance = 0.05;
+        boolean update = false;
+        for (String arg : args) {
+            if (arg.startsWith("--time-tolerance=")) {
+                timeTolerance = Double.parseDouble(arg.substring("--time-tolerance=".length()));
+            } else if (arg.startsWith("--alloc-tolerance=")) {
+                allocTolerance = Double.parseDouble(arg.substring("--alloc-tolerance=".length()));
+            } else if (arg.equals("--update")) {
+                update = true;
+            } else if (resultFile == null) {
+                resultFile = arg;
+            } else {
+                baselineFile = arg;
+            }
+        }
+        if (resultFile == null) {
+            System.err.println("Usage: BaselineCheck <result.json> [baseline.json] [--time-tolerance=0.2] [--alloc-tolerance=0.05] [--update]");
+            System.exit(2);
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode results = mapper.readTree(new File(resultFile));
+        File baseline = new File(baselineFile);
+        if (update) {
+            Map<String, JsonNode> merged = baseline.exists() ? index(mapper.readTree(baseline)) : new LinkedHashMap<>();
+            index(results).forEach((name, run) -> merged.put(name, trim(mapper, run)));
+            baseline.getParentFile().mkdirs();
+            mapper.writerWithDefaultPrettyPrinter().writeValue(baseline, merged.values());
+            System.out.println("Updated " + baselineFile + " with " + results.size() + " benchmarks");
+            return;
+        }
+
+        Map<String, JsonNode> expected = index(mapper.readTree(baseline));
+        int regressions = 0;
+        for (JsonNode run : results) {
+            String name = key(run);
+            JsonNode base = expected.get(name);
+            if (base == null) {
+                System.out.printf("%-70s no baseline%n", name);
+                continue;
+            }
+            regressions += compareAllocation(name, base, run, allocTolerance);
+            regressions += compareTime(name, base, run, timeTolerance);
+        }
+        System.out.println(regressions == 0 ? "No regressions against " + baselineFile : regressions + " regression(s) against " + baselineFile);
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    private static int compareAllocation(String name, JsonNode base, JsonNode run, double tolerance) {
+        JsonNode before = secondary(base, ALLOCATION);
+        JsonNode after = secondary(run, ALLOCATION);
+        if (before == null || after == null) {
+            return 0;
+        }
+        double was = before.path("score").asDouble();
+        double now = after.path("score").asDouble();
+        boolean regressed = now - was > Math.max(MIN_ALLOCATION_DELTA, was * tolerance);
+        System.out.printf("%-70s %12.0f -> %12.0f B/op %s%n", name, was, now, regressed ? "REGRESSED" : "ok");
+        return regressed ? 1 : 0;
+    }
+
+    private static int compareTime(String name, JsonNode base, JsonNode run, double tolerance) {
+        JsonNode before = base.path("primaryMetric");
+        JsonNode after = run.path("primaryMetric");
+        double was = before.path("score").asDouble();
+        double now = after.path("score").asDouble();
+        double error = finite(before.path("scoreError").asDouble()) + finite(after.path("scoreError").asDouble());
+        boolean regressed = now - was > was * tolerance + error;
+        System.out.printf("%-70s %12.3f -> %12.3f %s %s%n", name, was, now, after.path("scoreUnit").asText(), regressed ? "REGRESSED" : "ok");
+        return regressed ? 1 : 0;
+    }
+
+    // Keeps what the check compares, without per-iteration raw data and the JVM's local paths
+    private static JsonNode trim(ObjectMapper mapper, JsonNode run) {
+        ObjectNode trimmed = mapper.createObjectNode();
+        for (String field : new String[]{"benchmark", "mode", "forks", "jvmArgs", "jdkVersion", "params"}) {
+            if (run.has(field)) {
+                trimmed.set(field, run.get(field));
+            }
+        }
+        trimmed.set("primaryMetric", metric(mapper, run.path("primaryMetric")));
+        JsonNode allocation = secondary(run, ALLOCATION);
+        if (allocation != null) {
+            trimmed.putObject("secondaryMetrics").set(ALLOCATION, metric(mapper, allocation));
+        }
+        return trimmed;
+    }
+
+    private static ObjectNode metric(ObjectMapper mapper, JsonNode metric) {
+        return mapper.createObjectNode()
+                .put("score", metric.path("score").asDouble())
+                .put("scoreError", finite(metric.path("scoreError").asDouble()))
+                .put("scoreUnit", metric.path("scoreUnit").asText());
+    }
+
+    // JMH releases before 1.36 prefixed profiler metrics with a middle dot
+    private static JsonNode secondary(JsonNode run, String metric) {
+        JsonNode metrics = run.path("secondaryMetrics");
+        JsonNode found = metrics.get(metric);
+        return found != null ? found : metrics.get("·" + metric);
+    }
+
+    private static Map<String, JsonNode> index(JsonNode runs) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            byKey.put(key(run), run);
+        }
+        return byKey;
+    }
+
+    private static String key(JsonNode run) {
+        StringBuilder key = new StringBuilder(run.path("benchmark").asText().replace("com.restfulbooker.benchmarks.", ""));
+        Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+        while (params.hasNext()) {
+            Map.Entry<String, JsonNode> param = params.next();
+            key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+        }
+        return key.toString();
+    }
+
+    private static double finite(double value) {
+        return Double.isFinite(value) ? value : 0;
+    }
+}
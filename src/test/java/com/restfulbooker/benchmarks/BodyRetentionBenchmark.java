@@ -0,0 +1,97 @@
+package com.restfulbooker.benchmarks;
+
+import com.restfulbooker.body.BodyRetention;
+import com.restfulbooker.body.ResponseBodies;
+import com.restfulbooker.model.TestResult;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap held by 10k test results with 16KB bodies under each retention mode,
+ * against keeping every body as a String ("full"). Reported as the
+ * retainedKilobytes counter, measured as the used heap after a full GC.
+ * The compressed budget is lifted so every body stays in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BodyRetentionBenchmark {
+
+    private static final int RESULTS = 10_000;
+    private static final int BOOKINGS_PER_BODY = 800;
+
+    @Param({"full", "truncate", "hash", "compress", "spill"})
+    public String mode;
+
+    private Path directory;
+    private ResponseBodies bodies;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedHeap {
+        public long retainedKilobytes;
+    }
+
+    @Setup(Level.Iteration)
+    public void openStore() throws IOException {
+        directory = Files.createTempDirectory("bodies");
+        if (!mode.equals("full")) {
+            bodies = new ResponseBodies(BodyRetention.valueOf(mode.toUpperCase()), DataSize.ofKilobytes(1),
+                    DataSize.ofGigabytes(1), directory, DataSize.ofMegabytes(64), 64);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeStore() throws IOException {
+        if (bodies != null) {
+            bodies.close();
+            bodies = null;
+        }
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<TestResult> retainResults(RetainedHeap heap) {
+        long before = usedHeapAfterGc();
+        SplittableRandom random = new SplittableRandom(42);
+        List<TestResult> results = new ArrayList<>(RESULTS);
+        for (int i = 0; i < RESULTS; i++) {
+            TestResult result = new TestResult();
+            result.setResponseBody(bookingsBody(random));
+            if (bodies != null) {
+                bodies.retain(result);
+            }
+            results.add(result);
+        }
+        heap.retainedKilobytes = (usedHeapAfterGc() - before) / 1024;
+        return results;
+    }
+
+    private static String bookingsBody(SplittableRandom random) {
+        StringBuilder json = new StringBuilder(BOOKINGS_PER_BODY * 20).append('[');
+        for (int i = 0; i < BOOKINGS_PER_BODY; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"bookingid\":").append(random.nextInt(1, 100_000)).append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
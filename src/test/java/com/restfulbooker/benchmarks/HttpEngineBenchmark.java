@@ -0,0 +1,80 @@
+package com.restfulbooker.benchmarks;
+
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.http.HttpEngine;
+import com.restfulbooker.http.HttpEngine.Request;
+import com.restfulbooker.stub.StubServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two {@link HttpEngine}s side by side on GET /booking/{id} against the
+ * local stub: {@code send} from eight threads at once, reported as
+ * throughput and as a latency distribution (p99 is in the SampleTime
+ * output), and {@code sendAsyncBatch}, 32 requests issued together from a
+ * single thread. Run with {@code -prof gc} for bytes allocated per request.
+ * The stub speaks HTTP/1.1 only, so HTTP/2 multiplexing shows up against
+ * TLS targets rather than here.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch"})
+public class HttpEngineBenchmark {
+
+    private static final int BATCH = 32;
+
+    @Param({"restassured", "jdk"})
+    public String engine;
+
+    private StubServer stub;
+    private HttpClientPools pools;
+    private HttpEngine http;
+    private Request getBooking;
+
+    @Setup
+    public void setup() throws Exception {
+        stub = new StubServer(0);
+        pools = new HttpClientPools(64, 128, Duration.ofSeconds(30), Duration.ofSeconds(20), engine, new String[0]);
+        http = pools.engine("restful-booker");
+        String booking = """
+                {"firstname": "John", "lastname": "Doe", "totalprice": 150, "depositpaid": true,
+                 "bookingdates": {"checkin": "2024-12-01", "checkout": "2024-12-05"}}""";
+        http.send(Request.post(stub.getBookerUrl() + "/booking", "application/json", booking.getBytes(StandardCharsets.UTF_8)));
+        getBooking = Request.get(stub.getBookerUrl() + "/booking/1");
+    }
+
+    @TearDown
+    public void tearDown() {
+        pools.engine("restful-booker").shutdown();
+        stub.close();
+    }
+
+    @Benchmark
+    @Threads(8)
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public byte[] send() {
+        return http.send(getBooking).body();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int sendAsyncBatch() {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<HttpEngine.Response>[] responses = new CompletableFuture[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            responses[i] = http.sendAsync(getBooking);
+        }
+        int bytes = 0;
+        for (CompletableFuture<HttpEngine.Response> response : responses) {
+            bytes += response.join().body().length;
+        }
+        return bytes;
+    }
+}
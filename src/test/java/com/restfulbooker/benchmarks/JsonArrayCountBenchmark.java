@@ -0,0 +1,49 @@
+package com.restfulbooker.benchmarks;
+
+import com.restfulbooker.json.JsonArrays;
+import io.restassured.path.json.JsonPath;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counting the elements of a {@code GET /booking} style body with RestAssured's
+ * {@code jsonPath().getList("$")} against {@link JsonArrays}. Run with
+ * {@code -prof gc} to compare the bytes allocated per count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class JsonArrayCountBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int elements;
+
+    private byte[] body;
+
+    @Setup
+    public void createBody() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < elements; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"bookingid\":").append(i + 1).append('}');
+        }
+        body = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int jsonPath() {
+        // What response.jsonPath() does: decode the whole body, then build the object graph
+        return JsonPath.from(new String(body, StandardCharsets.UTF_8)).getList("$").size();
+    }
+
+    @Benchmark
+    public long streaming() throws IOException {
+        return JsonArrays.count(new ByteArrayInputStream(body), "bookingid").elements();
+    }
+}
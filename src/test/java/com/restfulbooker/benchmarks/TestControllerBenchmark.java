@@ -0,0 +1,77 @@
+package com.restfulbooker.benchmarks;
+
+import com.restfulbooker.Application;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.TestExecutor;
+import com.restfulbooker.tests.StubApiServer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * {@code GET /api/tests/health} through the whole dashboard, booted against
+ * the local stub: {@code controller} goes through MockMvc (dispatcher
+ * servlet, TestController, Jackson), {@code executor} calls
+ * {@link TestExecutor} directly with the same listeners, result history
+ * included. The difference is the MVC and serialization cost per test; see
+ * {@link TestOverheadBenchmark} for the stages below the executor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch"})
+public class TestControllerBenchmark {
+
+    private StubApiServer stub;
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private TestExecutor testExecutor;
+
+    @Setup
+    public void setup() throws Exception {
+        stub = new StubApiServer();
+        stub.setLatency(Duration.ZERO, Duration.ZERO);
+        directory = Files.createTempDirectory("controller-benchmark");
+        context = new SpringApplicationBuilder(Application.class).run(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--restful-booker.base-url=" + stub.getBookerUrl(),
+                "--petstore.base-url=" + stub.getPetstoreUrl(),
+                "--history.dir=" + directory.resolve("history"),
+                "--body.retention.dir=" + directory.resolve("bodies"),
+                "--fixture.pool.size=0");
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        testExecutor = context.getBean(TestExecutor.class);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        context.close();
+        stub.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public byte[] controller() throws Exception {
+        return mockMvc.perform(get("/api/tests/health")).andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public TestResult executor() {
+        return testExecutor.run("health");
+    }
+}
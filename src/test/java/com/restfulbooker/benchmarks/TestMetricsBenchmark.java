@@ -0,0 +1,55 @@
+package com.restfulbooker.benchmarks;
+
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.metrics.TestMetrics;
+import com.restfulbooker.model.PhaseTimings;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.spec.SpecEngine;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording one test result into the Prometheus registry, as every load
+ * request does: a timer with a percentile histogram and a status code
+ * counter. Four threads record into the same meters, as concurrent load
+ * workers do; run with {@code -prof gc} to check it stays allocation-free.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class TestMetricsBenchmark {
+
+    private TestMetrics metrics;
+    private TestResult passed;
+
+    @Setup
+    public void setup() throws Exception {
+        HttpClientPools pools = new HttpClientPools(8, 16, Duration.ofSeconds(30), Duration.ofSeconds(20));
+        SpecEngine engine = new SpecEngine(new String[]{"classpath*:specs/*.yml"}, new StandardEnvironment(), pools,
+                new AuthTokenManager("http://127.0.0.1:1", Duration.ofMinutes(10), Duration.ofMinutes(1), pools));
+        metrics = new TestMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), engine);
+
+        passed = new TestResult();
+        passed.setTestId("get-booking");
+        passed.setStatus("PASSED");
+        passed.setStatusCode(200);
+        PhaseTimings phases = new PhaseTimings();
+        phases.setTotal(TimeUnit.MILLISECONDS.toNanos(42));
+        passed.setPhases(phases);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void record() {
+        metrics.record("get-booking", passed);
+    }
+}
@@ -0,0 +1,156 @@
+package com.restfulbooker.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.http.HttpEngine.Request;
+import com.restfulbooker.http.InstrumentedHttpClientFactory;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.spec.ExecutionPlan;
+import com.restfulbooker.spec.SpecEngine;
+import com.restfulbooker.tests.StubApiServer;
+import io.restassured.path.json.JsonPath;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The framework's own share of a test's duration, stage by stage, against
+ * the local stub on loopback with no injected latency:
+ * <ul>
+ *   <li>{@code rawRoundTrip}: GET /booking/{id} with the JDK client, the floor
+ *   every other round trip is compared against;</li>
+ *   <li>{@code restAssuredRoundTrip} and {@code restAssuredSpec}: the same GET
+ *   through RestAssured and the site's pool, and building the request
+ *   specification alone;</li>
+ *   <li>{@code jsonPathField} and {@code jacksonPointerField}: reading a field
+ *   with Groovy jsonPath, as the hand-written tests did, and with the
+ *   Jackson pointer the spec engine uses;</li>
+ *   <li>{@code testResult} and {@code serializeResult}: filling in a
+ *   {@link TestResult} and writing it with the ObjectMapper Spring MVC uses;</li>
+ *   <li>{@code specEngineGetBooking}: the whole get-booking test.</li>
+ * </ul>
+ * {@link TestControllerBenchmark} covers the HTTP request path on top.
+ * Run with {@code -prof gc}; bytes allocated per operation are stable across
+ * machines and runs, so they are the first thing {@link BaselineCheck} compares.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch"})
+public class TestOverheadBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private StubApiServer stub;
+    private HttpClientPools pools;
+    private InstrumentedHttpClientFactory restAssured;
+    private HttpClient httpClient;
+    private SpecEngine engine;
+    private ExecutionPlan getBooking;
+    private ObjectMapper controllerMapper;
+
+    private String bookingUrl;
+    private HttpRequest rawRequest;
+    private byte[] bookingBytes;
+    private String bookingJson;
+    private String bookingId;
+    private TestResult result;
+
+    @Setup
+    public void setup() throws Exception {
+        stub = new StubApiServer();
+        stub.setLatency(Duration.ZERO, Duration.ZERO);
+        stub.setAuthDelayMillis(0);
+        pools = new HttpClientPools(64, 128, Duration.ofSeconds(30), Duration.ofSeconds(20));
+        AuthTokenManager authTokens = new AuthTokenManager(stub.getBookerUrl(), Duration.ofMinutes(10), Duration.ofMinutes(1), pools);
+        engine = stub.specEngine(pools, authTokens);
+        restAssured = new InstrumentedHttpClientFactory("benchmark", 64, 128, Duration.ofSeconds(30));
+        getBooking = engine.getPlan("get-booking");
+        controllerMapper = Jackson2ObjectMapperBuilder.json().build();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        TestContext context = new TestContext();
+        TestResult created = engine.execute(engine.getPlan("create-booking"), context);
+        if (!"PASSED".equals(created.getStatus())) {
+            throw new IllegalStateException("Couldn't create a booking: " + created.getMessage());
+        }
+        bookingId = context.get("bookingId");
+        bookingUrl = stub.getBookerUrl() + "/booking/" + bookingId;
+        rawRequest = HttpRequest.newBuilder(URI.create(bookingUrl)).build();
+        bookingBytes = httpClient.send(rawRequest, HttpResponse.BodyHandlers.ofByteArray()).body();
+        bookingJson = new String(bookingBytes, StandardCharsets.UTF_8);
+        result = engine.execute(getBooking, context);
+        result.setTestId(getBooking.id());
+    }
+
+    @TearDown
+    public void tearDown() {
+        restAssured.shutdown();
+        stub.close();
+    }
+
+    @Benchmark
+    public byte[] rawRoundTrip() throws Exception {
+        return httpClient.send(rawRequest, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Benchmark
+    public byte[] restAssuredRoundTrip() {
+        return pools.engine(getBooking.site()).send(Request.get(bookingUrl)).body();
+    }
+
+    @Benchmark
+    public RequestSpecification restAssuredSpec() {
+        return restAssured.request()
+                .urlEncodingEnabled(false)
+                .contentType(getBooking.contentType())
+                .headers(Map.of("Accept", "application/json"));
+    }
+
+    @Benchmark
+    public String jsonPathField() {
+        return JsonPath.from(bookingJson).getString("firstname");
+    }
+
+    @Benchmark
+    public String jacksonPointerField() throws Exception {
+        return MAPPER.readTree(bookingBytes).at("/firstname").asText();
+    }
+
+    @Benchmark
+    public TestResult testResult() {
+        TestResult built = new TestResult();
+        built.setTestId(getBooking.id());
+        built.setTestName(getBooking.name());
+        built.setStatusCode(200);
+        built.setStatus("PASSED");
+        built.setMessage("Successfully retrieved booking ID: " + bookingId);
+        built.setResponseBody(bookingJson);
+        return built;
+    }
+
+    @Benchmark
+    public byte[] serializeResult() throws Exception {
+        return controllerMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public TestResult specEngineGetBooking() {
+        TestContext context = new TestContext();
+        context.set("bookingId", bookingId);
+        return engine.execute(getBooking, context);
+    }
+}
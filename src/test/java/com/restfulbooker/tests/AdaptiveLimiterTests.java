@@ -0,0 +1,198 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.http.AdaptiveLimiter;
+import com.restfulbooker.http.ConcurrencyLimiters;
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.http.HttpEngine.Request;
+import com.restfulbooker.model.LimiterStats;
+import com.restfulbooker.stub.StubServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveLimiterTests {
+
+    private static final int CAPACITY = 20;
+    private static final long SERVICE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    @DisplayName("AIMD settles around the concurrency at which the target starts shedding requests")
+    public void testAimdFindsSheddingPoint() throws Exception {
+        AdaptiveLimiter limiter = limiters("aimd").forHost("target:80");
+        AtomicInteger busy = new AtomicInteger();
+        AtomicLong overloaded = new AtomicLong();
+        drive(limiter, 60, Duration.ofMillis(2500), () -> {
+            // Serves CAPACITY requests at once and sheds the rest straight away with a 503
+            if (busy.incrementAndGet() > CAPACITY) {
+                busy.decrementAndGet();
+                overloaded.incrementAndGet();
+                return true;
+            }
+            sleepNanos(SERVICE_NANOS);
+            busy.decrementAndGet();
+            return false;
+        });
+
+        LimiterStats stats = limiter.getStats();
+        assertTrue(stats.getLimit() >= CAPACITY / 2 && stats.getLimit() <= CAPACITY + 3, "limit " + stats.getLimit());
+        assertTrue(stats.getPeakLimit() >= CAPACITY - 3 && stats.getPeakLimit() <= CAPACITY + 1, "peak limit " + stats.getPeakLimit());
+        assertTrue(stats.getPeakThroughput() > 500, "peak throughput " + stats.getPeakThroughput());
+        assertTrue(stats.getHistory().size() >= 2, "seconds recorded: " + stats.getHistory().size());
+        assertEquals(overloaded.get(), stats.getDrops());
+    }
+
+    @Test
+    @DisplayName("The gradient limit stops growing once latency rises, before the target returns errors")
+    public void testGradientBacksOffOnLatency() throws Exception {
+        AdaptiveLimiter limiter = limiters("gradient").forHost("target:80");
+        AtomicInteger busy = new AtomicInteger();
+        drive(limiter, 100, Duration.ofMillis(2500), () -> {
+            // Never fails, but beyond CAPACITY requests queue and every response slows down
+            int concurrent = busy.incrementAndGet();
+            sleepNanos(SERVICE_NANOS * Math.max(CAPACITY, concurrent) / CAPACITY);
+            busy.decrementAndGet();
+            return false;
+        });
+
+        LimiterStats stats = limiter.getStats();
+        assertEquals(0, stats.getDrops());
+        assertTrue(stats.getLimit() > CAPACITY / 2 && stats.getLimit() < 5 * CAPACITY / 2, "limit " + stats.getLimit());
+        for (int i = 1; i < stats.getHistory().size(); i++) {
+            assertTrue(stats.getHistory().get(i).getAverageRtt() < 70, "average round trip " + stats.getHistory().get(i).getAverageRtt());
+        }
+    }
+
+    @Test
+    @DisplayName("Every site sending to a host shares that host's limiter, and 503s shrink its limit")
+    public void testEnginesShareHostLimiter() throws Exception {
+        ConcurrencyLimiters limiters = limiters("aimd");
+        try (StubServer stub = new StubServer(0)) {
+            HttpClientPools pools = new HttpClientPools(64, 128, Duration.ofSeconds(30), Duration.ofSeconds(20),
+                    "jdk", new String[0], limiters);
+            stub.setLatency(Duration.ZERO, Duration.ZERO);
+            for (int i = 0; i < 20; i++) {
+                pools.engine("restful-booker").send(Request.get(stub.getBookerUrl() + "/ping"));
+                pools.engine("petstore").send(Request.get(stub.getPetstoreUrl() + "/store/inventory"));
+            }
+            assertEquals(1, limiters.getStats().size());
+            LimiterStats healthy = limiters.getStats().get(0);
+            assertEquals("127.0.0.1:" + stub.getPort(), healthy.getHost());
+
+            stub.setErrorRate(1.0);
+            for (int i = 0; i < 20; i++) {
+                assertEquals(503, pools.engine("petstore").send(Request.get(stub.getPetstoreUrl() + "/store/inventory")).statusCode());
+            }
+            LimiterStats shedding = limiters.getStats().get(0);
+            assertEquals(20, shedding.getDrops());
+            assertEquals(1, shedding.getLimit());
+            assertTrue(healthy.getLimit() > 1);
+            pools.engine("restful-booker").shutdown();
+            pools.engine("petstore").shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A burst of drops from requests already in flight cuts the AIMD limit once")
+    public void testAimdBacksOffOncePerRoundTrip() {
+        AdaptiveLimiter limiter = new ConcurrencyLimiters("aimd", 100, 1, 128, Duration.ofSeconds(5), new SimpleMeterRegistry())
+                .forHost("target:80");
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+        }
+        // All 50 were sent a second ago and fail together
+        for (int i = 0; i < 50; i++) {
+            limiter.release(TimeUnit.SECONDS.toNanos(1), true);
+        }
+        assertEquals(90, limiter.getLimit());
+        assertEquals(50, limiter.getStats().getDrops());
+
+        // A request sent after the cut can cut it again
+        limiter.acquire();
+        limiter.release(0, true);
+        assertEquals(81, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("A burst of drops from requests already in flight halves the gradient limit once")
+    public void testGradientBacksOffOncePerRoundTrip() {
+        AdaptiveLimiter limiter = new ConcurrencyLimiters("gradient", 100, 1, 128, Duration.ofSeconds(5), new SimpleMeterRegistry())
+                .forHost("target:80");
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+        }
+        for (int i = 0; i < 50; i++) {
+            limiter.release(TimeUnit.SECONDS.toNanos(1), true);
+        }
+        assertEquals(50, limiter.getLimit());
+
+        limiter.acquire();
+        limiter.release(0, true);
+        assertEquals(25, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Async callers over the limit queue without blocking, and a cancelled one gives up its place")
+    public void testAsyncPermitsQueue() {
+        AdaptiveLimiter limiter = new ConcurrencyLimiters("aimd", 1, 1, 1, Duration.ofSeconds(5), new SimpleMeterRegistry())
+                .forHost("target:80");
+        limiter.acquire();
+
+        CompletableFuture<Void> cancelled = limiter.acquireAsync();
+        CompletableFuture<Void> queued = limiter.acquireAsync();
+        assertFalse(cancelled.isDone());
+        assertFalse(queued.isDone());
+        assertEquals(2, limiter.getStats().getWaiting());
+
+        cancelled.cancel(false);
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1), false);
+        assertTrue(queued.isDone());
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(0, limiter.getStats().getWaiting());
+
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1), false);
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(limiter.acquireAsync().isDone());
+    }
+
+    private static ConcurrencyLimiters limiters(String algorithm) {
+        return new ConcurrencyLimiters(algorithm, 4, 1, 128, Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+
+    // Callers send back to back through the limiter; the target returns true when it shed the request
+    private static void drive(AdaptiveLimiter limiter, int callers, Duration duration, Target target) throws Exception {
+        long end = System.nanoTime() + duration.toNanos();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                threads.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        limiter.acquire();
+                        long start = System.nanoTime();
+                        boolean shed = target.serve();
+                        limiter.release(System.nanoTime() - start, shed);
+                    }
+                });
+            }
+        }
+    }
+
+    private interface Target {
+        boolean serve();
+    }
+
+    private static void sleepNanos(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.spec.SpecEngine;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthTokenManagerTests {
+
+    private StubApiServer stub;
+    private final HttpClientPools pools = new HttpClientPools(64, 128, Duration.ofSeconds(30), Duration.ofSeconds(20));
+
+    @BeforeEach
+    public void setup() throws Exception {
+        stub = new StubApiServer();
+    }
+
+    @AfterEach
+    public void teardown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Concurrent callers share a single token refresh")
+    public void testSingleFlightRefresh() throws Exception {
+        stub.setAuthDelayMillis(200);
+        AuthTokenManager authTokens = new AuthTokenManager(stub.getBookerUrl(), Duration.ofMinutes(10), Duration.ofMinutes(1), pools);
+
+        List<String> tokens = callConcurrently(64, authTokens::getToken);
+
+        assertEquals(1, stub.getAuthCalls());
+        assertEquals(1, authTokens.getMetrics().getRefreshCount());
+        tokens.forEach(token -> assertEquals(tokens.get(0), token));
+    }
+
+    @Test
+    @DisplayName("A rejected token is refreshed once no matter how many callers saw the rejection")
+    public void testRefreshAfterRejection() throws Exception {
+        AuthTokenManager authTokens = new AuthTokenManager(stub.getBookerUrl(), Duration.ofMinutes(10), Duration.ofMinutes(1), pools);
+        String rejected = authTokens.getToken();
+
+        stub.setAuthDelayMillis(100);
+        callConcurrently(32, () -> authTokens.refreshAfterRejection(rejected));
+
+        assertEquals(2, stub.getAuthCalls());
+    }
+
+    @Test
+    @DisplayName("Tokens are refreshed in the background before their TTL expires")
+    public void testProactiveRefresh() throws Exception {
+        AuthTokenManager authTokens = new AuthTokenManager(stub.getBookerUrl(), Duration.ofMillis(300), Duration.ofMillis(150), pools);
+        authTokens.getToken();
+
+        Thread.sleep(400);
+
+        assertTrue(stub.getAuthCalls() >= 2, "expected a background refresh, auth calls: " + stub.getAuthCalls());
+        assertTrue(authTokens.getMetrics().isTokenValid());
+    }
+
+    @Test
+    @DisplayName("A failed background refresh keeps the valid token and is retried before it expires")
+    public void testFailedBackgroundRefreshKeepsToken() throws Exception {
+        AuthTokenManager authTokens = new AuthTokenManager(stub.getBookerUrl(), Duration.ofMillis(800), Duration.ofMillis(400), pools);
+        String token = authTokens.getToken();
+        stub.setErrorRate(1.0);
+
+        // The refresh 400ms in fails; callers still get the old token without logging in
+        Thread.sleep(450);
+        assertTrue(stub.getInjectedErrors() >= 1, "expected a background refresh");
+        assertTrue(authTokens.getMetrics().isTokenValid());
+        assertEquals(token, authTokens.getToken());
+        assertEquals(1, stub.getAuthCalls());
+
+        // A retry succeeds once the API is back, before the old token expires
+        stub.setErrorRate(0);
+        Thread.sleep(250);
+        assertEquals(2, stub.getAuthCalls());
+        assertTrue(authTokens.getMetrics().getFailedRefreshCount() >= 1);
+        assertTrue(authTokens.getMetrics().getTokenExpiresIn() > 500, "expires in " + authTokens.getMetrics().getTokenExpiresIn());
+    }
+
+    @Test
+    @DisplayName("Mutations re-authenticate once when the API rejects the cached token")
+    public void testMutationRetriesOn403() throws Exception {
+        AuthTokenManager authTokens = new AuthTokenManager(stub.getBookerUrl(), Duration.ofMinutes(10), Duration.ofMinutes(1), pools);
+        SpecEngine specEngine = stub.specEngine(pools, authTokens);
+        authTokens.getToken();
+
+        stub.rotateToken();
+        TestResult result = specEngine.execute(specEngine.getPlan("delete-booking"), new TestContext());
+
+        assertEquals("PASSED", result.getStatus(), result.getMessage());
+        assertEquals(2, stub.getAuthCalls());
+    }
+
+    private static List<String> callConcurrently(int callers, Callable<String> call) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+            List<String> tokens = new ArrayList<>();
+            for (Future<String> future : futures) {
+                tokens.add(future.get());
+            }
+            return tokens;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.restfulbooker.tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.spec.ByteTemplate;
+import com.restfulbooker.spec.PayloadBuffer;
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteTemplateTests {
+
+    @Test
+    @DisplayName("Slots render the same bytes as string concatenation")
+    public void testRenderMatchesConcatenation() {
+        TestContext context = new TestContext();
+        context.set("petId", "1234567890123");
+        context.set("username", "user_42");
+        ByteTemplate template = ByteTemplate.compile("{\n  \"id\": {{petId}},\n  \"name\": \"{{ username }}\"\n}");
+
+        byte[] rendered = template.renderBytes(context, new PayloadBuffer(16));
+        String expected = "{\n  \"id\": " + 1234567890123L + ",\n  \"name\": \"" + "user_42" + "\"\n}";
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), rendered);
+    }
+
+    @Test
+    @DisplayName("Non-ASCII literals and values are encoded as UTF-8, and unset variables fail the render")
+    public void testUtf8AndMissingValues() {
+        TestContext context = new TestContext();
+        context.set("name", "Zoë 🐶");
+        ByteTemplate template = ByteTemplate.compile("«{{name}}»");
+
+        PayloadBuffer buffer = new PayloadBuffer(16);
+        template.render(context, buffer);
+        assertEquals("«Zoë 🐶»", new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> ByteTemplate.compile("{\"id\": {{missing}}}").render(context, buffer));
+        assertEquals("Variable missing is not set", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Values in a JSON body are escaped so they can't break out of their string")
+    public void testJsonEscaping() throws Exception {
+        TestContext context = new TestContext();
+        context.set("name", "Bob\", \"admin\": true, \"x\": \"\\\n\t\u0001é");
+        ByteTemplate template = ByteTemplate.compile("{\"name\": \"{{name}}\"}");
+
+        byte[] rendered = template.renderBytes(context, new PayloadBuffer(16));
+        assertEquals("{\"name\": \"Bob\\\", \\\"admin\\\": true, \\\"x\\\": \\\"\\\\\\n\\t\\u0001é\"}",
+                new String(rendered, StandardCharsets.UTF_8));
+        JsonNode json = new ObjectMapper().readTree(rendered);
+        assertEquals(1, json.size());
+        assertEquals(context.get("name"), json.get("name").asText());
+
+        // Other content types get the value as it is
+        byte[] form = ByteTemplate.compile("name={{name}}", false).renderBytes(context, new PayloadBuffer(16));
+        assertEquals("name=" + context.get("name"), new String(form, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Numeric built-ins are written as digits and the buffer is reused across renders")
+    public void testBuiltinsAndReuse() {
+        ByteTemplate template = ByteTemplate.compile("{{$nextId}}-{{$now}}");
+        PayloadBuffer buffer = new PayloadBuffer(16);
+        long before = System.currentTimeMillis();
+        String first = new String(template.renderBytes(new TestContext(), buffer), StandardCharsets.UTF_8);
+        String second = new String(template.renderBytes(new TestContext(), buffer), StandardCharsets.UTF_8);
+
+        String[] firstParts = first.split("-");
+        String[] secondParts = second.split("-");
+        assertEquals(Long.parseLong(firstParts[0]) + 1, Long.parseLong(secondParts[0]));
+        assertTrue(Long.parseLong(firstParts[1]) >= before);
+        assertEquals(second.length(), buffer.length());
+    }
+
+    @Test
+    @DisplayName("Constant bodies are shared and response built-ins are rejected")
+    public void testConstantsAndRejectedBuiltins() {
+        ByteTemplate constant = ByteTemplate.compile("{\"status\": \"available\"}");
+        PayloadBuffer buffer = new PayloadBuffer(16);
+        assertSame(constant.renderBytes(new TestContext(), buffer), constant.renderBytes(new TestContext(), buffer));
+
+        assertThrows(IllegalArgumentException.class, () -> ByteTemplate.compile("{\"count\": {{$count}}}"));
+        assertThrows(IllegalArgumentException.class, () -> ByteTemplate.compile("{{unclosed"));
+    }
+}
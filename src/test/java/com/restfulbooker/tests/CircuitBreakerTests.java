@@ -0,0 +1,212 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.http.CircuitBreaker;
+import com.restfulbooker.http.CircuitBreakers;
+import com.restfulbooker.http.CircuitOpenException;
+import com.restfulbooker.http.ConcurrencyLimiters;
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.http.HttpEngine.Request;
+import com.restfulbooker.model.CircuitBreakerStats;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.spec.ExecutionPlan;
+import com.restfulbooker.spec.SpecEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTests {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("A breaker opens on failures, lets probes through after the open duration and closes when they pass")
+    public void testStateMachine() throws Exception {
+        CircuitBreaker breaker = breakers(Duration.ofSeconds(10)).forHost("target:80");
+        for (int i = 0; i < 4; i++) {
+            breaker.release(breaker.acquire(), MILLIS, i % 2 == 0 ? "HTTP 503" : null);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.release(breaker.acquire(), MILLIS, "HTTP 503");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        CircuitOpenException e = assertThrows(CircuitOpenException.class, breaker::acquire);
+        assertEquals("target:80", e.getHost());
+        assertTrue(e.getMessage().contains("3 of the last 5 requests failed"), e.getMessage());
+
+        // Two probes after the open duration; a third caller is still turned away
+        Thread.sleep(150);
+        CircuitBreaker.Permit probe = breaker.acquire();
+        CircuitBreaker.Permit secondProbe = breaker.acquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertThrows(CircuitOpenException.class, breaker::acquire);
+        breaker.release(probe, MILLIS, null);
+        breaker.release(secondProbe, MILLIS, null);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        CircuitBreakerStats stats = breaker.getStats();
+        assertEquals(1, stats.getOpens());
+        assertEquals(2, stats.getNotPermitted());
+        assertEquals(0, stats.getCalls());
+    }
+
+    @Test
+    @DisplayName("Slow calls open a breaker, and a failed probe opens it again")
+    public void testSlowCallsAndFailedProbe() throws Exception {
+        CircuitBreaker breaker = breakers(Duration.ofMillis(50)).forHost("target:80");
+        for (int i = 0; i < 5; i++) {
+            breaker.release(breaker.acquire(), 80 * MILLIS, null);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.getStats().getReason().contains("took over 50ms"), breaker.getStats().getReason());
+
+        Thread.sleep(150);
+        breaker.release(breaker.acquire(), MILLIS, "ConnectException: Connection refused");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getStats().getOpens());
+        assertThrows(CircuitOpenException.class, breaker::acquire);
+    }
+
+    @Test
+    @DisplayName("A response to a request sent while closed doesn't count as a probe, and an abandoned probe frees its place")
+    public void testPermitsCountInTheirOwnState() throws Exception {
+        CircuitBreaker breaker = breakers(Duration.ofSeconds(10)).forHost("target:80");
+        CircuitBreaker.Permit slow = breaker.acquire();
+        for (int i = 0; i < 5; i++) {
+            breaker.release(breaker.acquire(), MILLIS, "HTTP 503");
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(150);
+        CircuitBreaker.Permit probe = breaker.acquire();
+        CircuitBreaker.Permit abandoned = breaker.acquire();
+        // The request sent before the breaker opened answers fine, which is no probe
+        breaker.release(slow, MILLIS, null);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.abandon(abandoned);
+        CircuitBreaker.Permit retried = breaker.acquire();
+        breaker.release(probe, MILLIS, null);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.release(retried, MILLIS, null);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getStats().getCalls());
+    }
+
+    @Test
+    @DisplayName("Time spent queueing for a limiter permit doesn't make a call slow")
+    public void testLimiterWaitIsNotSlow() throws Exception {
+        CircuitBreakers breakers = breakers(Duration.ofMillis(150));
+        ConcurrencyLimiters limiters = new ConcurrencyLimiters("aimd", 1, 1, 1, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        try (StubApiServer stub = new StubApiServer();
+             ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClientPools pools = new HttpClientPools(64, 128, Duration.ofSeconds(30), Duration.ofSeconds(20),
+                    "restassured", new String[0], limiters, breakers);
+            pools.engine("petstore").send(Request.get(stub.getPetstoreUrl() + "/store/inventory"));
+            stub.setLatency(Duration.ofMillis(50), Duration.ZERO);
+
+            // One at a time: the last of eight waits about 350ms for its turn
+            List<Future<?>> sends = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                sends.add(threads.submit(() -> pools.engine("petstore").send(Request.get(stub.getPetstoreUrl() + "/store/inventory"))));
+            }
+            for (Future<?> send : sends) {
+                send.get();
+            }
+            CircuitBreakerStats stats = breakers.getStats().get(0);
+            assertEquals("CLOSED", stats.getState());
+            assertEquals(0, stats.getSlowCallRate());
+            pools.engine("petstore").shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Once a site is down its tests are SKIPPED without a request, and run again after it recovers")
+    public void testDownSiteIsSkipped() throws Exception {
+        CircuitBreakers breakers = breakers(Duration.ofSeconds(10), Duration.ofMinutes(1));
+        try (StubApiServer stub = new StubApiServer()) {
+            HttpClientPools pools = new HttpClientPools(64, 128, Duration.ofSeconds(30), Duration.ofSeconds(20),
+                    "restassured", new String[0], ConcurrencyLimiters.off(), breakers);
+            AuthTokenManager authTokens = new AuthTokenManager(stub.getBookerUrl(), Duration.ofMinutes(10), Duration.ofMinutes(1), pools);
+            SpecEngine engine = stub.specEngine(pools, authTokens);
+            List<ExecutionPlan> petstore = engine.getSites().get("petstore");
+            stub.setErrorRate(1.0);
+
+            // Five 503s open the breaker; every test after that, fixtures or not, is skipped
+            List<TestResult> first = runAll(engine, petstore);
+            assertEquals("OPEN", breakers.getStats().get(0).getState());
+            assertEquals(5, stub.getInjectedErrors());
+            int opened = 0;
+            while (!"SKIPPED".equals(first.get(opened).getStatus())) {
+                opened++;
+            }
+            assertTrue(opened <= 5, "first skipped test: " + opened);
+            for (TestResult result : first.subList(opened, first.size())) {
+                assertEquals("SKIPPED", result.getStatus());
+                assertTrue(result.getMessage().startsWith("Circuit open for 127.0.0.1:" + stub.getPort()), result.getMessage());
+            }
+
+            long requests = stub.getRequests();
+            long start = System.nanoTime();
+            List<TestResult> second = runAll(engine, petstore);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(second.stream().allMatch(result -> "SKIPPED".equals(result.getStatus())));
+            assertEquals(requests, stub.getRequests());
+            assertTrue(elapsed < 200, "took " + elapsed + "ms");
+            pools.engine("petstore").shutdown();
+            pools.engine("restful-booker").shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Probes close the breaker once the site is back")
+    public void testRecovery() throws Exception {
+        CircuitBreakers breakers = breakers(Duration.ofSeconds(10), Duration.ofMillis(500));
+        try (StubApiServer stub = new StubApiServer()) {
+            HttpClientPools pools = new HttpClientPools(64, 128, Duration.ofSeconds(30), Duration.ofSeconds(20),
+                    "restassured", new String[0], ConcurrencyLimiters.off(), breakers);
+            SpecEngine engine = stub.specEngine(pools, null);
+            ExecutionPlan inventory = engine.getPlan("petstore-inventory");
+            stub.setErrorRate(1.0);
+            // Inventory retries once, so the fifth 503 is on its third run and the retry is turned away
+            for (int i = 0; i < 2; i++) {
+                assertEquals("FAILED", engine.execute(inventory, new TestContext()).getStatus());
+            }
+            assertEquals("SKIPPED", engine.execute(inventory, new TestContext()).getStatus());
+            assertEquals(5, stub.getInjectedErrors());
+
+            stub.setErrorRate(0);
+            Thread.sleep(600);
+            assertEquals("PASSED", engine.execute(inventory, new TestContext()).getStatus());
+            assertEquals("PASSED", engine.execute(inventory, new TestContext()).getStatus());
+            assertEquals("CLOSED", breakers.getStats().get(0).getState());
+            assertEquals("PASSED", engine.execute(inventory, new TestContext()).getStatus());
+            pools.engine("petstore").shutdown();
+        }
+    }
+
+    private static CircuitBreakers breakers(Duration slowCall) {
+        return breakers(slowCall, Duration.ofMillis(100));
+    }
+
+    private static CircuitBreakers breakers(Duration slowCall, Duration openDuration) {
+        return new CircuitBreakers(true, 10, 5, 50, 80, slowCall, openDuration, 2, new SimpleMeterRegistry());
+    }
+
+    private static List<TestResult> runAll(SpecEngine engine, List<ExecutionPlan> plans) {
+        List<TestResult> results = new ArrayList<>();
+        for (ExecutionPlan plan : plans) {
+            results.add(engine.execute(plan, new TestContext()));
+        }
+        return results;
+    }
+}
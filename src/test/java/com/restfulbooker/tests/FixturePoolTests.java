@@ -0,0 +1,164 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.model.FixturePoolStats;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.service.FixturePool;
+import com.restfulbooker.spec.SpecEngine;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FixturePoolTests {
+
+    private static StubApiServer stub;
+    private static HttpClientPools pools;
+    private static AuthTokenManager authTokens;
+
+    private SpecEngine specEngine;
+    private FixturePool fixturePool;
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        stub = new StubApiServer();
+        pools = new HttpClientPools(64, 128, Duration.ofSeconds(30), Duration.ofSeconds(20));
+        authTokens = new AuthTokenManager(stub.getBookerUrl(), Duration.ofMinutes(10), Duration.ofMinutes(1), pools);
+    }
+
+    @AfterAll
+    public static void teardown() {
+        stub.close();
+    }
+
+    @BeforeEach
+    public void createEngine() throws Exception {
+        specEngine = stub.specEngine(pools, authTokens);
+    }
+
+    @AfterEach
+    public void stopPool() {
+        fixturePool.stop();
+    }
+
+    @Test
+    @DisplayName("A mutation test leases a ready booking and only times its own request")
+    public void testLeasedFixture() throws Exception {
+        fixturePool = new FixturePool(new String[]{"create-booking"}, 2, 50, Duration.ofMinutes(1), specEngine);
+        fixturePool.start();
+        awaitStats(() -> stats().getReady() == 2);
+
+        int bookingsBefore = stub.getBookingsCreated();
+        TestContext context = new TestContext();
+        TestResult result = specEngine.execute(specEngine.getPlan("delete-booking"), context);
+        assertEquals("PASSED", result.getStatus(), result.getMessage());
+        assertEquals(0, result.getPhases().getFixtureSetup());
+        assertEquals(1, stats().getHits());
+
+        // The pool refills what the lease took
+        awaitStats(() -> stats().getReady() == 2);
+        assertEquals(bookingsBefore + 1, stub.getBookingsCreated());
+        assertEquals(3, stats().getRefills());
+        assertTrue(stats().getAverageRefillLatency() <= stats().getMaxRefillLatency());
+    }
+
+    @Test
+    @DisplayName("An empty pool misses and a fixture past its max age is evicted, not leased")
+    public void testMissesAndEviction() throws Exception {
+        fixturePool = new FixturePool(new String[]{"petstore-add-pet", "no-such-test"}, 1, 0.5, Duration.ofMillis(100), specEngine);
+        assertNull(fixturePool.lease(specEngine.getPlan("petstore-add-pet")));
+        assertNull(fixturePool.lease(specEngine.getPlan("petstore-place-order")));
+        assertEquals(1, fixturePool.getStats().size());
+
+        fixturePool.start();
+        awaitStats(() -> stats().getReady() == 1);
+        Thread.sleep(300);
+
+        assertNull(fixturePool.lease(specEngine.getPlan("petstore-add-pet")));
+        FixturePoolStats stats = stats();
+        assertEquals(0, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getEvicted());
+    }
+
+    @Test
+    @DisplayName("Leasing past the max age evicts once and the pool never refills past its size")
+    public void testStaleLeasesKeepPoolSize() throws Exception {
+        fixturePool = new FixturePool(new String[]{"petstore-add-pet"}, 2, 50, Duration.ofMillis(150), specEngine);
+        fixturePool.start();
+        awaitStats(() -> stats().getReady() == 2);
+
+        for (int i = 0; i < 10; i++) {
+            Thread.sleep(200);
+            fixturePool.lease(specEngine.getPlan("petstore-add-pet"));
+            assertTrue(stats().getReady() <= 2, "ready: " + stats().getReady());
+        }
+        fixturePool.stop();
+        Thread.sleep(300);
+
+        // Every fixture made is either leased, evicted or still in the pool
+        FixturePoolStats stats = stats();
+        long queued = stats.getRefills() - stats.getHits() - stats.getEvicted();
+        assertEquals(stats.getReady(), queued);
+        assertTrue(queued <= 2, "queued: " + queued);
+        assertTrue(stats.getEvicted() > 0);
+    }
+
+    @Test
+    @DisplayName("Evicted fixtures are deleted from the API")
+    public void testEvictedFixturesDeleted() throws Exception {
+        fixturePool = new FixturePool(new String[]{"create-booking"}, 1, 20, Duration.ofMillis(200), specEngine);
+        fixturePool.start();
+        awaitStats(() -> stats().getDeleted() >= 2);
+
+        long deletes = stub.getMutations().stream().filter(mutation -> mutation.startsWith("DELETE /booking/")).count();
+        assertTrue(deletes >= 2, "deleted bookings: " + deletes);
+        assertTrue(stats().getEvicted() >= stats().getDeleted());
+    }
+
+    @Test
+    @DisplayName("Failed refills back off instead of retrying at the refill rate")
+    public void testRefillBackoff() throws Exception {
+        fixturePool = new FixturePool(new String[]{"petstore-add-pet"}, 4, 50, Duration.ofMinutes(1), specEngine);
+        stub.setErrorRate(1.0);
+        try {
+            fixturePool.start();
+            Thread.sleep(1000);
+            // 50 a second without backoff; 20ms, 40ms, 80ms, ... apart with it
+            long failed = stats().getFailedRefills();
+            assertTrue(failed >= 3 && failed <= 8, "failed refills: " + failed);
+        } finally {
+            stub.setErrorRate(0);
+        }
+    }
+
+    @Test
+    @DisplayName("A read-only test run on its own creates its own fixture instead of leasing one")
+    public void testReadersDoNotLease() throws Exception {
+        fixturePool = new FixturePool(new String[]{"create-booking"}, 2, 50, Duration.ofMinutes(1), specEngine);
+        fixturePool.start();
+        awaitStats(() -> stats().getReady() == 2);
+
+        TestResult result = specEngine.execute(specEngine.getPlan("get-booking"), new TestContext());
+        assertEquals("PASSED", result.getStatus(), result.getMessage());
+        assertTrue(result.getPhases().getFixtureSetup() > 0);
+        assertEquals(0, stats().getHits());
+        assertEquals(2, stats().getReady());
+    }
+
+    private FixturePoolStats stats() {
+        return fixturePool.getStats().get(0);
+    }
+
+    private static void awaitStats(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.get()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for the pool");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.model.ConnectionPoolStats;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.spec.ExecutionPlan;
+import com.restfulbooker.spec.SpecEngine;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpClientPoolsTests {
+
+    private StubApiServer stub;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        stub = new StubApiServer();
+    }
+
+    @AfterEach
+    public void teardown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Sequential tests against a site reuse one keep-alive connection")
+    public void testSequentialRequestsReuseConnection() throws Exception {
+        HttpClientPools pools = new HttpClientPools(8, 16, Duration.ofSeconds(30), Duration.ofSeconds(20));
+        SpecEngine specEngine = stub.specEngine(pools, new AuthTokenManager(stub.getBookerUrl(),
+                Duration.ofMinutes(10), Duration.ofMinutes(1), pools));
+        ExecutionPlan inventory = specEngine.getPlan("petstore-inventory");
+
+        for (int i = 0; i < 50; i++) {
+            TestResult result = specEngine.execute(inventory, new TestContext());
+            assertEquals("PASSED", result.getStatus(), result.getMessage());
+        }
+
+        ConnectionPoolStats stats = pools.getStats().get(0);
+        assertEquals("petstore", stats.getSite());
+        assertEquals(1, stats.getConnectionsOpened());
+        assertEquals(0, stats.getLeased());
+        assertEquals(1, stats.getIdle());
+    }
+
+    @Test
+    @DisplayName("Parallel tests never open more connections than the per-route limit")
+    public void testParallelRequestsRespectRouteLimit() throws Exception {
+        HttpClientPools pools = new HttpClientPools(4, 16, Duration.ofSeconds(30), Duration.ofSeconds(20));
+        SpecEngine specEngine = stub.specEngine(pools, new AuthTokenManager(stub.getBookerUrl(),
+                Duration.ofMinutes(10), Duration.ofMinutes(1), pools));
+        ExecutionPlan inventory = specEngine.getPlan("petstore-inventory");
+
+        List<Future<TestResult>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 64; i++) {
+                futures.add(executor.submit(() -> specEngine.execute(inventory, new TestContext())));
+            }
+        }
+        for (Future<TestResult> future : futures) {
+            assertEquals("PASSED", future.get().getStatus());
+        }
+
+        ConnectionPoolStats stats = pools.getStats().get(0);
+        assertTrue(stats.getConnectionsOpened() <= 4, "connections opened: " + stats.getConnectionsOpened());
+        assertEquals(0, stats.getLeased());
+    }
+}
@@ -0,0 +1,95 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.http.HttpEngine;
+import com.restfulbooker.http.HttpEngine.Request;
+import com.restfulbooker.model.ConnectionPoolStats;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.spec.ExecutionPlan;
+import com.restfulbooker.spec.SpecEngine;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpEngineTests {
+
+    private StubApiServer stub;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        stub = new StubApiServer();
+    }
+
+    @AfterEach
+    public void teardown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Every bundled spec passes on the JDK engine, which reports its phases")
+    public void testSpecsOnJdkEngine() throws Exception {
+        HttpClientPools pools = pools("jdk");
+        SpecEngine engine = stub.specEngine(pools, new AuthTokenManager(stub.getBookerUrl(),
+                Duration.ofMinutes(10), Duration.ofMinutes(1), pools));
+
+        for (List<ExecutionPlan> plans : engine.getSites().values()) {
+            for (ExecutionPlan plan : plans) {
+                TestResult result = engine.execute(plan, new TestContext());
+                assertEquals("PASSED", result.getStatus(), plan.id() + ": " + result.getMessage());
+                assertTrue(result.getPhases().getTimeToFirstByte() > 0, plan.id());
+            }
+        }
+        for (ConnectionPoolStats stats : pools.getStats()) {
+            assertEquals("jdk", stats.getEngine());
+            assertEquals(0, stats.getLeased());
+        }
+    }
+
+    @Test
+    @DisplayName("Engines are chosen per site, with http.engine as the default")
+    public void testEnginePerSite() {
+        HttpClientPools pools = new HttpClientPools(8, 16, Duration.ofSeconds(30), Duration.ofSeconds(20),
+                "restassured", new String[]{"petstore:jdk"});
+        assertEquals("jdk", pools.engine("petstore").name());
+        assertEquals("restassured", pools.engine("restful-booker").name());
+
+        assertThrows(IllegalArgumentException.class, () -> pools("okhttp"));
+        assertThrows(IllegalArgumentException.class, () -> new HttpClientPools(8, 16, Duration.ofSeconds(30),
+                Duration.ofSeconds(20), "jdk", new String[]{"petstore"}));
+    }
+
+    @Test
+    @DisplayName("Async sends run concurrently and stay within the in-flight limit")
+    public void testSendAsync() {
+        for (String name : new String[]{"restassured", "jdk"}) {
+            HttpEngine engine = pools(name).engine("restful-booker");
+            // Keep RestAssured's first-request class loading out of the timing
+            engine.send(Request.get(stub.getBookerUrl() + "/ping"));
+            stub.setLatency(Duration.ofMillis(100), Duration.ZERO);
+            long startTime = System.nanoTime();
+            List<CompletableFuture<HttpEngine.Response>> responses = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                responses.add(engine.sendAsync(Request.get(stub.getBookerUrl() + "/ping")));
+            }
+            for (CompletableFuture<HttpEngine.Response> response : responses) {
+                assertEquals(201, response.join().statusCode());
+            }
+            // Eight at a time: two rounds of 100ms, not sixteen
+            long elapsed = Duration.ofNanos(System.nanoTime() - startTime).toMillis();
+            assertTrue(elapsed >= 200 && elapsed < 1000, name + " took " + elapsed + "ms");
+            assertEquals(0, engine.getStats().getLeased());
+            stub.setLatency(Duration.ofMillis(1), Duration.ZERO);
+        }
+    }
+
+    private static HttpClientPools pools(String engine) {
+        return new HttpClientPools(8, 16, Duration.ofSeconds(30), Duration.ofSeconds(20), engine, new String[0]);
+    }
+}
@@ -0,0 +1,56 @@
+package com.restfulbooker.tests;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.restfulbooker.json.JsonArrays;
+import com.restfulbooker.json.JsonArrays.ArrayCount;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonArraysTests {
+
+    @Test
+    @DisplayName("Elements are counted without being confused by nested arrays and objects")
+    public void testCountsTopLevelElements() throws Exception {
+        ArrayCount count = JsonArrays.count(json("""
+                [
+                  {"id": 1, "tags": [{"id": 2}, {"id": 3}], "category": {"id": 4, "name": "Dogs"}},
+                  {"name": "no id", "photoUrls": [[], [1, 2]], "id": 5},
+                  {"id": null}
+                ]
+                """), "id");
+        assertEquals(3, count.elements());
+        assertEquals(0, count.invalid());
+
+        assertEquals(new ArrayCount(0, 0), JsonArrays.count(json("[]"), "id"));
+    }
+
+    @Test
+    @DisplayName("Elements that aren't objects or lack the required field are reported as invalid")
+    public void testInvalidElements() throws Exception {
+        ArrayCount count = JsonArrays.count(json("""
+                [{"bookingid": 1}, {"booking": {"bookingid": 2}}, 3, "four", [{"bookingid": 5}], null]
+                """), "bookingid");
+        assertEquals(6, count.elements());
+        assertEquals(5, count.invalid());
+
+        assertEquals(0, JsonArrays.count(json("[{}, {\"a\": 1}]"), null).invalid());
+    }
+
+    @Test
+    @DisplayName("Bodies that aren't a complete JSON array are rejected")
+    public void testMalformedBodies() {
+        assertThrows(JsonParseException.class, () -> JsonArrays.count(json("{\"id\": 1}"), "id"));
+        assertThrows(JsonParseException.class, () -> JsonArrays.count(json("[{\"id\": 1},"), "id"));
+        assertThrows(IOException.class, () -> JsonArrays.count(json(""), "id"));
+    }
+
+    private static InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,95 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.model.WindowStats;
+import com.restfulbooker.stats.LatencyRing;
+import com.restfulbooker.stats.LatencyStats;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyStatsTests {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("Percentiles, mean and pass rate match the recorded samples")
+    public void testPercentiles() {
+        LatencyStats stats = new LatencyStats();
+        for (int latency = 1; latency <= 1000; latency++) {
+            stats.record("petstore-find-by-status", latency, latency % 10 != 0, NOW);
+        }
+
+        WindowStats window = stats.query("petstore-find-by-status", "1m", NOW);
+        assertEquals(1000, window.getCount());
+        assertEquals(500.5, window.getMean(), 0.001);
+        assertEquals(0.9, window.getPassRate(), 0.001);
+        assertEquals(500, window.getP50(), 500 * 0.07);
+        assertEquals(950, window.getP95(), 950 * 0.07);
+        assertEquals(990, window.getP99(), 990 * 0.07);
+    }
+
+    @Test
+    @DisplayName("Samples leave each window once it has slid past them")
+    public void testWindowsSlide() {
+        LatencyStats stats = new LatencyStats();
+        stats.record("health", 100, true, NOW);
+
+        long twoMinutesLater = NOW + TimeUnit.MINUTES.toMillis(2);
+        assertEquals(0, stats.query("health", "1m", twoMinutesLater).getCount());
+        assertEquals(1, stats.query("health", "5m", twoMinutesLater).getCount());
+        assertEquals(1, stats.query("health", "1h", twoMinutesLater).getCount());
+
+        long twoHoursLater = NOW + TimeUnit.HOURS.toMillis(2);
+        assertEquals(0, stats.query("health", "1h", twoHoursLater).getCount());
+        assertNull(stats.query("health", "1d", NOW));
+    }
+
+    @Test
+    @DisplayName("A slot reused for a newer period forgets its old samples")
+    public void testSlotReuse() {
+        LatencyRing ring = new LatencyRing(TimeUnit.SECONDS.toMillis(5), 60);
+        ring.record(NOW, 10, true);
+        long wrapped = NOW + TimeUnit.MINUTES.toMillis(5);
+        ring.record(wrapped, 20, false);
+
+        WindowStats stats = new WindowStats();
+        ring.snapshot(wrapped, TimeUnit.MINUTES.toMillis(5), stats);
+        assertEquals(1, stats.getCount());
+        assertEquals(20, stats.getMean(), 0.001);
+        assertEquals(0, stats.getPassRate(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Concurrent writers claiming fresh slots never lose a sample")
+    public void testConcurrentWriters() throws Exception {
+        LatencyRing ring = new LatencyRing(TimeUnit.SECONDS.toMillis(5), 60);
+        int writers = 8;
+        int samplesPerWriter = 50_000;
+
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int writer = 0; writer < writers; writer++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < samplesPerWriter; i++) {
+                        ring.record(NOW + (i % 10) * 5_000L, i % 200, true);
+                    }
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        WindowStats stats = new WindowStats();
+        ring.snapshot(NOW + 45_000, TimeUnit.MINUTES.toMillis(1), stats);
+        assertEquals((long) writers * samplesPerWriter, stats.getCount());
+        assertEquals(99.5, stats.getMean(), 0.001);
+    }
+}
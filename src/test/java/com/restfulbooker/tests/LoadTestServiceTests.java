@@ -0,0 +1,126 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.model.LoadReport;
+import com.restfulbooker.model.PhaseTimings;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.LoadTestService;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load runs against a fake test with injected latency, so what the service
+ * records can be checked against what the test did.
+ */
+public class LoadTestServiceTests {
+
+    private final LoadTestService loadTestService = new LoadTestService();
+
+    @Test
+    @DisplayName("Requests are sent on a fixed schedule however long the responses take")
+    public void testOpenLoopPacing() {
+        List<Long> starts = Collections.synchronizedList(new ArrayList<>());
+        Function<TestContext, TestResult> slow = context -> {
+            starts.add(System.nanoTime());
+            sleep(200);
+            return passed();
+        };
+
+        LoadReport report = loadTestService.run("slow", slow, 50, 1, 64, snapshot -> true);
+
+        assertTrue(report.isFinished());
+        assertEquals(50, report.getSent());
+        assertEquals(50, report.getCompleted());
+        assertEquals(0, report.getErrors());
+        // A closed loop of 64 callers would send all 50 at once; here they are 20ms apart
+        List<Long> sorted = new ArrayList<>(starts);
+        Collections.sort(sorted);
+        long span = TimeUnit.NANOSECONDS.toMillis(sorted.get(49) - sorted.get(0));
+        assertTrue(span >= 800 && span < 1200, "50 requests were sent over " + span + "ms");
+        long within = TimeUnit.NANOSECONDS.toMillis(sorted.get(49) - sorted.get(40));
+        assertTrue(within >= 150, "the last 10 requests were sent within " + within + "ms");
+        assertTrue(report.getP50() >= 200 && report.getP50() < 300, "p50 " + report.getP50());
+    }
+
+    @Test
+    @DisplayName("Requests held up behind a stalled one are recorded from their intended start")
+    public void testCoordinatedOmissionCorrection() {
+        AtomicInteger calls = new AtomicInteger();
+        Function<TestContext, TestResult> stallOnce = context -> {
+            sleep(calls.incrementAndGet() == 20 ? 1000 : 1);
+            return passed();
+        };
+
+        // One request at a time, 100 per second: the stall holds up the next second's requests
+        LoadReport report = loadTestService.run("stall", stallOnce, 100, 2, 1, snapshot -> true);
+
+        assertEquals(200, report.getCompleted());
+        assertTrue(report.getMax() >= 1000, "max " + report.getMax());
+        // Measured from when each request was actually sent, all but one would take ~1ms
+        assertTrue(report.getP50() >= 100, "p50 " + report.getP50());
+        assertTrue(report.getP90() >= 500, "p90 " + report.getP90());
+    }
+
+    @Test
+    @DisplayName("Time spent creating fixtures is left out of the recorded latency")
+    public void testFixtureSetupExcluded() {
+        Function<TestContext, TestResult> withFixture = context -> {
+            sleep(105);
+            TestResult result = passed();
+            PhaseTimings phases = new PhaseTimings();
+            phases.setFixtureSetup(TimeUnit.MILLISECONDS.toNanos(100));
+            result.setPhases(phases);
+            return result;
+        };
+
+        LoadReport report = loadTestService.run("fixture", withFixture, 20, 1, 32, snapshot -> true);
+
+        assertEquals(20, report.getCompleted());
+        assertTrue(report.getP50() >= 4 && report.getP50() < 50, "p50 " + report.getP50());
+    }
+
+    @Test
+    @DisplayName("Failed tests and exceptions count as errors, and a snapshot returning false stops the run")
+    public void testErrorsAndStop() {
+        AtomicInteger calls = new AtomicInteger();
+        Function<TestContext, TestResult> flaky = context -> {
+            int call = calls.incrementAndGet();
+            if (call % 4 == 0) {
+                throw new IllegalStateException("boom");
+            }
+            TestResult result = passed();
+            result.setStatus(call % 4 == 1 ? "FAILED" : "PASSED");
+            return result;
+        };
+
+        LoadReport report = loadTestService.run("flaky", flaky, 40, 10, 8, snapshot -> false);
+
+        assertTrue(report.getSent() <= 41, "sent " + report.getSent());
+        assertEquals(report.getSent(), report.getCompleted());
+        // Calls 1, 4, 5, 8, ... fail
+        assertEquals((report.getCompleted() + 3) / 4 + report.getCompleted() / 4, report.getErrors());
+        assertEquals(0.5, report.getErrorRate(), 0.05);
+    }
+
+    private static TestResult passed() {
+        TestResult result = new TestResult();
+        result.setStatus("PASSED");
+        return result;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.model.MonitorStatus;
+import com.restfulbooker.monitor.MonitorScheduler;
+import com.restfulbooker.monitor.MonitorSpec;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonitorSchedulerTests {
+
+    private MonitorScheduler scheduler;
+
+    @AfterEach
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Hundreds of interval monitors share one timer without drifting")
+    public void testNoDrift() throws Exception {
+        List<MonitorSpec> monitors = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            monitors.add(new MonitorSpec("monitor-" + i, null, List.of("health"), "100ms", null, "0s"));
+        }
+        Map<String, List<Long>> starts = new ConcurrentHashMap<>();
+        scheduler = new MonitorScheduler(monitors, 300, Duration.ZERO, monitor -> {
+            starts.computeIfAbsent(monitor.name(), name -> new CopyOnWriteArrayList<>()).add(System.nanoTime());
+            sleep(30);
+            return new MonitorScheduler.Outcome("run", 1, 0);
+        });
+        scheduler.start();
+        Thread.sleep(1050);
+        scheduler.stop();
+
+        assertEquals(300, starts.size());
+        for (List<Long> times : starts.values()) {
+            assertTrue(times.size() >= 9 && times.size() <= 12, "runs: " + times.size());
+            // Runs taking 30ms would push a fixed-delay schedule 30ms further each time
+            long span = TimeUnit.NANOSECONDS.toMillis(times.get(times.size() - 1) - times.get(0));
+            assertEquals((times.size() - 1) * 100, span, 50, "span of " + times.size() + " runs");
+        }
+        for (MonitorStatus status : scheduler.getStatus()) {
+            assertEquals(0, status.getSkipped(), status.getName());
+            assertEquals("PASSED", status.getLastStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("A monitor still running when it falls due again skips that run")
+    public void testSkipsOverlappingRuns() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        scheduler = new MonitorScheduler(List.of(new MonitorSpec("slow", null, List.of("health"), "50ms", null, null)),
+                4, Duration.ZERO, monitor -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(120);
+                    running.decrementAndGet();
+                    return new MonitorScheduler.Outcome("run", 0, 1);
+                });
+        scheduler.start();
+        Thread.sleep(600);
+
+        MonitorStatus status = scheduler.getStatus().get(0);
+        assertEquals(1, maxRunning.get());
+        assertTrue(status.getSkipped() >= 4, "skipped: " + status.getSkipped());
+        assertTrue(status.getRuns() >= 3 && status.getRuns() <= 5, "runs: " + status.getRuns());
+        assertEquals("FAILED", status.getLastStatus());
+        assertEquals(status.getRuns(), status.getFailedRuns());
+    }
+
+    @Test
+    @DisplayName("No more than max-concurrency monitors run at once")
+    public void testGlobalConcurrencyCap() throws Exception {
+        List<MonitorSpec> monitors = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            monitors.add(new MonitorSpec("monitor-" + i, "restful-booker", null, "50ms", null, "10ms"));
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger runs = new AtomicInteger();
+        scheduler = new MonitorScheduler(monitors, 3, Duration.ZERO, monitor -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(20);
+            running.decrementAndGet();
+            runs.incrementAndGet();
+            return new MonitorScheduler.Outcome("run", 1, 0);
+        });
+        scheduler.start();
+        Thread.sleep(500);
+
+        assertEquals(3, maxRunning.get());
+        assertTrue(runs.get() > 20, "runs: " + runs.get());
+    }
+
+    @Test
+    @DisplayName("Jitter spreads monitors that share an interval, and bad schedules are rejected")
+    public void testJitterAndValidation() throws Exception {
+        List<MonitorSpec> monitors = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            monitors.add(new MonitorSpec("monitor-" + i, null, List.of("health"), "1h", null, null));
+        }
+        monitors.add(new MonitorSpec("hourly", "petstore", null, null, "0 0 * * * *", "0s"));
+        scheduler = new MonitorScheduler(monitors, 4, Duration.ofMinutes(10), monitor -> new MonitorScheduler.Outcome("run", 1, 0));
+        long before = System.currentTimeMillis();
+        scheduler.start();
+        Thread.sleep(100);
+
+        long earliest = Long.MAX_VALUE;
+        long latest = 0;
+        for (MonitorStatus status : scheduler.getStatus().subList(0, 50)) {
+            earliest = Math.min(earliest, status.getNextRun());
+            latest = Math.max(latest, status.getNextRun());
+            assertEquals("every 1h", status.getSchedule());
+        }
+        assertTrue(earliest >= before && latest <= before + Duration.ofMinutes(10).toMillis() + 1000);
+        assertTrue(latest - earliest > Duration.ofMinutes(1).toMillis(), "spread: " + (latest - earliest));
+
+        MonitorStatus hourly = scheduler.getStatus().get(50);
+        ZonedDateTime nextRun = Instant.ofEpochMilli(hourly.getNextRun() + 500).atZone(ZoneId.systemDefault());
+        assertEquals(0, nextRun.getMinute());
+        assertEquals(0, nextRun.getSecond());
+
+        assertThrows(IllegalStateException.class, () -> new MonitorScheduler(
+                List.of(new MonitorSpec("both", null, List.of("health"), "1m", "0 * * * * *", null)), 1, Duration.ZERO, null));
+        assertThrows(IllegalStateException.class, () -> new MonitorScheduler(
+                List.of(new MonitorSpec("bad-cron", null, List.of("health"), null, "every minute", null)), 1, Duration.ZERO, null));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.model.PhaseTimings;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.spec.ExecutionPlan;
+import com.restfulbooker.spec.SpecEngine;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Phase timings reported by the instrumented RestAssured client against the
+ * local stub, which answers every request after a fixed delay. The stub
+ * speaks plain HTTP, so the TLS phase is always zero here.
+ */
+public class PhaseRecorderTests {
+
+    private static final long LATENCY_MILLIS = 100;
+
+    private StubApiServer stub;
+    private HttpClientPools pools;
+    private SpecEngine engine;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        stub = new StubApiServer();
+        pools = new HttpClientPools(8, 16, Duration.ofSeconds(30), Duration.ofSeconds(20));
+        AuthTokenManager authTokens = new AuthTokenManager(stub.getBookerUrl(), Duration.ofMinutes(10), Duration.ofMinutes(1), pools);
+        engine = stub.specEngine(pools, authTokens);
+        // Log in up front so no test's request shares its phases with POST /auth
+        authTokens.getToken();
+        stub.setLatency(Duration.ofMillis(LATENCY_MILLIS), Duration.ZERO);
+    }
+
+    @AfterEach
+    public void teardown() {
+        pools.engine("petstore").shutdown();
+        pools.engine("restful-booker").shutdown();
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("A first request opens a connection; the server's delay is time to first byte")
+    public void testNewConnectionPhases() {
+        TestResult result = engine.execute(engine.getPlan("petstore-inventory"), new TestContext());
+        assertEquals("PASSED", result.getStatus(), result.getMessage());
+        PhaseTimings phases = result.getPhases();
+
+        assertTrue(phases.getConnect() > 0, "connect " + phases.getConnect());
+        assertEquals(0, phases.getTlsHandshake());
+        assertTrue(phases.getRequestWrite() > 0, "request write " + phases.getRequestWrite());
+        assertTrue(millis(phases.getTimeToFirstByte()) >= LATENCY_MILLIS, "TTFB " + millis(phases.getTimeToFirstByte()) + "ms");
+        assertEquals(0, phases.getFixtureSetup());
+        assertPhasesAddUp(phases);
+        assertEquals(millis(phases.getTotal()), result.getDuration());
+    }
+
+    @Test
+    @DisplayName("A request on a pooled connection reports no DNS or connect time")
+    public void testReusedConnectionPhases() {
+        ExecutionPlan inventory = engine.getPlan("petstore-inventory");
+        engine.execute(inventory, new TestContext());
+
+        TestResult result = engine.execute(inventory, new TestContext());
+        assertEquals("PASSED", result.getStatus(), result.getMessage());
+        PhaseTimings phases = result.getPhases();
+        assertEquals(0, phases.getDns());
+        assertEquals(0, phases.getConnect());
+        assertEquals(0, phases.getTlsHandshake());
+        assertTrue(millis(phases.getTimeToFirstByte()) >= LATENCY_MILLIS, "TTFB " + millis(phases.getTimeToFirstByte()) + "ms");
+        assertEquals(1, pools.getStats().stream().filter(stats -> stats.getSite().equals("petstore"))
+                .findFirst().orElseThrow().getConnectionsOpened());
+    }
+
+    @Test
+    @DisplayName("A fixture's requests count as setup, not as the request under test")
+    public void testFixtureSetupSplit() {
+        // update-booking creates its booking first: two requests of 100ms each
+        TestResult result = engine.execute(engine.getPlan("update-booking"), new TestContext());
+        assertEquals("PASSED", result.getStatus(), result.getMessage());
+        PhaseTimings phases = result.getPhases();
+
+        assertTrue(millis(phases.getFixtureSetup()) >= LATENCY_MILLIS, "fixture setup " + millis(phases.getFixtureSetup()) + "ms");
+        long ttfb = millis(phases.getTimeToFirstByte());
+        assertTrue(ttfb >= LATENCY_MILLIS && ttfb < 2 * LATENCY_MILLIS, "TTFB " + ttfb + "ms");
+        // The fixture opened the connection and the PUT reused it
+        assertEquals(0, phases.getConnect());
+        assertPhasesAddUp(phases);
+        assertTrue(result.getDuration() >= 2 * LATENCY_MILLIS, "duration " + result.getDuration() + "ms");
+    }
+
+    private static void assertPhasesAddUp(PhaseTimings phases) {
+        long sum = phases.getDns() + phases.getConnect() + phases.getTlsHandshake() + phases.getRequestWrite()
+                + phases.getTimeToFirstByte() + phases.getBodyRead() + phases.getFixtureSetup() + phases.getClientOverhead();
+        assertEquals(phases.getTotal(), sum);
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
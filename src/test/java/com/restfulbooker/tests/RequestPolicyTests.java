@@ -0,0 +1,198 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.metrics.TestMetrics;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.spec.ExecutionPlan;
+import com.restfulbooker.spec.SpecEngine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestPolicyTests {
+
+    private static final String FLAKY_SITE = """
+            site: flaky
+            baseUrl: %s
+            tests:
+              - id: flaky-get
+                name: Flaky Get
+                request:
+                  method: GET
+                  path: /item
+                hedge:
+                  percentile: 95
+                  minDelay: 50ms
+                retry:
+                  attempts: 2
+                  backoff: 10ms
+                expect:
+                  status: 200
+                pass: Got the item
+                fail: "Unexpected status {{$status}}"
+            """;
+
+    private HttpServer server;
+    private HttpClientPools pools;
+    private SpecEngine engine;
+    private MeterRegistry registry;
+    // Delays of the next requests, in the order they arrive
+    private final Queue<Long> delays = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean failNext = new AtomicBoolean();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/item", this::item);
+        server.start();
+        pools = new HttpClientPools(16, 32, Duration.ofSeconds(30), Duration.ofSeconds(20));
+        engine = new SpecEngine(new String[0], new StandardEnvironment(), pools, null);
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        engine.addSite(SpecEngine.parse(new ByteArrayInputStream(FLAKY_SITE.formatted(baseUrl).getBytes(StandardCharsets.UTF_8))));
+        registry = new SimpleMeterRegistry();
+        new TestMetrics(registry, engine);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pools.engine("flaky").shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("A request slower than the hedge delay is sent again and the faster response wins")
+    public void testHedgeWins() throws Exception {
+        ExecutionPlan plan = engine.getPlan("flaky-get");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, run(plan).getAttempts());
+        }
+        assertTrue(plan.policy().getHedgeDelayNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+
+        // The first request stalls; the hedge sent 50ms later answers at once
+        delays.add(1000L);
+        long start = System.nanoTime();
+        TestResult hedged = run(plan);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals("PASSED", hedged.getStatus());
+        assertEquals(2, hedged.getAttempts());
+        assertTrue(hedged.isHedged());
+        assertTrue(elapsed < 500, "took " + elapsed + "ms");
+
+        assertEquals(1, registry.get("api.test.hedges").counter().count());
+        assertEquals(1, registry.get("api.test.hedge.wins").counter().count());
+        Timer with = registry.get("api.test.request.duration").tag("hedging", "with").timer();
+        assertEquals(11, with.count());
+        assertTrue(with.max(TimeUnit.MILLISECONDS) < 500);
+
+        // The stalled first request is abandoned, and counted as taking as long as it was waited for
+        Timer without = registry.get("api.test.request.duration").tag("hedging", "without").timer();
+        assertEquals(11, without.count());
+        assertTrue(without.max(TimeUnit.MILLISECONDS) >= 50 && without.max(TimeUnit.MILLISECONDS) < 500,
+                "without hedging " + without.max(TimeUnit.MILLISECONDS) + "ms");
+        // Every request, hedged or not, has its network phases
+        assertTrue(hedged.getPhases().getConnect() + hedged.getPhases().getTimeToFirstByte() > 0);
+        assertNoConnectionLeased();
+    }
+
+    @Test
+    @DisplayName("When the first request answers before the hedge, the hedge is cancelled")
+    public void testLosingHedgeCancelled() throws Exception {
+        ExecutionPlan plan = engine.getPlan("flaky-get");
+        // Enough samples that the cold first request isn't the 95th percentile
+        for (int i = 0; i < 20; i++) {
+            TestResult result = run(plan);
+            assertEquals(1, result.getAttempts());
+            assertTrue(result.getPhases().getTimeToFirstByte() > 0);
+        }
+        assertTrue(plan.policy().getHedgeDelayNanos() < TimeUnit.MILLISECONDS.toNanos(300));
+
+        // The first request is slow enough to be hedged, the hedge far slower
+        delays.add(300L);
+        delays.add(2000L);
+        long start = System.nanoTime();
+        TestResult result = run(plan);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals("PASSED", result.getStatus());
+        assertEquals(2, result.getAttempts());
+        assertFalse(result.isHedged());
+        assertTrue(elapsed < 1000, "took " + elapsed + "ms");
+        assertTrue(result.getPhases().getTimeToFirstByte() >= TimeUnit.MILLISECONDS.toNanos(300));
+        assertNoConnectionLeased();
+    }
+
+    @Test
+    @DisplayName("A 503 is retried after the backoff and the test passes on the second attempt")
+    public void testRetry() {
+        ExecutionPlan plan = engine.getPlan("flaky-get");
+        failNext.set(true);
+        TestResult result = run(plan);
+        assertEquals("PASSED", result.getStatus());
+        assertEquals(2, result.getAttempts());
+        assertFalse(result.isHedged());
+        assertEquals(2, requests.get());
+        assertEquals(1, registry.get("api.test.retries").counter().count());
+        assertEquals(0, registry.get("api.test.hedges").counter().count());
+    }
+
+    @Test
+    @DisplayName("Hedging a write fails the spec at startup")
+    public void testHedgeNeedsRead() {
+        String post = FLAKY_SITE.formatted("http://localhost").replace("site: flaky", "site: writer")
+                .replace("flaky-get", "writer-post").replace("method: GET", "method: POST");
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> engine.addSite(SpecEngine.parse(new ByteArrayInputStream(post.getBytes(StandardCharsets.UTF_8)))));
+        assertTrue(e.getMessage().contains("writer/writer-post"), e.getMessage());
+        assertTrue(e.getMessage().contains("hedge needs a GET"), e.getMessage());
+    }
+
+    // The loser's connection is given back long before its response would have arrived
+    private void assertNoConnectionLeased() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+        while (pools.getStats().get(0).getLeased() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, pools.getStats().get(0).getLeased());
+    }
+
+    private TestResult run(ExecutionPlan plan) {
+        return engine.execute(plan, new TestContext());
+    }
+
+    private void item(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        Long delay = delays.poll();
+        if (delay != null) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int status = failNext.getAndSet(false) ? 503 : 200;
+        byte[] body = "{\"id\": 1}".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
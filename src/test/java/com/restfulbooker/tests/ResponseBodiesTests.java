@@ -0,0 +1,92 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.body.BodyRetention;
+import com.restfulbooker.body.ResponseBodies;
+import com.restfulbooker.model.TestResult;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseBodiesTests {
+
+    private static final String LARGE_BODY = "[" + "{\"bookingid\":12345},".repeat(200) + "{\"bookingid\":0}]";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Bodies within the inline limit are kept as they are in every mode")
+    public void testSmallBodiesStayInline() {
+        for (BodyRetention mode : BodyRetention.values()) {
+            TestResult result = retain(bodies(mode, DataSize.ofMegabytes(1)), "{\"token\":\"abc\"}");
+            assertEquals("{\"token\":\"abc\"}", result.getResponseBody());
+            assertEquals(15, result.getBodySize());
+            assertNull(result.getBodyRef());
+            assertFalse(result.isBodyTruncated());
+        }
+    }
+
+    @Test
+    @DisplayName("Truncation keeps a valid UTF-8 prefix and hashing keeps only a digest")
+    public void testTruncateAndHash() {
+        String body = "é".repeat(1000);
+        TestResult truncated = retain(bodies(BodyRetention.TRUNCATE, DataSize.ofMegabytes(1)), body);
+        assertTrue(truncated.isBodyTruncated());
+        assertEquals(2000, truncated.getBodySize());
+        assertEquals("é".repeat(512), truncated.getResponseBody());
+
+        TestResult hashed = retain(bodies(BodyRetention.HASH, DataSize.ofMegabytes(1)), LARGE_BODY);
+        assertNull(hashed.getResponseBody());
+        assertTrue(hashed.getBodyDigest().matches("sha256:[0-9a-f]{64}"));
+        assertEquals(hashed.getBodyDigest(),
+                retain(bodies(BodyRetention.HASH, DataSize.ofMegabytes(1)), LARGE_BODY).getBodyDigest());
+    }
+
+    @Test
+    @DisplayName("Compressed bodies load back in full until the heap budget pushes out the oldest")
+    public void testCompressedBodies() {
+        ResponseBodies bodies = bodies(BodyRetention.COMPRESS, DataSize.ofBytes(1));
+        TestResult first = retain(bodies, LARGE_BODY);
+        assertNull(first.getResponseBody());
+        assertEquals(LARGE_BODY, bodies.load(first.getBodyRef()));
+
+        String otherBody = LARGE_BODY.replace("12345", "54321");
+        TestResult second = retain(bodies, otherBody);
+        assertNull(bodies.load(first.getBodyRef()));
+        assertEquals(otherBody, bodies.load(second.getBodyRef()));
+    }
+
+    @Test
+    @DisplayName("Spilled bodies stay readable after a restart and unknown references are rejected")
+    public void testSpilledBodies() throws Exception {
+        ResponseBodies bodies = bodies(BodyRetention.SPILL, DataSize.ofMegabytes(1));
+        TestResult result = retain(bodies, LARGE_BODY);
+        assertNull(result.getResponseBody());
+        assertEquals(LARGE_BODY, bodies.load(result.getBodyRef()));
+        bodies.close();
+
+        ResponseBodies reopened = bodies(BodyRetention.SPILL, DataSize.ofMegabytes(1));
+        assertEquals(LARGE_BODY, reopened.load(result.getBodyRef()));
+        assertNull(reopened.load("f1"));
+        assertNull(reopened.load("fzz"));
+        assertNull(reopened.load("x12"));
+        assertNull(reopened.load(null));
+        reopened.close();
+    }
+
+    private ResponseBodies bodies(BodyRetention mode, DataSize compressedBudget) {
+        return new ResponseBodies(mode, DataSize.ofKilobytes(1), compressedBudget,
+                directory, DataSize.ofMegabytes(1), 4);
+    }
+
+    private static TestResult retain(ResponseBodies bodies, String body) {
+        TestResult result = new TestResult();
+        result.setResponseBody(body);
+        bodies.retain(result);
+        return result;
+    }
+}
@@ -0,0 +1,142 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.history.ResultHistory;
+import com.restfulbooker.history.ResultLog;
+import com.restfulbooker.model.HistoryEntry;
+import com.restfulbooker.model.PhaseTimings;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultHistoryTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Results come back newest first with their phases, filtered by test and run")
+    public void testRecordAndQuery() throws Exception {
+        ResultHistory history = new ResultHistory(directory, DataSize.ofKilobytes(64), 8, Duration.ofSeconds(1));
+        TestContext firstRun = new TestContext("run-1");
+        TestContext secondRun = new TestContext("run-2");
+        for (int i = 0; i < 10; i++) {
+            history.onResult(result("health", "PASSED", 201, i), firstRun);
+            history.onResult(result("get-booking", i % 2 == 0 ? "PASSED" : "FAILED", 200, i), secondRun);
+        }
+
+        List<HistoryEntry> latest = history.query("health", null, 3);
+        assertEquals(3, latest.size());
+        assertEquals(9, latest.get(0).getDuration());
+        assertEquals(7, latest.get(2).getDuration());
+        assertEquals("run-1", latest.get(0).getRunId());
+        assertEquals(201, latest.get(0).getStatusCode());
+        assertEquals(9_000_000L, latest.get(0).getPhases().getTotal());
+        assertEquals(9_000L, latest.get(0).getPhases().getTimeToFirstByte());
+
+        List<HistoryEntry> secondRunEntries = history.query(null, "run-2", 100);
+        assertEquals(10, secondRunEntries.size());
+        assertEquals("FAILED", secondRunEntries.get(0).getStatus());
+        secondRunEntries.forEach(entry -> assertEquals("get-booking", entry.getTestId()));
+    }
+
+    @Test
+    @DisplayName("Segments roll when full and the oldest are deleted past the retention limit")
+    public void testSegmentRollingAndRetention() throws Exception {
+        try (ResultLog log = new ResultLog(directory, 1024, 3)) {
+            for (int i = 0; i < 500; i++) {
+                log.append(payload(i));
+            }
+            List<Integer> records = readAll(log);
+            assertEquals(3, segmentFiles().size());
+            assertTrue(records.size() < 500);
+            assertEquals(499, records.get(records.size() - 1));
+            for (int i = 1; i < records.size(); i++) {
+                assertEquals(records.get(i - 1) + 1, records.get(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A torn record left by a crash is discarded and appends continue after the last good one")
+    public void testRecoveryFromTornWrite() throws Exception {
+        try (ResultLog log = new ResultLog(directory, 4096, 8)) {
+            for (int i = 0; i < 20; i++) {
+                log.append(payload(i));
+            }
+        }
+
+        // A crash after the payload and length but before a matching checksum
+        Path segment = segmentFiles().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(8 + 20 * (8 + 4));
+            file.writeInt(40);
+            file.writeInt(12345);
+            file.write(new byte[40]);
+            file.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        }
+
+        try (ResultLog log = new ResultLog(directory, 4096, 8)) {
+            assertEquals(20, readAll(log).size());
+            log.append(payload(20));
+            log.append(payload(21));
+        }
+        try (ResultLog log = new ResultLog(directory, 4096, 8)) {
+            List<Integer> records = readAll(log);
+            assertEquals(22, records.size());
+            assertEquals(21, records.get(21));
+        }
+    }
+
+    @Test
+    @DisplayName("A second process can't append to a history directory in use")
+    public void testDirectoryLock() throws Exception {
+        try (ResultLog log = new ResultLog(directory, 4096, 8)) {
+            assertThrows(IOException.class, () -> new ResultLog(directory, 4096, 8));
+        }
+        // Closing releases the lock
+        new ResultLog(directory, 4096, 8).close();
+    }
+
+    private static TestResult result(String testId, String status, int statusCode, long duration) {
+        TestResult result = new TestResult();
+        result.setTestId(testId);
+        result.setStatus(status);
+        result.setStatusCode(statusCode);
+        result.setDuration(duration);
+        PhaseTimings phases = new PhaseTimings();
+        phases.setTimeToFirstByte(duration * 1_000);
+        phases.setTotal(duration * 1_000_000);
+        result.setPhases(phases);
+        return result;
+    }
+
+    private static ByteBuffer payload(int value) {
+        return ByteBuffer.allocate(4).putInt(0, value);
+    }
+
+    private static List<Integer> readAll(ResultLog log) {
+        List<Integer> values = new ArrayList<>();
+        log.scan(record -> values.add(record.getInt(0)));
+        return values;
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
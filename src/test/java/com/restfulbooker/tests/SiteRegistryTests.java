@@ -0,0 +1,200 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.Application;
+import com.restfulbooker.model.BulkheadStats;
+import com.restfulbooker.model.SiteInfo;
+import com.restfulbooker.model.SiteReadiness;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.Bulkhead;
+import com.restfulbooker.service.SiteRegistry;
+import com.restfulbooker.service.TestExecutor;
+import com.restfulbooker.service.WarmupService;
+import com.restfulbooker.spec.SiteSpec;
+import com.restfulbooker.spec.SpecEngine;
+import com.restfulbooker.stub.StubServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SiteRegistryTests {
+
+    private static final String SLOW_SITE = """
+            site: slow-booker
+            baseUrl: %s
+            bulkhead:
+              maxConcurrency: 2
+              maxQueue: 4
+              maxWait: 5s
+            tests:
+              - id: slow-health
+                name: Slow Health Check
+                request:
+                  method: GET
+                  path: /ping
+                expect:
+                  status: 201
+                pass: API is healthy and responding
+                fail: "Unexpected status code: {{$status}}"
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("A bulkhead queues callers beyond its permits and rejects those beyond its queue or wait")
+    public void testBulkhead() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("site", 2, 1, Duration.ofMillis(200));
+        assertTrue(bulkhead.acquire());
+        assertTrue(bulkhead.acquire());
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Boolean> queued = threads.submit(bulkhead::acquire);
+            while (bulkhead.getQueued() == 0) {
+                Thread.sleep(1);
+            }
+            assertFalse(bulkhead.acquire(), "queue is full");
+            assertFalse(queued.get(), "wait timed out");
+        }
+        bulkhead.release();
+        assertTrue(bulkhead.acquire());
+
+        BulkheadStats stats = bulkhead.getStats();
+        assertEquals(2, stats.getActive());
+        assertEquals(0, stats.getQueued());
+        assertEquals(1, stats.getMaxQueued());
+        assertEquals(2, stats.getRejected());
+        assertEquals(1, stats.getTimedOut());
+        assertEquals(1, stats.getCompleted());
+    }
+
+    @Test
+    @DisplayName("A slow site registered at runtime fills its own bulkhead without holding up Petstore")
+    public void testRuntimeSiteIsIsolated() throws Exception {
+        try (StubApiServer stub = new StubApiServer();
+             StubServer slowStub = new StubServer(0);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class).run(
+                     "--server.port=0",
+                     "--restful-booker.base-url=" + stub.getBookerUrl(),
+                     "--petstore.base-url=" + stub.getPetstoreUrl(),
+                     "--history.dir=" + directory.resolve("history"),
+                     "--body.retention.dir=" + directory.resolve("bodies"),
+                     "--fixture.pool.size=0");
+             ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            slowStub.setLatency(Duration.ofMillis(500), Duration.ZERO);
+            SiteRegistry registry = context.getBean(SiteRegistry.class);
+            TestExecutor executor = context.getBean(TestExecutor.class);
+
+            String yaml = SLOW_SITE.formatted(slowStub.getBookerUrl());
+            SiteInfo registered = registry.register(SpecEngine.parse(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8))));
+            assertEquals("none", registered.getAuth());
+            assertEquals(List.of("slow-health"), registered.getTests().stream().map(test -> test.getId()).toList());
+            assertEquals(List.of("petstore", "restful-booker", "slow-booker"),
+                    registry.getSites().stream().map(SiteInfo::getSite).toList());
+            assertThrows(IllegalStateException.class, () -> registry.register(
+                    SpecEngine.parse(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)))));
+
+            // Outside the timing: the first request through a site's client is slow on its own
+            assertEquals("PASSED", executor.run("petstore-inventory").getStatus());
+
+            List<Future<TestResult>> slowRuns = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                slowRuns.add(threads.submit(() -> executor.run("slow-health")));
+            }
+            while (registry.bulkhead("slow-booker").getQueued() < 4) {
+                Thread.sleep(1);
+            }
+
+            long start = System.nanoTime();
+            TestResult petstore = executor.run("petstore-inventory");
+            long petstoreMillis = (System.nanoTime() - start) / 1_000_000;
+            assertEquals("PASSED", petstore.getStatus(), petstore.getMessage());
+            assertTrue(petstoreMillis < 250, "Petstore took " + petstoreMillis + "ms");
+
+            int passed = 0;
+            int rejected = 0;
+            for (Future<TestResult> run : slowRuns) {
+                TestResult result = run.get();
+                if ("PASSED".equals(result.getStatus())) {
+                    passed++;
+                } else {
+                    assertTrue(result.getMessage().startsWith("Rejected by the slow-booker bulkhead"), result.getMessage());
+                    rejected++;
+                }
+            }
+            assertEquals(6, passed);
+            assertEquals(14, rejected);
+
+            BulkheadStats slow = registry.getSite("slow-booker").getBulkhead();
+            assertEquals(14, slow.getRejected());
+            assertEquals(4, slow.getMaxQueued());
+            assertEquals(0, registry.getSite("petstore").getBulkhead().getRejected());
+        }
+    }
+
+    @Test
+    @DisplayName("Runtime registration is off by default, can't read properties, can't borrow the login token, and warms the site up")
+    public void testRuntimeRegistrationGuards() throws Exception {
+        try (StubApiServer stub = new StubApiServer();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class).run(
+                     "--server.port=0",
+                     "--restful-booker.base-url=" + stub.getBookerUrl(),
+                     "--petstore.base-url=" + stub.getPetstoreUrl(),
+                     "--history.dir=" + directory.resolve("history"),
+                     "--body.retention.dir=" + directory.resolve("bodies"),
+                     "--fixture.pool.size=0")) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            String yaml = SLOW_SITE.formatted(stub.getBookerUrl());
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/sites"))
+                            .POST(HttpRequest.BodyPublishers.ofString(yaml)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(403, response.statusCode());
+
+            SiteRegistry registry = context.getBean(SiteRegistry.class);
+            IllegalStateException placeholder = assertThrows(IllegalStateException.class,
+                    () -> registry.register(parse(SLOW_SITE.formatted("http://${HOME}"))));
+            assertTrue(placeholder.getMessage().contains("${...}"), placeholder.getMessage());
+            IllegalStateException login = assertThrows(IllegalStateException.class,
+                    () -> registry.register(parse(yaml.replace("bulkhead:", "auth:\n  header: Cookie\nbulkhead:"))));
+            assertTrue(login.getMessage().contains("needs an auth.token"), login.getMessage());
+            assertNull(registry.getSite("slow-booker"));
+
+            registry.register(parse(yaml));
+            WarmupService warmup = context.getBean(WarmupService.class);
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (!readiness(warmup, "slow-booker").equals("READY") && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("READY", readiness(warmup, "slow-booker"));
+            assertEquals(1, context.getBean(MeterRegistry.class).find("site.bulkhead.active")
+                    .tag("site", "slow-booker").gauges().size());
+        }
+    }
+
+    private static SiteSpec parse(String yaml) {
+        return SpecEngine.parse(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String readiness(WarmupService warmup, String site) {
+        return warmup.getReadiness().stream().filter(state -> state.getSite().equals(site))
+                .map(SiteReadiness::getState).findFirst().orElse("MISSING");
+    }
+}
@@ -0,0 +1,171 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.spec.ExecutionPlan;
+import com.restfulbooker.spec.SpecEngine;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpecEngineTests {
+
+    private static StubApiServer stub;
+    private static HttpClientPools pools;
+    private static AuthTokenManager authTokens;
+    private static SpecEngine specEngine;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        stub = new StubApiServer();
+        pools = new HttpClientPools(64, 128, Duration.ofSeconds(30), Duration.ofSeconds(20));
+        authTokens = new AuthTokenManager(stub.getBookerUrl(), Duration.ofMinutes(10), Duration.ofMinutes(1), pools);
+        specEngine = stub.specEngine(pools, authTokens);
+    }
+
+    @AfterAll
+    public static void teardown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Every bundled test is compiled and passes against the stub")
+    public void testBundledSpecs() {
+        Map<String, List<ExecutionPlan>> sites = specEngine.getSites();
+        assertEquals(10, sites.get("restful-booker").size());
+        assertEquals(15, sites.get("petstore").size());
+
+        for (List<ExecutionPlan> plans : sites.values()) {
+            for (ExecutionPlan plan : plans) {
+                TestResult result = specEngine.execute(plan, new TestContext());
+                assertEquals("PASSED", result.getStatus(), plan.id() + ": " + result.getMessage());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Fixtures, extractions and clears pass variables through the context")
+    public void testContextVariables() {
+        TestContext context = new TestContext();
+        TestResult getPet = specEngine.execute(specEngine.getPlan("petstore-get-pet"), context);
+        assertEquals("Successfully retrieved pet: Fluffy", getPet.getMessage());
+        String petId = context.get("petId");
+        assertNotNull(petId);
+        assertTrue(getPet.getPhases().getFixtureSetup() > 0);
+
+        TestResult getAgain = specEngine.execute(specEngine.getPlan("petstore-get-pet"), context);
+        assertEquals(0, getAgain.getPhases().getFixtureSetup());
+
+        TestContext bookingContext = new TestContext();
+        TestResult delete = specEngine.execute(specEngine.getPlan("delete-booking"), bookingContext);
+        assertTrue(delete.getMessage().matches("Booking \\d+ deleted successfully"), delete.getMessage());
+        assertNull(bookingContext.get("bookingId"));
+        assertEquals("Deleted", delete.getResponseBody());
+    }
+
+    @Test
+    @DisplayName("A site added as a spec file runs without new code and reports field mismatches")
+    public void testSpecFromFile() throws Exception {
+        Files.writeString(directory.resolve("extra.yml"), """
+                site: extra
+                baseUrl: ${extra.url}
+                tests:
+                  - id: extra-create
+                    name: Create
+                    set:
+                      first: Ann{{$nextId}}
+                    request:
+                      method: POST
+                      path: /booking
+                      body: '{"firstname": "{{first}}", "lastname": "Lee", "totalprice": 100, "depositpaid": true, "bookingdates": {"checkin": "2024-12-01", "checkout": "2024-12-05"}}'
+                    expect:
+                      status: 200
+                      fields:
+                        booking.lastname: Lee
+                    extract:
+                      id: bookingid
+                    pass: "Created {{id}} for {{first}}"
+                    fail: "Got {{$status}}"
+                  - id: extra-wrong-name
+                    name: Wrong name
+                    fixtures:
+                      - test: extra-create
+                    request:
+                      method: GET
+                      path: /booking/{{id}}
+                    expect:
+                      status: 200
+                      fields:
+                        lastname: Smith
+                    pass: unexpected
+                    fail: unexpected
+                """);
+        SpecEngine engine = engine(Map.of("extra.url", stub.getBookerUrl()));
+
+        TestContext context = new TestContext();
+        TestResult created = engine.execute(engine.getPlan("extra-create"), context);
+        assertEquals("PASSED", created.getStatus(), created.getMessage());
+        assertEquals("Created " + context.get("id") + " for " + context.get("first"), created.getMessage());
+
+        TestResult mismatch = engine.execute(engine.getPlan("extra-wrong-name"), new TestContext());
+        assertEquals("FAILED", mismatch.getStatus());
+        assertEquals("Expected lastname to be 'Smith' but was 'Lee'", mismatch.getMessage());
+    }
+
+    @Test
+    @DisplayName("Broken specs fail at startup and name the test")
+    public void testInvalidSpecs() throws Exception {
+        String spec = """
+                site: broken
+                baseUrl: http://localhost
+                tests:
+                  - id: a
+                    name: A
+                    fixtures: [{test: b}]
+                    request: {method: GET, path: /a}
+                    expect: {status: 200}
+                    pass: ok
+                    fail: failed
+                  - id: b
+                    name: B
+                    request: {method: GET, path: /b}
+                    expect: {status: 200}
+                    pass: ok
+                    fail: failed
+                """;
+        Files.writeString(directory.resolve("broken.yml"), spec);
+        assertNotNull(engine(Map.of()).getPlan("a"));
+
+        assertInvalid(spec.replace("    name: B\n", "    name: B\n    fixtures: [{test: a}]\n"), "broken/a: fixture cycle");
+        assertInvalid(spec.replace("{test: b}", "{test: c}"), "broken/a: unknown fixture test c");
+        assertInvalid(spec.replace("pass: ok", "pass: '{{$nope}}'"), "Unknown built-in placeholder: $nope");
+        assertInvalid(spec.replace("expect: {status: 200}", "expect: {}"), "missing expect.status");
+        assertInvalid(spec.replace("    name: A\n", "    name: A\n    typo: 1\n"), "typo");
+    }
+
+    private void assertInvalid(String spec, String expectedMessage) throws Exception {
+        Files.writeString(directory.resolve("broken.yml"), spec);
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> engine(Map.of()));
+        assertTrue(e.getMessage().contains(expectedMessage), e.getMessage());
+    }
+
+    private SpecEngine engine(Map<String, Object> properties) throws Exception {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        return new SpecEngine(new String[]{"file:" + directory + "/*.yml"}, environment, pools, authTokens);
+    }
+}
@@ -0,0 +1,69 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.Application;
+import org.junit.jupiter.api.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time-to-first-request with a restful-booker whose /auth takes as long as a
+ * cold Heroku dyno. "blocking" reproduces the old behaviour of authenticating
+ * while the context starts; "async" is the default background warm-up.
+ */
+public class StartupTimeTests {
+
+    private static final long AUTH_DELAY_MILLIS = 3000;
+
+    private static StubApiServer stub;
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        stub = new StubApiServer();
+        stub.setAuthDelayMillis(AUTH_DELAY_MILLIS);
+    }
+
+    @AfterAll
+    public static void teardown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Background warm-up serves the first request without waiting for auth")
+    public void testTimeToFirstRequest() throws Exception {
+        // The first boot pays for class loading and JIT; keep it out of the comparison
+        timeToFirstRequest(false);
+
+        long blocking = timeToFirstRequest(true);
+        long async = timeToFirstRequest(false);
+
+        System.out.printf("Time to first request: blocking warm-up %d ms, background warm-up %d ms%n", blocking, async);
+        assertTrue(blocking - async > AUTH_DELAY_MILLIS / 2,
+                "background warm-up should not wait for auth: blocking=" + blocking + "ms async=" + async + "ms");
+    }
+
+    private static long timeToFirstRequest(boolean blockingWarmup) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        long startTime = System.nanoTime();
+        try (ConfigurableApplicationContext ignored = new SpringApplicationBuilder(Application.class).run(
+                "--server.port=" + port,
+                "--restful-booker.base-url=" + stub.getBookerUrl(),
+                "--petstore.base-url=" + stub.getPetstoreUrl(),
+                "--warmup.blocking=" + blockingWarmup)) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/readiness")).build();
+            HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding());
+            return (System.nanoTime() - startTime) / 1_000_000;
+        }
+    }
+}
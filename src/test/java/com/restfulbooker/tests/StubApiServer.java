@@ -0,0 +1,53 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.spec.SpecEngine;
+import com.restfulbooker.stub.StubServer;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The local {@link StubServer} on a free port, set up for tests that must
+ * not depend on the public APIs, and recording the mutations it serves.
+ */
+public class StubApiServer extends StubServer {
+
+    private final List<String> mutations = new CopyOnWriteArrayList<>();
+
+    public StubApiServer() throws IOException {
+        super(0);
+        // Widen the race window between fixture creation and the request under test
+        setLatency(Duration.ofMillis(1), Duration.ZERO);
+        setAuthDelayMillis(1);
+    }
+
+    /** A spec engine running the bundled specs against this stub. */
+    public SpecEngine specEngine(HttpClientPools pools, AuthTokenManager authTokens) throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("stub", Map.of(
+                "restful-booker.base-url", getBookerUrl(),
+                "petstore.base-url", getPetstoreUrl())));
+        return new SpecEngine(new String[]{"classpath*:specs/*.yml"}, environment, pools, authTokens);
+    }
+
+    /** Every successful PUT, PATCH and DELETE as "METHOD /path", in arrival order. */
+    public List<String> getMutations() {
+        return mutations;
+    }
+
+    public void setAuthDelayMillis(long authDelayMillis) {
+        setAuthLatency(Duration.ofMillis(authDelayMillis));
+    }
+
+    @Override
+    protected void onMutation(String method, String path) {
+        mutations.add(method + " " + path);
+    }
+}
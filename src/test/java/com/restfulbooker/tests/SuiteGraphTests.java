@@ -0,0 +1,116 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.Application;
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.model.SuiteReport;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.service.SuiteRunnerService;
+import com.restfulbooker.spec.SpecEngine;
+import com.restfulbooker.spec.SuiteGraph;
+import com.restfulbooker.spec.SuiteGraph.Node;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SuiteGraphTests {
+
+    private static StubApiServer stub;
+    private static SpecEngine specEngine;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        stub = new StubApiServer();
+        HttpClientPools pools = new HttpClientPools(64, 128, Duration.ofSeconds(30), Duration.ofSeconds(20));
+        AuthTokenManager authTokens = new AuthTokenManager(stub.getBookerUrl(), Duration.ofMinutes(10), Duration.ofMinutes(1), pools);
+        specEngine = stub.specEngine(pools, authTokens);
+    }
+
+    @AfterAll
+    public static void teardown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Readers share the suite's own fixture test while mutating tests get private fixtures")
+    public void testGraphShape() {
+        SuiteGraph booker = SuiteGraph.of(specEngine.getSites().get("restful-booker"));
+        Map<String, Node> tests = byId(booker.tests());
+        assertEquals(10, tests.size());
+        assertEquals(3, booker.fixtureCount());
+        assertSame(tests.get("create-booking"), tests.get("get-booking").dependencies().get(0));
+        for (String mutating : List.of("update-booking", "partial-update", "delete-booking")) {
+            Node fixture = tests.get(mutating).dependencies().get(0);
+            assertFalse(fixture.isTest(), mutating);
+            assertEquals("create-booking", fixture.plan().id());
+        }
+
+        SuiteGraph petstore = SuiteGraph.of(specEngine.getSites().get("petstore"));
+        assertEquals(5, petstore.fixtureCount());
+        Map<String, Node> petTests = byId(petstore.tests());
+        assertSame(petTests.get("petstore-add-pet"), petTests.get("petstore-get-pet").dependencies().get(0));
+        assertSame(petTests.get("petstore-place-order"), petTests.get("petstore-get-order").dependencies().get(0));
+
+        for (Node node : petstore.nodes()) {
+            for (Node dependency : node.dependencies()) {
+                assertTrue(dependency.index() < node.index(), node.label() + " runs before " + dependency.label());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A scheduled test reports its fixture's error without running the request")
+    public void testFailedFixture() {
+        TestResult result = specEngine.execute(specEngine.getPlan("update-booking"), new TestContext(), i -> false);
+        assertEquals("ERROR", result.getStatus());
+        assertEquals("Failed to create booking for update test", result.getMessage());
+    }
+
+    @Test
+    @DisplayName("A suite run creates one booking per writer plus one shared by readers and reports its critical path")
+    public void testScheduledSuiteRun() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class).run(
+                "--server.port=0",
+                "--restful-booker.base-url=" + stub.getBookerUrl(),
+                "--petstore.base-url=" + stub.getPetstoreUrl(),
+                "--history.dir=" + directory.resolve("history"),
+                "--body.retention.dir=" + directory.resolve("bodies"),
+                "--fixture.pool.size=0")) {
+            SuiteRunnerService runner = context.getBean(SuiteRunnerService.class);
+
+            int bookingsBefore = stub.getBookingsCreated();
+            SuiteReport report = runner.runSuite("restful-booker");
+            assertEquals(10, report.getPassed(), () -> report.getResults().stream()
+                    .map(result -> result.getTestId() + ": " + result.getMessage()).collect(Collectors.joining("\n")));
+            assertEquals(4, stub.getBookingsCreated() - bookingsBefore);
+            assertEquals(3, report.getFixtureRuns());
+
+            // No chain in the booker suite is longer than a fixture and the test that needs it
+            List<String> path = report.getCriticalPath();
+            assertTrue(path.size() == 1 || path.size() == 2 && path.get(0).startsWith("create-booking"), path.toString());
+            assertTrue(report.getCriticalPathDuration() <= report.getTotalWork());
+            assertTrue(report.getWallClockDuration() < report.getTotalWork(),
+                    "wall clock " + report.getWallClockDuration() + "ms, total work " + report.getTotalWork() + "ms");
+
+            assertEquals(15, runner.runSuite("petstore").getPassed());
+        }
+    }
+
+    private static Map<String, Node> byId(List<Node> nodes) {
+        return nodes.stream().collect(Collectors.toMap(node -> node.plan().id(), Function.identity()));
+    }
+}
@@ -0,0 +1,147 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.model.SuiteProgress;
+import com.restfulbooker.model.SuiteReport;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.SuiteRunEvents;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SuiteRunEventsTests {
+
+    private final SuiteRunEvents events = new SuiteRunEvents();
+
+    @Test
+    @DisplayName("A watcher that connects after the run finished gets the whole run replayed")
+    public void testLateSubscriberReplay() throws Exception {
+        publishRun("late", 5);
+
+        RecordingSink sink = new RecordingSink(null);
+        assertNotNull(events.subscribe("late", sink));
+        assertTrue(sink.closed.await(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of("result", "result", "result", "result", "result", "progress", "report"), sink.names);
+        assertEquals(5, ((SuiteProgress) sink.data.get(5)).getCompleted());
+    }
+
+    @Test
+    @DisplayName("A watcher that connects after more results than a queue holds still gets them all")
+    public void testLongRunReplay() throws Exception {
+        events.open(progress("long", 0));
+        publishResults("long", 300);
+
+        RecordingSink sink = new RecordingSink(null);
+        events.subscribe("long", sink);
+        publishResults("long", 1);
+        events.finish("long", new SuiteReport());
+        assertTrue(sink.closed.await(5, TimeUnit.SECONDS));
+
+        assertEquals(301, sink.names.stream().filter("result"::equals).count());
+        assertEquals("test-300", ((TestResult) sink.data.get(299)).getTestId());
+        assertEquals("report", sink.names.get(sink.names.size() - 1));
+    }
+
+    @Test
+    @DisplayName("A slow watcher never blocks the run and only gets the latest progress")
+    public void testSlowSubscriberCoalescesProgress() throws Exception {
+        events.open(progress("slow", 0));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        events.subscribe("slow", sink);
+
+        long startTime = System.nanoTime();
+        publishResults("slow", 100);
+        events.finish("slow", new SuiteReport());
+        assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(1), "publishing waited for the watcher");
+
+        release.countDown();
+        assertTrue(sink.closed.await(5, TimeUnit.SECONDS));
+
+        assertEquals(100, sink.names.stream().filter("result"::equals).count());
+        assertTrue(sink.names.stream().filter("progress"::equals).count() < 10, "progress events: " + sink.names);
+        assertEquals("report", sink.names.get(sink.names.size() - 1));
+        assertEquals("progress", sink.names.get(sink.names.size() - 2));
+        assertEquals(100, ((SuiteProgress) sink.data.get(sink.data.size() - 2)).getCompleted());
+    }
+
+    @Test
+    @DisplayName("A watcher that falls too far behind is disconnected")
+    public void testOverflowingSubscriberIsDisconnected() throws Exception {
+        events.open(progress("overflow", 0));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        events.subscribe("overflow", sink);
+
+        publishResults("overflow", 1000);
+        release.countDown();
+
+        assertTrue(sink.closed.await(5, TimeUnit.SECONDS));
+        assertFalse(sink.names.contains("report"));
+        assertTrue(sink.names.size() < 1000);
+    }
+
+    @Test
+    @DisplayName("Subscribing to an unknown run is rejected")
+    public void testUnknownRun() {
+        assertNull(events.subscribe("missing", new RecordingSink(null)));
+    }
+
+    private void publishRun(String runId, int results) {
+        events.open(progress(runId, 0));
+        publishResults(runId, results);
+        events.finish(runId, new SuiteReport());
+    }
+
+    private void publishResults(String runId, int results) {
+        for (int i = 1; i <= results; i++) {
+            TestResult result = new TestResult();
+            result.setTestId("test-" + i);
+            result.setStatus("PASSED");
+            events.publishResult(runId, result, progress(runId, i));
+        }
+    }
+
+    private static SuiteProgress progress(String runId, int completed) {
+        SuiteProgress progress = new SuiteProgress();
+        progress.setRunId(runId);
+        progress.setCompleted(completed);
+        return progress;
+    }
+
+    // Blocks on its first event until released, like a client on a slow network
+    private static class RecordingSink implements SuiteRunEvents.EventSink {
+        private final CountDownLatch release;
+        private final List<String> names = new CopyOnWriteArrayList<>();
+        private final List<Object> data = new CopyOnWriteArrayList<>();
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        RecordingSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public boolean send(String event, Object payload) {
+            try {
+                if (release != null) {
+                    release.await();
+                }
+            } catch (InterruptedException e) {
+                return false;
+            }
+            names.add(event);
+            data.add(payload);
+            return true;
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
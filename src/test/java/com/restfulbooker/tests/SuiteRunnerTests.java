@@ -0,0 +1,92 @@
+package com.restfulbooker.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restfulbooker.Application;
+import com.restfulbooker.model.SuiteReport;
+import com.restfulbooker.model.TestResult;
+import org.junit.jupiter.api.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GET /api/suites/{site}/run against the local stub, with every request
+ * taking long enough that a sequential run would be obvious.
+ */
+public class SuiteRunnerTests {
+
+    private static final Duration LATENCY = Duration.ofMillis(100);
+
+    private static StubApiServer stub;
+    private static ConfigurableApplicationContext context;
+    private static int port;
+    private static final HttpClient client = HttpClient.newHttpClient();
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        stub = new StubApiServer();
+        stub.setLatency(LATENCY, Duration.ZERO);
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Path data = Files.createTempDirectory("suite-runner");
+        context = new SpringApplicationBuilder(Application.class).run(
+                "--server.port=" + port,
+                "--restful-booker.base-url=" + stub.getBookerUrl(),
+                "--petstore.base-url=" + stub.getPetstoreUrl(),
+                "--history.dir=" + data.resolve("history"),
+                "--body.retention.dir=" + data.resolve("bodies"),
+                "--fixture.pool.size=0");
+    }
+
+    @AfterAll
+    public static void teardown() {
+        context.close();
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("A suite run returns every test's result, and runs them in parallel")
+    public void testParallelSuiteRun() throws Exception {
+        HttpResponse<String> response = get("/api/suites/petstore/run");
+        assertEquals(200, response.statusCode());
+        SuiteReport report = mapper.readValue(response.body(), SuiteReport.class);
+
+        assertEquals("petstore", report.getSite());
+        assertEquals(15, report.getTotal());
+        assertEquals(15, report.getResults().size());
+        for (TestResult result : report.getResults()) {
+            assertEquals("PASSED", result.getStatus(), result.getTestName() + ": " + result.getMessage());
+            assertTrue(result.getDuration() >= LATENCY.toMillis(), result.getTestName() + " took " + result.getDuration() + "ms");
+        }
+        assertEquals(15, report.getPassed());
+        assertEquals(0, report.getFailed());
+
+        // Sequentially the run would take at least the summed duration; in parallel, a few round trips
+        assertTrue(report.getSummedDuration() >= 15 * LATENCY.toMillis(), "summed " + report.getSummedDuration() + "ms");
+        assertTrue(report.getWallClockDuration() < report.getSummedDuration() / 2,
+                "wall clock " + report.getWallClockDuration() + "ms, summed " + report.getSummedDuration() + "ms");
+    }
+
+    @Test
+    @DisplayName("Running an unknown site's suite is a 404")
+    public void testUnknownSite() throws Exception {
+        assertEquals(404, get("/api/suites/missing/run").statusCode());
+    }
+
+    private static HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,105 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.spec.ExecutionPlan;
+import com.restfulbooker.spec.SpecEngine;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestContextConcurrencyTests {
+
+    private static final int RUNS = 128;
+
+    private static StubApiServer stub;
+    private static SpecEngine specEngine;
+
+    @BeforeAll
+    public static void setup() throws Exception {
+        stub = new StubApiServer();
+        HttpClientPools pools = new HttpClientPools(64, 128, Duration.ofSeconds(30), Duration.ofSeconds(20));
+        AuthTokenManager authTokens = new AuthTokenManager(stub.getBookerUrl(), Duration.ofMinutes(10), Duration.ofMinutes(1), pools);
+        specEngine = stub.specEngine(pools, authTokens);
+    }
+
+    @AfterAll
+    public static void teardown() {
+        stub.close();
+    }
+
+    @Test
+    @DisplayName("Parallel booking mutations never touch each other's fixtures")
+    public void testParallelBookingRuns() throws Exception {
+        List<TestContext> updates = runInParallel(test("update-booking"));
+        List<TestContext> patches = runInParallel(test("partial-update"));
+        List<TestContext> deletes = runInParallel(test("delete-booking"));
+
+        assertDistinct(updates.stream().map(context -> context.get("bookingId")).toList());
+        assertDistinct(patches.stream().map(context -> context.get("bookingId")).toList());
+        assertEquals(RUNS, countMutations("DELETE /booking/"));
+        assertDistinct(stub.getMutations());
+    }
+
+    @Test
+    @DisplayName("Parallel Petstore mutations never touch each other's fixtures")
+    public void testParallelPetstoreRuns() throws Exception {
+        List<TestContext> petUpdates = runInParallel(test("petstore-update-pet"));
+        runInParallel(test("petstore-delete-pet"));
+        runInParallel(test("petstore-delete-order"));
+        List<TestContext> userUpdates = runInParallel(test("petstore-update-user"));
+        runInParallel(test("petstore-delete-user"));
+
+        assertDistinct(petUpdates.stream().map(context -> context.get("petId")).toList());
+        assertDistinct(userUpdates.stream().map(context -> context.get("username")).toList());
+        assertEquals(RUNS, countMutations("DELETE /v2/pet/"));
+        assertEquals(RUNS, countMutations("DELETE /v2/store/order/"));
+        assertEquals(RUNS, countMutations("DELETE /v2/user/"));
+        assertDistinct(stub.getMutations());
+    }
+
+    private static Function<TestContext, TestResult> test(String testId) {
+        ExecutionPlan plan = specEngine.getPlan(testId);
+        return context -> specEngine.execute(plan, context);
+    }
+
+    private static List<TestContext> runInParallel(Function<TestContext, TestResult> test) throws Exception {
+        List<TestContext> contexts = new ArrayList<>();
+        List<Future<TestResult>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(RUNS)) {
+            for (int i = 0; i < RUNS; i++) {
+                TestContext context = new TestContext();
+                contexts.add(context);
+                futures.add(executor.submit(() -> test.apply(context)));
+            }
+            for (Future<TestResult> future : futures) {
+                TestResult result = future.get();
+                assertEquals("PASSED", result.getStatus(), result.getTestName() + ": " + result.getMessage());
+            }
+        }
+        return contexts;
+    }
+
+    private static long countMutations(String prefix) {
+        return stub.getMutations().stream().filter(m -> m.startsWith(prefix)).count();
+    }
+
+    private static void assertDistinct(List<?> values) {
+        Set<Object> seen = new HashSet<>();
+        for (Object value : values) {
+            assertTrue(seen.add(value), "Value used by more than one run: " + value);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.restfulbooker.tests;
+
+import com.restfulbooker.Application;
+import com.restfulbooker.http.HttpClientPools;
+import com.restfulbooker.metrics.TestMetrics;
+import com.restfulbooker.model.TestContext;
+import com.restfulbooker.model.TestResult;
+import com.restfulbooker.service.AuthTokenManager;
+import com.restfulbooker.spec.SpecEngine;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMetricsTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Results are counted by site, test, status and status code, with timers registered up front")
+    public void testRecordedResults() throws Exception {
+        try (StubApiServer stub = new StubApiServer()) {
+            HttpClientPools pools = new HttpClientPools(64, 128, Duration.ofSeconds(30), Duration.ofSeconds(20));
+            SpecEngine engine = stub.specEngine(pools, new AuthTokenManager(stub.getBookerUrl(),
+                    Duration.ofMinutes(10), Duration.ofMinutes(1), pools));
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            TestMetrics metrics = new TestMetrics(registry, engine);
+
+            int tests = engine.getSites().values().stream().mapToInt(plans -> plans.size()).sum();
+            assertEquals(tests * 4, registry.find("api.test.duration").timers().size());
+
+            for (int i = 0; i < 3; i++) {
+                TestResult result = engine.execute(engine.getPlan("non-existent"), new TestContext());
+                result.setTestId("non-existent");
+                metrics.onResult(result, null);
+            }
+            TestResult error = new TestResult();
+            error.setStatus("ERROR");
+            error.setDuration(5);
+            metrics.record("health", error);
+
+            assertEquals(3, registry.get("api.test.results")
+                    .tags("site", "restful-booker", "test", "non-existent", "status", "PASSED", "status_code", "404")
+                    .counter().count());
+            Timer passed = registry.get("api.test.duration").tags("test", "non-existent", "status", "PASSED").timer();
+            assertEquals(3, passed.count());
+            assertTrue(passed.totalTime(TimeUnit.NANOSECONDS) > 0);
+            assertEquals(1, registry.get("api.test.results").tags("test", "health", "status", "ERROR", "status_code", "0")
+                    .counter().count());
+            assertEquals(5, registry.get("api.test.duration").tags("test", "health", "status", "ERROR").timer()
+                    .totalTime(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Test executions, auth and pool gauges show up on the Prometheus scrape endpoint")
+    public void testScrapeEndpoint() throws Exception {
+        try (StubApiServer stub = new StubApiServer();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class).run(
+                     "--server.port=0",
+                     "--restful-booker.base-url=" + stub.getBookerUrl(),
+                     "--petstore.base-url=" + stub.getPetstoreUrl(),
+                     "--history.dir=" + directory.resolve("history"),
+                     "--body.retention.dir=" + directory.resolve("bodies"),
+                     "--fixture.pool.size=0")) {
+            String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+            HttpResponse<String> run = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/tests/update-booking")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, run.statusCode());
+            assertTrue(run.body().contains("\"PASSED\""), run.body());
+
+            String scrape = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/prometheus")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            assertTrue(scrape.contains("api_test_results_total{site=\"restful-booker\",status=\"PASSED\",status_code=\"200\",test=\"update-booking\"} 1.0"), scrape);
+            assertTrue(scrape.contains("api_test_duration_seconds_bucket{site=\"restful-booker\",status=\"PASSED\",test=\"update-booking\""));
+            assertTrue(scrape.contains("api_auth_refreshes_total 1.0"));
+            assertTrue(scrape.contains("api_tests_in_flight{mode=\"executor\"} 0.0"));
+            assertTrue(scrape.contains("http_pool_connections_opened_total{site=\"restful-booker\"}"));
+        }
+    }
+}